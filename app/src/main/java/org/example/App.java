@@ -9,5 +9,6 @@ public class App {
     var applicationContext = new AnnotationConfigApplicationContext();
     applicationContext.register(ApplicationConfiguration.class);
     applicationContext.refresh();
+    applicationContext.registerShutdownHook();
   }
 }
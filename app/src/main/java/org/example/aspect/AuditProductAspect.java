@@ -7,6 +7,7 @@ import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.example.dto.AuditEvent;
+import org.example.dto.ProductPage;
 import org.example.dto.SearchCriteria;
 import org.example.model.AuditAction;
 import org.example.model.Product;
@@ -80,6 +81,14 @@ public class AuditProductAspect {
       String defaultMessage = baseMessage.isEmpty() ? "Product search" : baseMessage;
       return defaultMessage + ", found: [%d]".formatted(resultList.size());
     }
+    if (result instanceof ProductPage page) {
+      String defaultMessage = baseMessage.isEmpty() ? "Product search" : baseMessage;
+      return defaultMessage + ", found: [%d]".formatted(page.getProducts().size());
+    }
+    if (result instanceof Long count) {
+      String defaultMessage = baseMessage.isEmpty() ? "Product search" : baseMessage;
+      return defaultMessage + ", found: [%d]".formatted(count);
+    }
     return baseMessage.isEmpty() ? "Product search" : baseMessage;
   }
 
@@ -102,6 +111,13 @@ public class AuditProductAspect {
           .append(criteria.getMaxPrice() != null ? criteria.getMaxPrice() : "none")
           .append("] ");
     }
+    if (criteria.isOrdered()) {
+      message.append("sort=").append(criteria.getSort() != null ? criteria.getSort() : "ID");
+      message.append(criteria.isDescending() ? " desc " : " ");
+    }
+    if (criteria.getLimit() != null) {
+      message.append("limit=").append(criteria.getLimit()).append(" ");
+    }
     message.append("- Found ").append(resultCount).append(" results");
     return message.toString();
   }
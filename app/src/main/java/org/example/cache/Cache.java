@@ -1,6 +1,8 @@
 package org.example.cache;
 
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /** Provides a generic cache interface for storing and retrieving key-value pairs */
 public interface Cache<K, V> {
@@ -10,15 +12,43 @@ public interface Cache<K, V> {
   /** got given key return a cache entry if exist */
   Optional<V> get(K key);
 
+  /**
+   * for given key return a cache entry, if there is no entry value is computed by loader and
+   * cached. Loader returning null means there is no value, nothing is cached then.
+   *
+   * <p>Default implementation does not coordinate concurrent callers, each of them may call loader
+   * for the same key.
+   */
+  default Optional<V> get(K key, Function<? super K, ? extends V> loader) {
+    Optional<V> cached = get(key);
+    if (cached.isPresent() || key == null) {
+      return cached;
+    }
+    V value = loader.apply(key);
+    if (value != null) {
+      put(key, value);
+    }
+    return Optional.ofNullable(value);
+  }
+
   /** associate some key with some value */
   void put(K key, V value);
 
   /** for given key remove entry from cache, does not throw exceptions if not exist */
   void remove(K key);
 
+  /**
+   * remove entries whose key matches predicate, used to drop only entries affected by a change
+   * instead of clearing whole cache
+   */
+  void removeIf(Predicate<? super K> keyPredicate);
+
   /** remove all entries from cache */
   void clear();
 
   /** return true if cache has no entries */
   boolean isEmpty();
+
+  /** hit, miss and eviction counters collected since cache creation */
+  CacheStats stats();
 }
@@ -0,0 +1,24 @@
+package org.example.cache;
+
+import org.example.util.MetricsSource;
+
+/** Publishes statistics of a cache under given name */
+public class CacheMetricsSource implements MetricsSource {
+  private final String name;
+  private final Cache<?, ?> cache;
+
+  public CacheMetricsSource(String name, Cache<?, ?> cache) {
+    this.name = name;
+    this.cache = cache;
+  }
+
+  @Override
+  public String getMetricsName() {
+    return name;
+  }
+
+  @Override
+  public CacheStats getMetrics() {
+    return cache.stats();
+  }
+}
@@ -0,0 +1,15 @@
+package org.example.cache;
+
+/**
+ * Cache usage counters
+ *
+ * @param evictions entries removed to keep cache within maximum size, including entries which
+ *     were not admitted by eviction policy
+ */
+public record CacheStats(long hits, long misses, long evictions, double hitRatio) {
+
+  public static CacheStats of(long hits, long misses, long evictions) {
+    long requests = hits + misses;
+    return new CacheStats(hits, misses, evictions, requests == 0 ? 0 : (double) hits / requests);
+  }
+}
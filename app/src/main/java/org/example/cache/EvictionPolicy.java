@@ -0,0 +1,27 @@
+package org.example.cache;
+
+/**
+ * Decides which keys stay in a bounded cache. Policy tracks keys only, values are stored by the
+ * cache, which reports every read and write of a key and removes keys chosen by the policy.
+ *
+ * <p>Implementations are not thread safe, the cache must serialize calls.
+ */
+public interface EvictionPolicy<K> {
+
+  /** key was requested from cache, whether it was present or not */
+  void onRead(K key);
+
+  /**
+   * key was written to cache
+   *
+   * @return key which must be removed from cache to keep it within capacity, may be the written
+   *     key itself when policy does not admit it, or null if nothing has to be removed
+   */
+  K onWrite(K key);
+
+  /** key was removed from cache by client */
+  void onRemove(K key);
+
+  /** all keys were removed from cache */
+  void clear();
+}
@@ -0,0 +1,11 @@
+package org.example.cache;
+
+import org.example.dto.ProductFacets;
+import org.example.dto.SearchCriteria;
+
+public class FacetStripedCache extends StripedCacheImpl<SearchCriteria, ProductFacets> {
+
+  public FacetStripedCache(int maxSize) {
+    super(maxSize);
+  }
+}
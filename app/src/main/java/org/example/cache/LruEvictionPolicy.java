@@ -0,0 +1,42 @@
+package org.example.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Evicts least recently used key. */
+public class LruEvictionPolicy<K> implements EvictionPolicy<K> {
+  private final int capacity;
+  private final Map<K, Boolean> keys = new LinkedHashMap<>(16, 0.75f, true);
+
+  public LruEvictionPolicy(int capacity) {
+    this.capacity = capacity;
+  }
+
+  @Override
+  public void onRead(K key) {
+    keys.get(key);
+  }
+
+  @Override
+  public K onWrite(K key) {
+    keys.put(key, Boolean.TRUE);
+    if (keys.size() <= capacity) {
+      return null;
+    }
+    Iterator<K> eldest = keys.keySet().iterator();
+    K victim = eldest.next();
+    eldest.remove();
+    return victim;
+  }
+
+  @Override
+  public void onRemove(K key) {
+    keys.remove(key);
+  }
+
+  @Override
+  public void clear() {
+    keys.clear();
+  }
+}
@@ -0,0 +1,23 @@
+package org.example.cache;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+import org.example.model.Product;
+
+public class ProductStripedCache extends StripedCacheImpl<Long, Product> {
+
+  public ProductStripedCache(int maxSize) {
+    super(maxSize);
+  }
+
+  public ProductStripedCache(
+      int maxSize, IntFunction<EvictionPolicy<Long>> evictionPolicyFactory, Duration loadTimeout) {
+    super(maxSize, evictionPolicyFactory, loadTimeout);
+  }
+
+  public void put(Product product) {
+    if (product != null && product.getId() != null) {
+      put(product.getId(), product);
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package org.example.cache;
+
+import java.util.List;
+import org.example.dto.SearchCriteria;
+
+public class SearchResultStripedCache extends StripedCacheImpl<SearchCriteria, List<Long>> {
+
+  public SearchResultStripedCache(int maxSize) {
+    super(maxSize);
+  }
+}
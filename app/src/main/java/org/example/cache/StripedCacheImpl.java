@@ -0,0 +1,329 @@
+package org.example.cache;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import org.example.exception.CacheLoadException;
+
+/**
+ * Thread safe cache. Entries are split by key hash between segments, every segment is guarded by
+ * its own lock, so threads working with different segments do not block each other.
+ *
+ * <p>Each segment has its own {@link EvictionPolicy}, LRU by default, so eviction decisions are
+ * made per segment and approximate the policy over the whole cache. Total number of entries
+ * never exceeds maximal size.
+ *
+ * <p>Loading with {@link #get(Object, Function)} is single flight: only one caller runs the loader
+ * for a key, other callers wait for its result, or failure, up to load timeout.
+ */
+public abstract class StripedCacheImpl<K, V> implements Cache<K, V> {
+  private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+  private static final Duration DEFAULT_LOAD_TIMEOUT = Duration.ofSeconds(30);
+
+  /** maximum number of entries in cache, shared between segments */
+  protected final int maxSize;
+
+  private final Segment<K, V>[] segments;
+  private final int segmentMask;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+  private final LongAdder evictions = new LongAdder();
+  private final Map<K, CompletableFuture<V>> loading = new ConcurrentHashMap<>();
+  private final long loadTimeoutNanos;
+
+  protected StripedCacheImpl(int maxSize) {
+    this(maxSize, DEFAULT_CONCURRENCY_LEVEL);
+  }
+
+  protected StripedCacheImpl(
+      int maxSize, IntFunction<EvictionPolicy<K>> evictionPolicyFactory, Duration loadTimeout) {
+    this(maxSize, DEFAULT_CONCURRENCY_LEVEL, evictionPolicyFactory, loadTimeout);
+  }
+
+  protected StripedCacheImpl(int maxSize, int concurrencyLevel) {
+    this(maxSize, concurrencyLevel, LruEvictionPolicy::new);
+  }
+
+  protected StripedCacheImpl(
+      int maxSize, int concurrencyLevel, IntFunction<EvictionPolicy<K>> evictionPolicyFactory) {
+    this(maxSize, concurrencyLevel, evictionPolicyFactory, DEFAULT_LOAD_TIMEOUT);
+  }
+
+  /**
+   * @param maxSize maximum number of entries
+   * @param concurrencyLevel expected number of concurrently accessing threads, rounded down to
+   *     power of two and limited by maxSize, so every segment can hold at least one entry
+   * @param evictionPolicyFactory creates policy for a segment of given capacity
+   * @param loadTimeout how long callers wait for a value loaded by another caller
+   */
+  @SuppressWarnings("unchecked")
+  protected StripedCacheImpl(
+      int maxSize,
+      int concurrencyLevel,
+      IntFunction<EvictionPolicy<K>> evictionPolicyFactory,
+      Duration loadTimeout) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("cache size must be positive");
+    }
+    this.maxSize = maxSize;
+    this.loadTimeoutNanos = loadTimeout.toNanos();
+    int segmentCount = Integer.highestOneBit(Math.max(1, Math.min(concurrencyLevel, maxSize)));
+    this.segmentMask = segmentCount - 1;
+    this.segments = new Segment[segmentCount];
+    for (int i = 0; i < segmentCount; i++) {
+      int capacity = maxSize / segmentCount + (i < maxSize % segmentCount ? 1 : 0);
+      segments[i] = new Segment<>(evictionPolicyFactory.apply(capacity));
+    }
+  }
+
+  @Override
+  public int size() {
+    int size = 0;
+    for (Segment<K, V> segment : segments) {
+      size += segment.size;
+    }
+    return size;
+  }
+
+  @Override
+  public Optional<V> get(K key) {
+    if (key == null) {
+      return Optional.empty();
+    }
+    V value = segmentFor(key).get(key);
+    if (value == null) {
+      misses.increment();
+    } else {
+      hits.increment();
+    }
+    return Optional.ofNullable(value);
+  }
+
+  /**
+   * Value written, removed or cleared while a load of the same key is in progress takes
+   * precedence, loaded value is then returned to callers but not kept in cache.
+   */
+  @Override
+  public Optional<V> get(K key, Function<? super K, ? extends V> loader) {
+    Optional<V> cached = get(key);
+    if (cached.isPresent() || key == null) {
+      return cached;
+    }
+    CompletableFuture<V> load = new CompletableFuture<>();
+    CompletableFuture<V> inFlight = loading.putIfAbsent(key, load);
+    if (inFlight != null) {
+      return awaitLoad(key, inFlight);
+    }
+    try {
+      V value = segmentFor(key).peek(key);
+      if (value == null) {
+        value = loader.apply(key);
+        storeLoaded(key, value, load);
+      }
+      load.complete(value);
+      return Optional.ofNullable(value);
+    } catch (RuntimeException | Error e) {
+      load.completeExceptionally(e);
+      throw e;
+    } finally {
+      loading.remove(key, load);
+    }
+  }
+
+  @Override
+  public void put(K key, V value) {
+    if (key != null && value != null) {
+      loading.remove(key);
+      store(key, value);
+    }
+  }
+
+  @Override
+  public void remove(K key) {
+    if (key != null) {
+      loading.remove(key);
+      segmentFor(key).remove(key);
+    }
+  }
+
+  /** loads in progress for matching keys are dropped as by {@link #remove} */
+  @Override
+  public void removeIf(Predicate<? super K> keyPredicate) {
+    loading.keySet().removeIf(keyPredicate);
+    for (Segment<K, V> segment : segments) {
+      segment.removeIf(keyPredicate);
+    }
+  }
+
+  @Override
+  public void clear() {
+    loading.clear();
+    for (Segment<K, V> segment : segments) {
+      segment.clear();
+    }
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  @Override
+  public CacheStats stats() {
+    return CacheStats.of(hits.sum(), misses.sum(), evictions.sum());
+  }
+
+  private void store(K key, V value) {
+    if (segmentFor(key).put(key, value)) {
+      evictions.increment();
+    }
+  }
+
+  /**
+   * Writers drop the in-flight load before changing an entry, so if the load is not registered
+   * after storing, the entry might have been changed meanwhile and loaded value is discarded.
+   */
+  private void storeLoaded(K key, V value, CompletableFuture<V> load) {
+    if (value == null) {
+      return;
+    }
+    store(key, value);
+    if (loading.get(key) != load) {
+      segmentFor(key).remove(key, value);
+    }
+  }
+
+  private Optional<V> awaitLoad(K key, CompletableFuture<V> load) {
+    try {
+      return Optional.ofNullable(load.get(loadTimeoutNanos, TimeUnit.NANOSECONDS));
+    } catch (TimeoutException e) {
+      throw new CacheLoadException("Timed out waiting for cache entry to load: " + key, e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new CacheLoadException("Interrupted while waiting for cache entry: " + key, e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new CacheLoadException("Failed to load cache entry: " + key, e.getCause());
+    }
+  }
+
+  private Segment<K, V> segmentFor(K key) {
+    int hash = key.hashCode();
+    return segments[(hash ^ (hash >>> 16)) & segmentMask];
+  }
+
+  private static final class Segment<K, V> {
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<K, V> entries = new HashMap<>();
+    private final EvictionPolicy<K> evictionPolicy;
+    private volatile int size;
+
+    private Segment(EvictionPolicy<K> evictionPolicy) {
+      this.evictionPolicy = evictionPolicy;
+    }
+
+    private V get(K key) {
+      lock.lock();
+      try {
+        evictionPolicy.onRead(key);
+        return entries.get(key);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /** returns value without affecting eviction order */
+    private V peek(K key) {
+      lock.lock();
+      try {
+        return entries.get(key);
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /** returns true if an entry was evicted or the new entry was not admitted */
+    private boolean put(K key, V value) {
+      lock.lock();
+      try {
+        entries.put(key, value);
+        K victim = evictionPolicy.onWrite(key);
+        if (victim != null) {
+          entries.remove(victim);
+        }
+        size = entries.size();
+        return victim != null;
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void remove(K key) {
+      lock.lock();
+      try {
+        if (entries.remove(key) != null) {
+          evictionPolicy.onRemove(key);
+        }
+        size = entries.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    /** removes entry only if it is mapped to given value */
+    private void remove(K key, V value) {
+      lock.lock();
+      try {
+        if (entries.get(key) == value) {
+          entries.remove(key);
+          evictionPolicy.onRemove(key);
+          size = entries.size();
+        }
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void removeIf(Predicate<? super K> keyPredicate) {
+      lock.lock();
+      try {
+        Iterator<K> keys = entries.keySet().iterator();
+        while (keys.hasNext()) {
+          K key = keys.next();
+          if (keyPredicate.test(key)) {
+            keys.remove();
+            evictionPolicy.onRemove(key);
+          }
+        }
+        size = entries.size();
+      } finally {
+        lock.unlock();
+      }
+    }
+
+    private void clear() {
+      lock.lock();
+      try {
+        entries.clear();
+        evictionPolicy.clear();
+        size = 0;
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+}
@@ -0,0 +1,105 @@
+package org.example.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Window TinyLFU policy. New keys enter a small LRU window, keys leaving the window compete for a
+ * place in the main region with its eviction candidate, and the one seen less often according to
+ * {@link FrequencySketch} is evicted. One-off keys, e.g. produced by a scan, do not push
+ * frequently used keys out of the cache.
+ *
+ * <p>Main region is segmented: keys enter probation and are promoted to protected on the next
+ * read, keys demoted from protected go back to probation. Eviction candidates are taken from
+ * probation.
+ */
+public class TinyLfuEvictionPolicy<K> implements EvictionPolicy<K> {
+  private static final double WINDOW_SHARE = 0.01;
+  private static final double PROTECTED_SHARE = 0.8;
+
+  private final int windowCapacity;
+  private final int mainCapacity;
+  private final int protectedCapacity;
+  private final FrequencySketch<K> sketch;
+  private final Map<K, Boolean> window = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<K, Boolean> probation = new LinkedHashMap<>(16, 0.75f, true);
+  private final Map<K, Boolean> protectedKeys = new LinkedHashMap<>(16, 0.75f, true);
+
+  public TinyLfuEvictionPolicy(int capacity) {
+    this.windowCapacity = Math.max(1, (int) (capacity * WINDOW_SHARE));
+    this.mainCapacity = Math.max(0, capacity - windowCapacity);
+    this.protectedCapacity = (int) (mainCapacity * PROTECTED_SHARE);
+    this.sketch = new FrequencySketch<>(capacity);
+  }
+
+  @Override
+  public void onRead(K key) {
+    sketch.increment(key);
+    touch(key);
+  }
+
+  @Override
+  public K onWrite(K key) {
+    if (touch(key)) {
+      return null;
+    }
+    window.put(key, Boolean.TRUE);
+    if (window.size() <= windowCapacity) {
+      return null;
+    }
+    K candidate = removeEldest(window);
+    if (probation.size() + protectedKeys.size() < mainCapacity) {
+      probation.put(candidate, Boolean.TRUE);
+      return null;
+    }
+    Map<K, Boolean> victimRegion = probation.isEmpty() ? protectedKeys : probation;
+    if (victimRegion.isEmpty()) {
+      return candidate;
+    }
+    K victim = victimRegion.keySet().iterator().next();
+    if (sketch.frequency(candidate) <= sketch.frequency(victim)) {
+      return candidate;
+    }
+    victimRegion.remove(victim);
+    probation.put(candidate, Boolean.TRUE);
+    return victim;
+  }
+
+  @Override
+  public void onRemove(K key) {
+    if (window.remove(key) == null && probation.remove(key) == null) {
+      protectedKeys.remove(key);
+    }
+  }
+
+  @Override
+  public void clear() {
+    window.clear();
+    probation.clear();
+    protectedKeys.clear();
+    sketch.clear();
+  }
+
+  /** moves tracked key to most recently used position of its region, returns false if untracked */
+  private boolean touch(K key) {
+    if (window.get(key) != null || protectedKeys.get(key) != null) {
+      return true;
+    }
+    if (probation.remove(key) == null) {
+      return false;
+    }
+    protectedKeys.put(key, Boolean.TRUE);
+    if (protectedKeys.size() > protectedCapacity) {
+      probation.put(removeEldest(protectedKeys), Boolean.TRUE);
+    }
+    return true;
+  }
+
+  private static <K> K removeEldest(Map<K, Boolean> region) {
+    Iterator<K> eldest = region.keySet().iterator();
+    K key = eldest.next();
+    eldest.remove();
+    return key;
+  }
+}
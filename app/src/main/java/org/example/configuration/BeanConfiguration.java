@@ -5,8 +5,20 @@ import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
 import jakarta.validation.ValidatorFactory;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.IntFunction;
 import org.example.cache.Cache;
-import org.example.cache.ProductBaseCache;
+import org.example.cache.CacheMetricsSource;
+import org.example.cache.EvictionPolicy;
+import org.example.cache.FacetStripedCache;
+import org.example.cache.LruEvictionPolicy;
+import org.example.cache.ProductStripedCache;
+import org.example.cache.SearchResultStripedCache;
+import org.example.cache.TinyLfuEvictionPolicy;
+import org.example.dto.ProductFacets;
+import org.example.dto.SearchCriteria;
+import org.example.exception.InitializationException;
 import org.example.model.Product;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -20,6 +32,25 @@ public class BeanConfiguration {
   @Value("${cache.product.size}")
   private int cacheSize;
 
+  /**
+   * eviction policy of striped cache: lru, or tinylfu - keeps frequently used entries when cache
+   * is flooded with one-off entries
+   */
+  @Value("${cache.product.eviction}")
+  private String cacheEviction;
+
+  /** how long concurrent lookups wait for a product loaded by another request */
+  @Value("${cache.product.load_timeout_ms}")
+  private long cacheLoadTimeoutMs;
+
+  /** number of search criteria whose found product ids are kept */
+  @Value("${cache.search_results.size}")
+  private int searchResultCacheSize;
+
+  /** number of search criteria whose facet counts are kept */
+  @Value("${cache.facets.size}")
+  private int facetCacheSize;
+
   @Bean
   public ObjectMapper objectMapper() {
     var objectMapper = new ObjectMapper();
@@ -36,6 +67,42 @@ public class BeanConfiguration {
 
   @Bean
   public Cache<Long, Product> cache() {
-    return new ProductBaseCache(cacheSize);
+    return new ProductStripedCache(
+        cacheSize, evictionPolicyFactory(), Duration.ofMillis(cacheLoadTimeoutMs));
+  }
+
+  @Bean
+  public CacheMetricsSource productCacheMetrics(Cache<Long, Product> cache) {
+    return new CacheMetricsSource("product_cache", cache);
+  }
+
+  @Bean
+  public Cache<SearchCriteria, List<Long>> searchResultCache() {
+    return new SearchResultStripedCache(searchResultCacheSize);
+  }
+
+  @Bean
+  public CacheMetricsSource searchResultCacheMetrics(
+      Cache<SearchCriteria, List<Long>> searchResultCache) {
+    return new CacheMetricsSource("search_result_cache", searchResultCache);
+  }
+
+  @Bean
+  public Cache<SearchCriteria, ProductFacets> facetCache() {
+    return new FacetStripedCache(facetCacheSize);
+  }
+
+  @Bean
+  public CacheMetricsSource facetCacheMetrics(Cache<SearchCriteria, ProductFacets> facetCache) {
+    return new CacheMetricsSource("facet_cache", facetCache);
+  }
+
+  private IntFunction<EvictionPolicy<Long>> evictionPolicyFactory() {
+    return switch (cacheEviction) {
+      case "lru" -> LruEvictionPolicy::new;
+      case "tinylfu" -> TinyLfuEvictionPolicy::new;
+      default ->
+          throw new InitializationException("Unknown product cache eviction: " + cacheEviction);
+    };
   }
 }
@@ -0,0 +1,42 @@
+package org.example.dto;
+
+import jakarta.validation.ValidationException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.example.model.AuditLog;
+
+/**
+ * Position after the last audit log of a page. Logs are ordered by timestamp and id, id tells
+ * apart logs written at the same time, so no log is skipped or repeated between pages.
+ */
+@EqualsAndHashCode
+@Getter
+@AllArgsConstructor
+public class AuditCursor {
+  private final LocalDateTime timestamp;
+  private final long id;
+
+  public static AuditCursor of(AuditLog auditLog) {
+    return new AuditCursor(auditLog.getTimestamp(), auditLog.getId());
+  }
+
+  /** Cursor of request parameter value, as written by {@link #toString()}. */
+  public static AuditCursor of(String value) {
+    int separator = value.lastIndexOf(',');
+    try {
+      return new AuditCursor(
+          LocalDateTime.parse(value.substring(0, Math.max(separator, 0))),
+          Long.parseLong(value.substring(separator + 1)));
+    } catch (DateTimeParseException | NumberFormatException e) {
+      throw new ValidationException("after must be a cursor of a previous page");
+    }
+  }
+
+  @Override
+  public String toString() {
+    return timestamp + "," + id;
+  }
+}
@@ -0,0 +1,16 @@
+package org.example.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.model.AuditLog;
+
+@Getter
+@AllArgsConstructor
+public class AuditLogPage {
+  /** audit logs newest first, by timestamp and id */
+  private List<AuditLog> auditLogs;
+
+  /** value for 'after' parameter to request next page, null if this page is the last one */
+  private AuditCursor nextCursor;
+}
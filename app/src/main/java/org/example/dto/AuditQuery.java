@@ -0,0 +1,23 @@
+package org.example.dto;
+
+import java.time.LocalDateTime;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.example.model.AuditAction;
+
+/**
+ * Filters of audit log pages, filters which are not set are ignored. Time range includes from and
+ * excludes to, so consecutive ranges do not overlap.
+ */
+@EqualsAndHashCode
+@Builder
+@Getter
+@AllArgsConstructor
+public class AuditQuery {
+  private final String username;
+  private final AuditAction action;
+  private final LocalDateTime from;
+  private final LocalDateTime to;
+}
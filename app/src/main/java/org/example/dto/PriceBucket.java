@@ -0,0 +1,17 @@
+package org.example.dto;
+
+import java.math.BigDecimal;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PriceBucket {
+  /** inclusive lower bound, null for the first bucket */
+  private BigDecimal from;
+
+  /** exclusive upper bound, null for the last bucket */
+  private BigDecimal to;
+
+  private long count;
+}
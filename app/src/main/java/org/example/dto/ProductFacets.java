@@ -0,0 +1,52 @@
+package org.example.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/** Numbers of products matching search criteria per category, brand and price bucket */
+@Getter
+@AllArgsConstructor
+public class ProductFacets {
+  /** most frequent first, products without category are not counted */
+  private Map<String, Long> categories;
+
+  /** most frequent first, products without brand are not counted */
+  private Map<String, Long> brands;
+
+  /** every bucket in price order, including empty ones */
+  private List<PriceBucket> prices;
+
+  /**
+   * Builds facets from counted values. Price bucket i holds prices from bound i - 1 inclusive to
+   * bound i exclusive, so there is one bucket more than bounds.
+   */
+  public static ProductFacets of(
+      Map<String, Long> categories,
+      Map<String, Long> brands,
+      List<BigDecimal> priceBounds,
+      long[] priceCounts) {
+    List<PriceBucket> prices = new ArrayList<>(priceCounts.length);
+    for (int i = 0; i < priceCounts.length; i++) {
+      BigDecimal from = i == 0 ? null : priceBounds.get(i - 1);
+      BigDecimal to = i == priceBounds.size() ? null : priceBounds.get(i);
+      prices.add(new PriceBucket(from, to, priceCounts[i]));
+    }
+    return new ProductFacets(byCount(categories), byCount(brands), prices);
+  }
+
+  private static Map<String, Long> byCount(Map<String, Long> counts) {
+    Map<String, Long> sorted = new LinkedHashMap<>();
+    counts.entrySet().stream()
+        .sorted(
+            Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder())
+                .thenComparing(Map.Entry.comparingByKey()))
+        .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+    return sorted;
+  }
+}
@@ -0,0 +1,16 @@
+package org.example.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.example.model.Product;
+
+@Getter
+@AllArgsConstructor
+public class ProductPage {
+  /** products ordered by id */
+  private List<Product> products;
+
+  /** value for 'after' parameter to request next page, null if this page is the last one */
+  private Long nextCursor;
+}
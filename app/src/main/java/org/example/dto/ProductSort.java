@@ -0,0 +1,36 @@
+package org.example.dto;
+
+import jakarta.validation.ValidationException;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.function.Function;
+import org.example.model.Product;
+
+/**
+ * Value search results are ordered by. Products with equal values are ordered by id, products
+ * without the value come last in ascending order, as in database.
+ */
+public enum ProductSort {
+  ID(Product::getId),
+  NAME(Product::getName),
+  PRICE(Product::getPrice);
+
+  private final Comparator<Product> byValue;
+
+  <T extends Comparable<? super T>> ProductSort(Function<Product, T> value) {
+    this.byValue = Comparator.comparing(value, Comparator.nullsLast(Comparator.naturalOrder()));
+  }
+
+  public Comparator<Product> comparator(boolean descending) {
+    return (descending ? byValue.reversed() : byValue).thenComparing(Product::getId);
+  }
+
+  /** Sort by name of request parameter value, letter case is ignored. */
+  public static ProductSort of(String value) {
+    try {
+      return valueOf(value.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new ValidationException("sort must be one of id, name, price");
+    }
+  }
+}
@@ -1,6 +1,8 @@
 package org.example.dto;
 
 import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.Locale;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.EqualsAndHashCode;
@@ -10,6 +12,8 @@ import org.example.model.Product;
 /**
  * Parameter for product search. Minimal sensible validation, so search can be as flexible as
  * possible, excluding most unrealistic values, like negative price.
+ *
+ * <p>Results are ordered by sort, by id if only limit or descending is set, and cut to limit.
  */
 @EqualsAndHashCode
 @Builder
@@ -22,6 +26,9 @@ public class SearchCriteria {
   private final String brand;
   private final BigDecimal minPrice;
   private final BigDecimal maxPrice;
+  private final ProductSort sort;
+  private final boolean descending;
+  private final Integer limit;
 
   public boolean matchesId(Product product) {
     return product.getId() != null && product.getId().equals(this.id);
@@ -32,7 +39,10 @@ public class SearchCriteria {
       return true;
     }
     return product.getName() != null
-        && product.getName().toLowerCase().contains(this.name.toLowerCase().trim());
+        && product
+            .getName()
+            .toLowerCase(Locale.ROOT)
+            .contains(this.name.toLowerCase(Locale.ROOT).trim());
   }
 
   public boolean matchesCategory(Product product) {
@@ -61,12 +71,62 @@ public class SearchCriteria {
     return matchesMin && matchesMax;
   }
 
+  /**
+   * true if product matches every filter set in criteria, the same way search does. Sort and limit
+   * are not filters, product may match and still be cut off by limit.
+   */
+  public boolean matches(Product product) {
+    boolean hasPriceRange = this.minPrice != null || this.maxPrice != null;
+    return (this.id == null || matchesId(product))
+        && matchesName(product)
+        && matchesCategory(product)
+        && matchesBrand(product)
+        && (!hasPriceRange || matchesPriceRange(product));
+  }
+
+  /**
+   * Criteria finding the same products, with text filters trimmed and lower cased, blank filters
+   * dropped and trailing zeros of prices removed. Searches which differ only in how filters are
+   * written get equal criteria.
+   */
+  public SearchCriteria normalized() {
+    return new SearchCriteria(
+        this.id,
+        normalize(this.name),
+        normalize(this.category),
+        normalize(this.brand),
+        this.minPrice == null ? null : this.minPrice.stripTrailingZeros(),
+        this.maxPrice == null ? null : this.maxPrice.stripTrailingZeros(),
+        this.sort,
+        this.descending,
+        this.limit);
+  }
+
+  /** true if neither filters nor order nor limit are set */
   public boolean isEmpty() {
-    return id == null
-        && name == null
-        && category == null
-        && brand == null
-        && minPrice == null
-        && maxPrice == null;
+    return !hasFilters() && !isOrdered();
+  }
+
+  public boolean hasFilters() {
+    return id != null
+        || name != null
+        || category != null
+        || brand != null
+        || minPrice != null
+        || maxPrice != null;
+  }
+
+  /** true if results must be ordered, limited results are ordered so limit cuts the same ones */
+  public boolean isOrdered() {
+    return sort != null || descending || limit != null;
+  }
+
+  /** order of results, by id if sort is not set */
+  public Comparator<Product> comparator() {
+    return (sort != null ? sort : ProductSort.ID).comparator(descending);
+  }
+
+  private static String normalize(String filter) {
+    return filter == null || filter.isBlank() ? null : filter.trim().toLowerCase(Locale.ROOT);
   }
 }
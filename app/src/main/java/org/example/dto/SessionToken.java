@@ -0,0 +1,16 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class SessionToken {
+  /** opaque token, sent as "Authorization: Bearer token" */
+  private String token;
+
+  private String tokenType;
+
+  /** seconds until token expires */
+  private long expiresIn;
+}
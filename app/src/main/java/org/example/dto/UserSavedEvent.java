@@ -0,0 +1,17 @@
+package org.example.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@AllArgsConstructor
+@Getter
+public class UserSavedEvent {
+  /** id of saved user, it does not change when user is renamed */
+  private Long userId;
+
+  /** username after save */
+  private String username;
+
+  /** true for a new user, false if existing user was updated and may have been renamed */
+  private boolean created;
+}
@@ -0,0 +1,12 @@
+package org.example.exception;
+
+/** Thrown when value for a cache entry could not be loaded in time */
+public class CacheLoadException extends RuntimeException {
+  public CacheLoadException(String message) {
+    super(message);
+  }
+
+  public CacheLoadException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
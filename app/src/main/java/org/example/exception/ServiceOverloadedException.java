@@ -0,0 +1,8 @@
+package org.example.exception;
+
+/** Thrown when request is rejected because a limited resource is saturated, client may retry */
+public class ServiceOverloadedException extends RuntimeException {
+  public ServiceOverloadedException(String message) {
+    super(message);
+  }
+}
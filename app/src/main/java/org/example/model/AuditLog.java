@@ -2,6 +2,7 @@ package org.example.model;
 
 import java.time.LocalDateTime;
 import java.util.Objects;
+import java.util.UUID;
 
 public class AuditLog {
   private Long id;
@@ -10,6 +11,9 @@ public class AuditLog {
   private AuditAction action;
   private String details;
 
+  /** given before the first save, a log saved again after a failure is not saved twice */
+  private UUID eventId;
+
   public static AuditLog fromAuditLog(AuditLog other) {
     AuditLog auditLog = new AuditLog();
     auditLog.setId(other.getId());
@@ -17,6 +21,7 @@ public class AuditLog {
     auditLog.setUsername(other.getUsername());
     auditLog.setAction(other.getAction());
     auditLog.setDetails(other.getDetails());
+    auditLog.setEventId(other.getEventId());
     return auditLog;
   }
 
@@ -60,6 +65,14 @@ public class AuditLog {
     this.details = details;
   }
 
+  public UUID getEventId() {
+    return eventId;
+  }
+
+  public void setEventId(UUID eventId) {
+    this.eventId = eventId;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -0,0 +1,28 @@
+package org.example.repository;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Maintenance of monthly partitions audit logs are stored in. A log of a month without partition
+ * is stored in the default partition, until the partition of its month is created.
+ */
+public interface AuditPartitionRepository {
+
+  /** Months having a partition attached, in ascending order, without the default partition. */
+  List<YearMonth> findPartitions();
+
+  /**
+   * Creates partition for logs of the month and moves logs of the month from the default
+   * partition into it, does nothing if it exists.
+   */
+  void createPartition(YearMonth month);
+
+  /**
+   * Removes partition of the month from audit logs, with all its logs.
+   *
+   * @param keepTable true - partition is kept as a standalone table, e.g. to be archived, false -
+   *     it is dropped
+   */
+  void removePartition(YearMonth month, boolean keepTable);
+}
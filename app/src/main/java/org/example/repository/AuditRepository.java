@@ -1,6 +1,10 @@
 package org.example.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import org.example.dto.AuditCursor;
+import org.example.dto.AuditQuery;
 import org.example.model.AuditLog;
 
 /**
@@ -19,17 +23,42 @@ public interface AuditRepository {
   AuditLog save(AuditLog auditLog);
 
   /**
-   * Finds audit logs by username.
+   * Saves audit log records in one transaction, either all or none of them are saved. Generated
+   * ids are not returned, which lets implementations stream records in bulk.
    *
-   * @param username the username to search for
-   * @return list of audit logs for the user
+   * @param auditLogs the audit records to save
+   * @return number of saved audit records
    */
-  List<AuditLog> findByUsername(String username);
+  int saveAll(Collection<AuditLog> auditLogs);
 
   /**
-   * Gets all audit logs.
+   * Saves audit log records in one transaction, skipping records whose event id was saved before,
+   * so records saved again after a failure with unknown outcome are not duplicated.
    *
-   * @return all audit records
+   * @param auditLogs the audit records to save
+   * @return number of saved audit records, not counting the skipped ones
    */
-  List<AuditLog> findAll();
+  int saveAllIfAbsent(Collection<AuditLog> auditLogs);
+
+  /**
+   * Finds up to limit audit logs matching query, newest first by timestamp and id, starting after
+   * the cursor or from the newest log if cursor is null. Cost of a page does not depend on how far
+   * it is from the newest log.
+   *
+   * @param query filters of audit logs
+   * @param after position of the last log of the previous page, null for the first page
+   * @param limit maximal number of audit logs
+   * @return audit logs of the page
+   */
+  List<AuditLog> findPage(AuditQuery query, AuditCursor after, int limit);
+
+  /**
+   * Passes all audit logs matching query, newest first, to action while reading them from
+   * storage. Logs are not collected, so memory use does not depend on number of records.
+   *
+   * @param query filters of logs
+   * @param action receives audit records one by one
+   * @return number of audit records passed to action
+   */
+  long stream(AuditQuery query, Consumer<AuditLog> action);
 }
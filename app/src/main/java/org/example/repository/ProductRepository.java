@@ -1,10 +1,14 @@
 package org.example.repository;
 
+import org.example.dto.ProductFacets;
+import org.example.dto.SearchCriteria;
 import org.example.model.Product;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 /**
  * Repository abstraction for managing Product entities.
@@ -20,21 +24,47 @@ public interface ProductRepository {
   /** Finds a product by ID. Returns empty if not found. */
   Optional<Product> findById(Long id);
 
+  /** Finds products with given ids in any order, ids without a product are skipped. */
+  List<Product> findAllById(Collection<Long> ids);
+
   /** Returns all products. */
   List<Product> findAll();
 
+  /**
+   * Passes every product, ordered by id, to action while reading them from storage. Products are
+   * not collected, so memory use does not depend on number of products.
+   *
+   * @return number of products passed to action
+   */
+  long streamAll(Consumer<Product> action);
+
+  /**
+   * Returns up to limit products with id greater than afterId ordered by id, from the beginning if
+   * afterId is null. Cost of a page does not depend on how far it is from the beginning.
+   */
+  List<Product> findPage(Long afterId, int limit);
+
   /** Deletes product by ID. Returns true if deleted. */
   boolean delete(Long id);
 
-  /** Searches products by name. */
-  List<Product> searchByName(String name);
-
-  /** Filters products by category. */
-  List<Product> filterByCategory(String category);
+  /**
+   * Finds products matching all filters set in criteria, filters which are not set are ignored.
+   * Name matches if it contains given text, category and brand must be equal to given values,
+   * letter case and surrounding whitespace of filter values are ignored. Price bounds are
+   * inclusive. Products are ordered as {@link SearchCriteria#comparator()} when criteria is
+   * ordered and cut to its limit, only the returned products are read.
+   */
+  List<Product> search(SearchCriteria criteria);
 
-  /** Filters products by brand. */
-  List<Product> filterByBrand(String brand);
+  /**
+   * Counts products matching criteria, as {@link #search} does, per category, per brand and per
+   * price bucket. Price bounds are sorted ascending, see {@link ProductFacets#of}.
+   */
+  ProductFacets countFacets(SearchCriteria criteria, List<BigDecimal> priceBounds);
 
-  /** Filters products by price range. */
-  List<Product> filterByPriceRange(BigDecimal minPrice, BigDecimal maxPrice);
+  /**
+   * Finds up to limit products whose name or description match the query words, most relevant
+   * first. Query uses web search syntax: quoted phrases, 'or' and '-' to exclude a word.
+   */
+  List<Product> fullTextSearch(String query, int limit);
 }
\ No newline at end of file
@@ -0,0 +1,150 @@
+package org.example.repository.impl.database;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import org.postgresql.copy.CopyIn;
+
+/**
+ * Writes rows of COPY ... FROM STDIN (FORMAT binary). Values are encoded straight into one
+ * reusable buffer, which is sent to the server whenever it fills up, so rows do not create
+ * strings or arrays. Only a text value too long for the buffer is encoded separately.
+ */
+final class BinaryCopyWriter {
+  private static final byte[] SIGNATURE = {
+    'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0
+  };
+
+  /** 2000-01-01T00:00:00, timestamps are sent as microseconds since then */
+  private static final long POSTGRES_EPOCH_SECOND = 946_684_800L;
+
+  private final CopyIn copyIn;
+  private final byte[] buffer;
+  private int position;
+
+  BinaryCopyWriter(CopyIn copyIn, int bufferSize) {
+    this.copyIn = copyIn;
+    this.buffer = new byte[bufferSize];
+    System.arraycopy(SIGNATURE, 0, buffer, 0, SIGNATURE.length);
+    position = SIGNATURE.length;
+    // flags and length of header extension
+    putInt(0);
+    putInt(0);
+  }
+
+  void startRow(int fields) throws SQLException {
+    ensureAvailable(2);
+    putShort(fields);
+  }
+
+  void writeTimestamp(LocalDateTime timestamp) throws SQLException {
+    ensureAvailable(12);
+    long seconds = timestamp.toEpochSecond(ZoneOffset.UTC) - POSTGRES_EPOCH_SECOND;
+    putInt(8);
+    putLong(seconds * 1_000_000 + (timestamp.getNano() + 500) / 1_000);
+  }
+
+  void writeUuid(UUID value) throws SQLException {
+    ensureAvailable(20);
+    if (value == null) {
+      putInt(-1);
+      return;
+    }
+    putInt(16);
+    putLong(value.getMostSignificantBits());
+    putLong(value.getLeastSignificantBits());
+  }
+
+  void writeText(String value) throws SQLException {
+    if (value == null) {
+      ensureAvailable(4);
+      putInt(-1);
+      return;
+    }
+    // UTF-8 takes at most 3 bytes per char
+    int maxLength = 4 + value.length() * 3;
+    if (maxLength > buffer.length) {
+      byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      ensureAvailable(4);
+      putInt(bytes.length);
+      flush();
+      copyIn.writeToCopy(bytes, 0, bytes.length);
+      return;
+    }
+    ensureAvailable(maxLength);
+    int lengthPosition = position;
+    position += 4;
+    putUtf8(value);
+    int length = position - lengthPosition - 4;
+    position = lengthPosition;
+    putInt(length);
+    position += length;
+  }
+
+  /** Ends the data and completes COPY, returns number of copied rows. */
+  long finish() throws SQLException {
+    ensureAvailable(2);
+    putShort(-1);
+    flush();
+    return copyIn.endCopy();
+  }
+
+  private void ensureAvailable(int bytes) throws SQLException {
+    if (buffer.length - position < bytes) {
+      flush();
+    }
+  }
+
+  private void flush() throws SQLException {
+    if (position > 0) {
+      copyIn.writeToCopy(buffer, 0, position);
+      position = 0;
+    }
+  }
+
+  private void putUtf8(String value) {
+    for (int i = 0; i < value.length(); i++) {
+      char c = value.charAt(i);
+      if (c < 0x80) {
+        buffer[position++] = (byte) c;
+      } else if (c < 0x800) {
+        buffer[position++] = (byte) (0xC0 | c >> 6);
+        buffer[position++] = (byte) (0x80 | c & 0x3F);
+      } else if (Character.isHighSurrogate(c)
+          && i + 1 < value.length()
+          && Character.isLowSurrogate(value.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, value.charAt(++i));
+        buffer[position++] = (byte) (0xF0 | codePoint >> 18);
+        buffer[position++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+        buffer[position++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+        buffer[position++] = (byte) (0x80 | codePoint & 0x3F);
+      } else if (Character.isSurrogate(c)) {
+        // unpaired surrogate is replaced as by String.getBytes
+        buffer[position++] = '?';
+      } else {
+        buffer[position++] = (byte) (0xE0 | c >> 12);
+        buffer[position++] = (byte) (0x80 | c >> 6 & 0x3F);
+        buffer[position++] = (byte) (0x80 | c & 0x3F);
+      }
+    }
+  }
+
+  private void putShort(int value) {
+    buffer[position++] = (byte) (value >> 8);
+    buffer[position++] = (byte) value;
+  }
+
+  private void putInt(int value) {
+    buffer[position++] = (byte) (value >> 24);
+    buffer[position++] = (byte) (value >> 16);
+    buffer[position++] = (byte) (value >> 8);
+    buffer[position++] = (byte) value;
+  }
+
+  private void putLong(long value) {
+    putInt((int) (value >> 32));
+    putInt((int) value);
+  }
+}
@@ -1,15 +1,21 @@
 package org.example.repository.impl.database;
 
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.function.Function;
+import lombok.extern.log4j.Log4j2;
 import org.example.exception.DataAccessException;
+import org.example.util.MetricsSource;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+@Log4j2
 @Component
-public class ConnectionManager {
+public class ConnectionManager implements MetricsSource {
 
   @Value("${database.connect.url}")
   private String url;
@@ -23,21 +29,160 @@ public class ConnectionManager {
   @Value("${database.connect.password}")
   private String password;
 
+  /** connections opened on start and kept open when idle */
+  @Value("${database.pool.min_size}")
+  private int poolMinSize;
+
+  /** maximum number of open connections */
+  @Value("${database.pool.max_size}")
+  private int poolMaxSize;
+
+  /** requests allowed to wait for a connection when all connections are in use */
+  @Value("${database.pool.max_waiters}")
+  private int poolMaxWaiters;
+
+  @Value("${database.pool.borrow_timeout_ms}")
+  private long poolBorrowTimeoutMs;
+
+  @Value("${database.pool.idle_timeout_ms}")
+  private long poolIdleTimeoutMs;
+
+  @Value("${database.pool.eviction_interval_ms}")
+  private long poolEvictionIntervalMs;
+
+  @Value("${database.pool.validation_timeout_seconds}")
+  private int poolValidationTimeoutSeconds;
+
+  private ConnectionPool connectionPool;
+  private final OperationStatistics readStatistics = new OperationStatistics();
+  private final OperationStatistics writeStatistics = new OperationStatistics();
+
+  @PostConstruct
+  void init() {
+    String schemaUrl =
+        url.contains("?")
+            ? "%s&currentSchema=%s".formatted(url, applicationScheme)
+            : "%s?currentSchema=%s".formatted(url, applicationScheme);
+    var settings =
+        new ConnectionPool.Settings(
+            poolMinSize,
+            poolMaxSize,
+            poolMaxWaiters,
+            Duration.ofMillis(poolBorrowTimeoutMs),
+            Duration.ofMillis(poolIdleTimeoutMs),
+            Duration.ofMillis(poolEvictionIntervalMs),
+            poolValidationTimeoutSeconds);
+    connectionPool =
+        new ConnectionPool(() -> DriverManager.getConnection(schemaUrl, user, password), settings);
+    connectionPool.start();
+  }
+
+  @PreDestroy
+  void destroy() {
+    connectionPool.close();
+  }
+
   public <T> T doInTransaction(Function<Connection, T> connectionFunction) {
-    try (Connection connection = getConnection()) {
+    long start = System.nanoTime();
+    boolean succeeded = false;
+    Connection connection = borrowConnection();
+    try {
       connection.setAutoCommit(false);
-      return invokeWithConnection(connectionFunction, connection);
+      T result = invokeWithConnection(connectionFunction, connection);
+      succeeded = true;
+      return result;
     } catch (SQLException e) {
       throw new DataAccessException("Connection operation failed", e);
+    } finally {
+      releaseConnection(connection);
+      writeStatistics.record(System.nanoTime() - start, succeeded);
     }
   }
 
-  private Connection getConnection() throws SQLException {
-    String newUrl =
-        url.contains("?")
-            ? "%s&currentSchema=%s".formatted(url, applicationScheme)
-            : "%s?currentSchema=%s".formatted(url, applicationScheme);
-    return DriverManager.getConnection(newUrl, user, password);
+  /**
+   * Executes queries which do not modify data. Connection stays in auto-commit mode, so no
+   * transaction is started and no commit round trip is made. Read only is not enforced here, the
+   * driver applies it to transactions only, so function must not write. Every statement sees its
+   * own snapshot, use {@link #doInTransaction} if several queries must be consistent with each
+   * other.
+   */
+  public <T> T doReadOnly(Function<Connection, T> connectionFunction) {
+    long start = System.nanoTime();
+    boolean succeeded = false;
+    Connection connection = borrowConnection();
+    try {
+      T result = connectionFunction.apply(connection);
+      succeeded = true;
+      return result;
+    } finally {
+      releaseConnection(connection);
+      readStatistics.record(System.nanoTime() - start, succeeded);
+    }
+  }
+
+  /**
+   * Executes queries which do not modify data inside a read only transaction, the server rejects
+   * writes. Unlike {@link #doReadOnly} auto-commit is off, which lets the driver read large results
+   * through a cursor in batches of statement fetch size instead of loading all rows at once.
+   * Connection is held until the function returns, so it should not wait on anything but the
+   * result set consumer.
+   */
+  public <T> T doInReadOnlyTransaction(Function<Connection, T> connectionFunction) {
+    long start = System.nanoTime();
+    boolean succeeded = false;
+    Connection connection = borrowConnection();
+    try {
+      connection.setReadOnly(true);
+      connection.setAutoCommit(false);
+      T result = invokeWithConnection(connectionFunction, connection);
+      succeeded = true;
+      return result;
+    } catch (SQLException e) {
+      throw new DataAccessException("Connection operation failed", e);
+    } finally {
+      releaseConnection(connection);
+      readStatistics.record(System.nanoTime() - start, succeeded);
+    }
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "database";
+  }
+
+  @Override
+  public DatabaseMetrics getMetrics() {
+    return new DatabaseMetrics(
+        connectionPool.getMetrics(), readStatistics.snapshot(), writeStatistics.snapshot());
+  }
+
+  private Connection borrowConnection() {
+    try {
+      return connectionPool.borrow();
+    } catch (SQLException e) {
+      throw new DataAccessException("Failed to obtain connection", e);
+    }
+  }
+
+  /**
+   * Restores pool defaults on connection, broken connections are closed by the pool. Transaction
+   * still open here was left by an error nobody rolled back, enabling auto-commit would commit it.
+   */
+  private void releaseConnection(Connection connection) {
+    boolean reusable;
+    try {
+      if (!connection.getAutoCommit()) {
+        connection.rollback();
+        connection.setAutoCommit(true);
+      }
+      if (connection.isReadOnly()) {
+        connection.setReadOnly(false);
+      }
+      reusable = !connection.isClosed();
+    } catch (SQLException e) {
+      reusable = false;
+    }
+    connectionPool.release(connection, reusable);
   }
 
   private <T> T invokeWithConnection(
@@ -49,6 +194,9 @@ public class ConnectionManager {
     } catch (SQLException e) {
       tryRollback(e, connection);
       return null;
+    } catch (RuntimeException e) {
+      rollbackQuietly(connection);
+      throw e;
     }
   }
 
@@ -60,4 +208,13 @@ public class ConnectionManager {
     }
     throw new DataAccessException("Transaction failed", e);
   }
+
+  /** Connection is returned to the pool, so failed transaction must not stay open on it */
+  private void rollbackQuietly(Connection connection) {
+    try {
+      connection.rollback();
+    } catch (SQLException rollbackEx) {
+      log.warn("Rollback failed: {}", rollbackEx.getMessage());
+    }
+  }
 }
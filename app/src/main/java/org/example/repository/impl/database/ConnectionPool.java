@@ -0,0 +1,328 @@
+package org.example.repository.impl.database;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.log4j.Log4j2;
+import org.example.exception.DataAccessException;
+
+/**
+ * Bounded pool of physical JDBC connections.
+ *
+ * <p>Idle connections are handed out last-in-first-out, so recently used connections stay warm
+ * and the rest age out through idle eviction. When the pool is exhausted borrowers wait in a
+ * bounded queue until a connection is released or the borrow timeout expires.
+ *
+ * <p>A connection is validated on borrow only if it was idle longer than {@link
+ * #ALIVE_BYPASS_WINDOW}, otherwise validation would cost an extra round trip per call.
+ */
+@Log4j2
+class ConnectionPool implements AutoCloseable {
+  private static final Duration ALIVE_BYPASS_WINDOW = Duration.ofMillis(500);
+
+  private final ConnectionFactory connectionFactory;
+  private final Settings settings;
+  private final ReentrantLock lock = new ReentrantLock();
+  private final Condition released = lock.newCondition();
+
+  /** head is the most recently released connection */
+  private final Deque<IdleConnection> idle = new ArrayDeque<>();
+
+  /** physical connections owned by pool, including the ones being opened */
+  private int total;
+
+  private int waiters;
+  private boolean closed;
+  private ScheduledExecutorService maintenanceExecutor;
+
+  private final LongAdder borrowCount = new LongAdder();
+  private final LongAdder borrowNanos = new LongAdder();
+  private final AtomicLong maxBorrowNanos = new AtomicLong();
+  private final LongAdder timeoutCount = new LongAdder();
+  private final LongAdder rejectedCount = new LongAdder();
+
+  ConnectionPool(ConnectionFactory connectionFactory, Settings settings) {
+    this.connectionFactory = connectionFactory;
+    this.settings = settings;
+  }
+
+  /** Opens minimal amount of connections and schedules idle eviction */
+  void start() {
+    fillToMinimum();
+    maintenanceExecutor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "connection-pool-maintenance");
+              thread.setDaemon(true);
+              return thread;
+            });
+    long interval = settings.evictionInterval().toMillis();
+    maintenanceExecutor.scheduleWithFixedDelay(
+        this::maintain, interval, interval, TimeUnit.MILLISECONDS);
+    log.info("Connection pool started with {} connections, maximum {}", total, settings.maxSize());
+  }
+
+  /**
+   * Takes a connection from the pool, opening a new one if pool is not full.
+   *
+   * @throws DataAccessException if no connection became available in time or too many requests
+   *     are already waiting
+   */
+  Connection borrow() throws SQLException {
+    long start = System.nanoTime();
+    Connection connection = acquire(start + settings.borrowTimeout().toNanos());
+    recordBorrow(System.nanoTime() - start);
+    return connection;
+  }
+
+  /**
+   * Returns connection to the pool. Connection must be in auto-commit mode without an open
+   * transaction, not reusable connections are closed.
+   */
+  void release(Connection connection, boolean reusable) {
+    lock.lock();
+    try {
+      if (reusable && !closed) {
+        idle.offerFirst(new IdleConnection(connection, System.nanoTime()));
+        released.signal();
+        return;
+      }
+      total--;
+      released.signal();
+    } finally {
+      lock.unlock();
+    }
+    closeQuietly(connection);
+  }
+
+  ConnectionPoolMetrics getMetrics() {
+    lock.lock();
+    try {
+      long borrowed = borrowCount.sum();
+      double averageBorrowMillis = borrowed == 0 ? 0 : borrowNanos.sum() / 1_000_000.0 / borrowed;
+      return new ConnectionPoolMetrics(
+          total,
+          total - idle.size(),
+          idle.size(),
+          waiters,
+          borrowed,
+          timeoutCount.sum(),
+          rejectedCount.sum(),
+          averageBorrowMillis,
+          maxBorrowNanos.get() / 1_000_000.0);
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @Override
+  public void close() {
+    List<IdleConnection> toClose;
+    lock.lock();
+    try {
+      closed = true;
+      toClose = new ArrayList<>(idle);
+      total -= idle.size();
+      idle.clear();
+      released.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    if (maintenanceExecutor != null) {
+      maintenanceExecutor.shutdownNow();
+    }
+    toClose.forEach(idleConnection -> closeQuietly(idleConnection.connection()));
+    log.info("Connection pool closed");
+  }
+
+  private Connection acquire(long deadline) throws SQLException {
+    while (true) {
+      IdleConnection candidate = null;
+      boolean open = false;
+      lock.lock();
+      try {
+        if (closed) {
+          throw new DataAccessException("Connection pool is closed");
+        }
+        if (!idle.isEmpty()) {
+          candidate = idle.pollFirst();
+        } else if (total < settings.maxSize()) {
+          total++;
+          open = true;
+        } else {
+          awaitRelease(deadline);
+        }
+      } finally {
+        lock.unlock();
+      }
+      if (open) {
+        return open();
+      }
+      if (candidate != null) {
+        if (isAlive(candidate)) {
+          return candidate.connection();
+        }
+        release(candidate.connection(), false);
+      }
+    }
+  }
+
+  /** Must be called while holding the lock */
+  private void awaitRelease(long deadline) {
+    long remaining = deadline - System.nanoTime();
+    if (remaining <= 0) {
+      timeoutCount.increment();
+      throw new DataAccessException(
+          "Timed out waiting for database connection after %d ms"
+              .formatted(settings.borrowTimeout().toMillis()));
+    }
+    if (waiters >= settings.maxWaiters()) {
+      rejectedCount.increment();
+      throw new DataAccessException(
+          "Connection pool exhausted, %d requests already waiting".formatted(waiters));
+    }
+    waiters++;
+    try {
+      released.awaitNanos(remaining);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new DataAccessException("Interrupted while waiting for database connection", e);
+    } finally {
+      waiters--;
+    }
+  }
+
+  private Connection open() throws SQLException {
+    try {
+      return connectionFactory.create();
+    } catch (SQLException | RuntimeException e) {
+      lock.lock();
+      try {
+        total--;
+        released.signal();
+      } finally {
+        lock.unlock();
+      }
+      throw e;
+    }
+  }
+
+  private boolean isAlive(IdleConnection idleConnection) {
+    long idleNanos = System.nanoTime() - idleConnection.releasedAt();
+    try {
+      if (idleNanos < ALIVE_BYPASS_WINDOW.toNanos()) {
+        return !idleConnection.connection().isClosed();
+      }
+      return idleConnection.connection().isValid(settings.validationTimeoutSeconds());
+    } catch (SQLException e) {
+      log.warn("Connection validation failed: {}", e.getMessage());
+      return false;
+    }
+  }
+
+  private void recordBorrow(long nanos) {
+    borrowCount.increment();
+    borrowNanos.add(nanos);
+    maxBorrowNanos.accumulateAndGet(nanos, Math::max);
+  }
+
+  private void maintain() {
+    try {
+      evictIdle();
+      fillToMinimum();
+    } catch (RuntimeException e) {
+      log.error("Connection pool maintenance failed: {}", e.getMessage(), e);
+    }
+  }
+
+  /** Closes connections idle longer than idle timeout, keeping at least minimal pool size */
+  private void evictIdle() {
+    List<Connection> evicted = new ArrayList<>();
+    long now = System.nanoTime();
+    lock.lock();
+    try {
+      Iterator<IdleConnection> eldestFirst = idle.descendingIterator();
+      while (eldestFirst.hasNext() && total > settings.minSize()) {
+        IdleConnection idleConnection = eldestFirst.next();
+        if (now - idleConnection.releasedAt() < settings.idleTimeout().toNanos()) {
+          break;
+        }
+        eldestFirst.remove();
+        total--;
+        evicted.add(idleConnection.connection());
+      }
+    } finally {
+      lock.unlock();
+    }
+    evicted.forEach(this::closeQuietly);
+    if (!evicted.isEmpty()) {
+      log.debug("Evicted {} idle connections", evicted.size());
+    }
+  }
+
+  private void fillToMinimum() {
+    while (true) {
+      lock.lock();
+      try {
+        if (closed || total >= settings.minSize()) {
+          return;
+        }
+        total++;
+      } finally {
+        lock.unlock();
+      }
+      try {
+        release(open(), true);
+      } catch (SQLException e) {
+        log.warn("Failed to open pooled connection: {}", e.getMessage());
+        return;
+      }
+    }
+  }
+
+  private void closeQuietly(Connection connection) {
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      log.warn("Failed to close connection: {}", e.getMessage());
+    }
+  }
+
+  /** Opens new physical connection to database */
+  @FunctionalInterface
+  interface ConnectionFactory {
+    Connection create() throws SQLException;
+  }
+
+  /**
+   * @param minSize connections kept open even when idle, opened at start
+   * @param maxSize upper bound of open connections
+   * @param maxWaiters how many borrowers can wait for a connection, others fail immediately
+   * @param borrowTimeout how long borrower waits for a connection
+   * @param idleTimeout idle connections above minimal size are closed after this time
+   * @param evictionInterval how often idle connections are checked
+   * @param validationTimeoutSeconds timeout of connection validation on borrow
+   */
+  record Settings(
+      int minSize,
+      int maxSize,
+      int maxWaiters,
+      Duration borrowTimeout,
+      Duration idleTimeout,
+      Duration evictionInterval,
+      int validationTimeoutSeconds) {}
+
+  private record IdleConnection(Connection connection, long releasedAt) {}
+}
@@ -0,0 +1,25 @@
+package org.example.repository.impl.database;
+
+/**
+ * Snapshot of connection pool state.
+ *
+ * @param total open connections
+ * @param active connections currently borrowed
+ * @param idle connections waiting in the pool
+ * @param waiters requests waiting for a connection
+ * @param borrowed total number of successful borrows
+ * @param timeouts borrows failed because no connection became available in time
+ * @param rejected borrows failed immediately because wait queue was full
+ * @param averageBorrowMillis average time spent waiting for a connection
+ * @param maxBorrowMillis longest time spent waiting for a connection
+ */
+public record ConnectionPoolMetrics(
+    int total,
+    int active,
+    int idle,
+    int waiters,
+    long borrowed,
+    long timeouts,
+    long rejected,
+    double averageBorrowMillis,
+    double maxBorrowMillis) {}
@@ -0,0 +1,11 @@
+package org.example.repository.impl.database;
+
+/**
+ * Snapshot of database access statistics.
+ *
+ * @param pool connection pool state
+ * @param reads operations executed with {@link ConnectionManager#doReadOnly}
+ * @param writes operations executed with {@link ConnectionManager#doInTransaction}
+ */
+public record DatabaseMetrics(
+    ConnectionPoolMetrics pool, OperationMetrics reads, OperationMetrics writes) {}
@@ -0,0 +1,135 @@
+package org.example.repository.impl.database;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import org.example.exception.DataAccessException;
+import org.example.repository.AuditPartitionRepository;
+import org.springframework.stereotype.Component;
+
+/**
+ * Partitions of audit_logs are named audit_logs_yYYYYmMM and hold logs with timestamp from the
+ * first day of the month, inclusive, to the first day of the next month, exclusive. Logs of months
+ * without partition are kept in the default partition audit_logs_default.
+ */
+@Component
+public class JdbcAuditPartitionRepository implements AuditPartitionRepository {
+  private static final String PARTITION_PREFIX = "audit_logs_";
+  static final String DEFAULT_PARTITION = "audit_logs_default";
+  private static final DateTimeFormatter PARTITION_MONTH =
+      DateTimeFormatter.ofPattern("'y'uuuu'm'MM");
+
+  private static final String FIND_PARTITIONS_SQL =
+      """
+        SELECT child.relname
+        FROM pg_inherits
+        JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+        JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+        JOIN pg_namespace ON pg_namespace.oid = parent.relnamespace
+        WHERE parent.relname = 'audit_logs' AND pg_namespace.nspname = current_schema()
+        """;
+
+  private static final String TABLE_EXISTS_SQL = "SELECT to_regclass(?) IS NOT NULL";
+
+  private final ConnectionManager connectionManager;
+
+  public JdbcAuditPartitionRepository(ConnectionManager connectionManager) {
+    this.connectionManager = connectionManager;
+  }
+
+  @Override
+  public List<YearMonth> findPartitions() {
+    return connectionManager.doReadOnly(
+        connection -> {
+          List<YearMonth> months = new ArrayList<>();
+          try (PreparedStatement stmt = connection.prepareStatement(FIND_PARTITIONS_SQL);
+              ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+              String name = rs.getString(1);
+              if (name.startsWith(PARTITION_PREFIX) && !name.equals(DEFAULT_PARTITION)) {
+                months.add(
+                    YearMonth.parse(name.substring(PARTITION_PREFIX.length()), PARTITION_MONTH));
+              }
+            }
+          } catch (SQLException e) {
+            throw new DataAccessException("Failed to find audit log partitions", e);
+          }
+          months.sort(null);
+          return months;
+        });
+  }
+
+  /**
+   * A partition can not be created while the default partition holds logs of its month, so the
+   * table is created standalone, the logs are moved into it and it is attached, in one
+   * transaction. Attaching creates the indexes of audit_logs on it.
+   */
+  @Override
+  public void createPartition(YearMonth month) {
+    // names and bounds come from YearMonth, nothing user provided gets into the statements
+    String name = partitionName(month);
+    String from = month.atDay(1).toString();
+    String to = month.plusMonths(1).atDay(1).toString();
+    List<String> statements =
+        List.of(
+            "CREATE TABLE %s (LIKE audit_logs INCLUDING DEFAULTS INCLUDING CONSTRAINTS)"
+                .formatted(name),
+            """
+              WITH moved AS (
+                DELETE FROM %s WHERE timestamp >= '%s' AND timestamp < '%s' RETURNING *)
+              INSERT INTO %s SELECT * FROM moved
+              """
+                .formatted(DEFAULT_PARTITION, from, to, name),
+            "ALTER TABLE audit_logs ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')"
+                .formatted(name, from, to));
+    connectionManager.doInTransaction(
+        connection -> {
+          try (PreparedStatement exists = connection.prepareStatement(TABLE_EXISTS_SQL);
+              Statement stmt = connection.createStatement()) {
+            exists.setString(1, name);
+            try (ResultSet rs = exists.executeQuery()) {
+              rs.next();
+              if (rs.getBoolean(1)) {
+                return null;
+              }
+            }
+            for (String sql : statements) {
+              stmt.execute(sql);
+            }
+            return null;
+          } catch (SQLException e) {
+            throw new DataAccessException("Failed to create audit log partition " + month, e);
+          }
+        });
+  }
+
+  @Override
+  public void removePartition(YearMonth month, boolean keepTable) {
+    String sql =
+        keepTable
+            ? "ALTER TABLE audit_logs DETACH PARTITION " + partitionName(month)
+            : "DROP TABLE IF EXISTS " + partitionName(month);
+    execute(sql, "Failed to remove audit log partition " + month);
+  }
+
+  static String partitionName(YearMonth month) {
+    return PARTITION_PREFIX + month.format(PARTITION_MONTH);
+  }
+
+  private void execute(String sql, String errorMessage) {
+    connectionManager.doInTransaction(
+        connection -> {
+          try (Statement stmt = connection.createStatement()) {
+            stmt.execute(sql);
+            return null;
+          } catch (SQLException e) {
+            throw new DataAccessException(errorMessage, e);
+          }
+        });
+  }
+}
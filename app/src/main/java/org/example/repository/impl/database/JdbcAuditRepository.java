@@ -5,31 +5,53 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.sql.Timestamp;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.StringJoiner;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.example.dto.AuditCursor;
+import org.example.dto.AuditQuery;
 import org.example.exception.DataAccessException;
 import org.example.model.AuditLog;
 import org.example.repository.AuditRepository;
 import org.example.repository.impl.database.mapper.AuditLogResultMapper;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
 import org.springframework.stereotype.Component;
 
 @Component
 public class JdbcAuditRepository implements AuditRepository {
   private static final String INSERT_SQL =
       """
-        INSERT INTO audit_logs (timestamp, username, action, details)
-        VALUES (?, ?, ?, ?)
+        INSERT INTO audit_logs (timestamp, username, action, details, event_id)
+        VALUES (?, ?, ?, ?, ?)
         """;
-  private static final String FIND_BY_USERNAME_SQL =
+  private static final String COPY_SQL =
       """
-        SELECT id, timestamp, username, action, details
-        FROM audit_logs WHERE username = ? ORDER BY timestamp DESC
+        COPY audit_logs (timestamp, username, action, details, event_id)
+        FROM STDIN (FORMAT binary)
         """;
-  private static final String FIND_ALL_SQL =
+
+  /** rows are passed as one array per column, so the statement does not depend on their number */
+  private static final String INSERT_IF_ABSENT_SQL =
       """
-        SELECT id, timestamp, username, action, details
-        FROM audit_logs ORDER BY timestamp DESC
+        INSERT INTO audit_logs (timestamp, username, action, details, event_id)
+        SELECT * FROM unnest(?::timestamp[], ?::varchar[], ?::varchar[], ?::varchar[], ?::uuid[])
+        ON CONFLICT (event_id, timestamp) DO NOTHING
         """;
+
+  /** bytes of rows encoded before they are sent to the server by saveAll */
+  static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+  private static final String PAGE_SELECT_SQL =
+      "SELECT id, timestamp, username, action, details, event_id FROM audit_logs";
+
+  /** rows fetched from server cursor per round trip when streaming */
+  static final int STREAM_FETCH_SIZE = 500;
+
   private final ConnectionManager connectionManager;
   private final AuditLogResultMapper auditLogResultMapper = new AuditLogResultMapper();
 
@@ -47,6 +69,7 @@ public class JdbcAuditRepository implements AuditRepository {
             stmt.setString(2, auditLog.getUsername());
             stmt.setString(3, auditLog.getAction().name());
             stmt.setString(4, auditLog.getDetails());
+            stmt.setObject(5, auditLog.getEventId());
 
             int affectedRows = stmt.executeUpdate();
             if (affectedRows == 0) {
@@ -68,12 +91,99 @@ public class JdbcAuditRepository implements AuditRepository {
   }
 
   @Override
-  public List<AuditLog> findByUsername(String username) {
+  public int saveAll(Collection<AuditLog> auditLogs) {
+    if (auditLogs.isEmpty()) {
+      return 0;
+    }
     return connectionManager.doInTransaction(
         connection -> {
-          List<AuditLog> logs = new ArrayList<>();
-          try (PreparedStatement stmt = connection.prepareStatement(FIND_BY_USERNAME_SQL)) {
-            stmt.setString(1, username);
+          CopyIn copyIn = null;
+          try {
+            copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            BinaryCopyWriter writer = new BinaryCopyWriter(copyIn, COPY_BUFFER_SIZE);
+            for (AuditLog auditLog : auditLogs) {
+              writer.startRow(5);
+              writer.writeTimestamp(auditLog.getTimestamp());
+              writer.writeText(auditLog.getUsername());
+              writer.writeText(auditLog.getAction().name());
+              writer.writeText(auditLog.getDetails());
+              writer.writeUuid(auditLog.getEventId());
+            }
+            long saved = writer.finish();
+            if (saved != auditLogs.size()) {
+              throw new DataAccessException(
+                  "Saving audit logs failed, %d of %d rows copied."
+                      .formatted(saved, auditLogs.size()));
+            }
+            return (int) saved;
+          } catch (SQLException e) {
+            throw new DataAccessException("Failed to save audit logs", e);
+          } finally {
+            cancelCopy(copyIn);
+          }
+        });
+  }
+
+  @Override
+  public int saveAllIfAbsent(Collection<AuditLog> auditLogs) {
+    if (auditLogs.isEmpty()) {
+      return 0;
+    }
+    int size = auditLogs.size();
+    String[] timestamps = new String[size];
+    String[] usernames = new String[size];
+    String[] actions = new String[size];
+    String[] details = new String[size];
+    UUID[] eventIds = new UUID[size];
+    int i = 0;
+    for (AuditLog auditLog : auditLogs) {
+      // rounded to microseconds as by COPY, so the timestamp matches the one saved before
+      timestamps[i] =
+          auditLog.getTimestamp().plusNanos(500).truncatedTo(ChronoUnit.MICROS).toString();
+      usernames[i] = auditLog.getUsername();
+      actions[i] = auditLog.getAction().name();
+      details[i] = auditLog.getDetails();
+      eventIds[i] = auditLog.getEventId();
+      i++;
+    }
+    return connectionManager.doInTransaction(
+        connection -> {
+          try (PreparedStatement stmt = connection.prepareStatement(INSERT_IF_ABSENT_SQL)) {
+            stmt.setArray(1, connection.createArrayOf("timestamp", timestamps));
+            stmt.setArray(2, connection.createArrayOf("varchar", usernames));
+            stmt.setArray(3, connection.createArrayOf("varchar", actions));
+            stmt.setArray(4, connection.createArrayOf("varchar", details));
+            stmt.setArray(5, connection.createArrayOf("uuid", eventIds));
+            return stmt.executeUpdate();
+          } catch (SQLException e) {
+            throw new DataAccessException("Failed to save audit logs", e);
+          }
+        });
+  }
+
+  /** COPY left active by a failure must be cancelled before the connection can be used again */
+  private static void cancelCopy(CopyIn copyIn) {
+    if (copyIn != null && copyIn.isActive()) {
+      try {
+        copyIn.cancelCopy();
+      } catch (SQLException e) {
+        // connection is broken, pool discards it
+      }
+    }
+  }
+
+  @Override
+  public List<AuditLog> findPage(AuditQuery query, AuditCursor after, int limit) {
+    return connectionManager.doReadOnly(
+        connection -> {
+          List<Object> parameters = new ArrayList<>();
+          String sql = findPageSql(query, after, parameters);
+          parameters.add(limit);
+          List<AuditLog> logs = new ArrayList<>(limit);
+          try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (int i = 0; i < parameters.size(); i++) {
+              stmt.setObject(i + 1, parameters.get(i));
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
               while (rs.next()) {
@@ -82,25 +192,70 @@ public class JdbcAuditRepository implements AuditRepository {
             }
             return logs;
           } catch (SQLException e) {
-            throw new DataAccessException("Failed to find audit logs by username: " + username, e);
+            throw new DataAccessException("Failed to find audit logs page after: " + after, e);
           }
         });
   }
 
   @Override
-  public List<AuditLog> findAll() {
-    return connectionManager.doInTransaction(
+  public long stream(AuditQuery query, Consumer<AuditLog> action) {
+    return connectionManager.doInReadOnlyTransaction(
         connection -> {
-          List<AuditLog> logs = new ArrayList<>();
-          try (PreparedStatement stmt = connection.prepareStatement(FIND_ALL_SQL);
-              ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-              logs.add(auditLogResultMapper.mapToAuditLog(rs));
+          List<Object> parameters = new ArrayList<>();
+          String sql = findSql(query, null, parameters);
+          try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+            for (int i = 0; i < parameters.size(); i++) {
+              stmt.setObject(i + 1, parameters.get(i));
             }
-            return logs;
+            long count = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+              while (rs.next()) {
+                action.accept(auditLogResultMapper.mapToAuditLog(rs));
+                count++;
+              }
+            }
+            return count;
           } catch (SQLException e) {
-            throw new DataAccessException("Failed to find all audit logs", e);
+            throw new DataAccessException("Failed to stream audit logs", e);
           }
         });
   }
+
+  /**
+   * Page query with conditions of the filters set in query only, so the planner picks the index
+   * of each combination and prunes partitions outside of time range. Values of the conditions
+   * are added to parameters in order, the last parameter, limit, is left to the caller.
+   */
+  static String findPageSql(AuditQuery query, AuditCursor after, List<Object> parameters) {
+    return findSql(query, after, parameters) + " LIMIT ?";
+  }
+
+  /** Query of all logs matching query and following cursor, newest first */
+  static String findSql(AuditQuery query, AuditCursor after, List<Object> parameters) {
+    StringJoiner conditions = new StringJoiner(" AND ", " WHERE ", "").setEmptyValue("");
+    if (query.getUsername() != null) {
+      conditions.add("username = ?");
+      parameters.add(query.getUsername());
+    }
+    if (query.getAction() != null) {
+      conditions.add("action = ?");
+      parameters.add(query.getAction().name());
+    }
+    if (query.getFrom() != null) {
+      conditions.add("timestamp >= ?");
+      parameters.add(Timestamp.valueOf(query.getFrom()));
+    }
+    if (query.getTo() != null) {
+      conditions.add("timestamp < ?");
+      parameters.add(Timestamp.valueOf(query.getTo()));
+    }
+    if (after != null) {
+      // row comparison is a single index condition on (timestamp, id)
+      conditions.add("(timestamp, id) < (?, ?)");
+      parameters.add(Timestamp.valueOf(after.getTimestamp()));
+      parameters.add(after.getId());
+    }
+    return PAGE_SELECT_SQL + conditions + " ORDER BY timestamp DESC, id DESC";
+  }
 }
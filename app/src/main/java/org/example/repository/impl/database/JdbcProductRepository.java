@@ -1,5 +1,6 @@
 package org.example.repository.impl.database;
 
+import jakarta.annotation.PreDestroy;
 import java.math.BigDecimal;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -7,12 +8,34 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.example.dto.ProductFacets;
+import org.example.dto.ProductSort;
+import org.example.dto.SearchCriteria;
 import org.example.exception.DataAccessException;
+import org.example.exception.InitializationException;
 import org.example.model.Product;
 import org.example.repository.ProductRepository;
 import org.example.repository.impl.database.mapper.ProductResultMapper;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -36,43 +59,159 @@ public class JdbcProductRepository implements ProductRepository {
         FROM products WHERE id = ?
         """;
 
+  private static final String FIND_ALL_BY_ID_SQL =
+      """
+        SELECT id, name, description, category, brand, price
+        FROM products WHERE id = ANY(?)
+        """;
+
   private static final String FIND_ALL_SQL =
       """
         SELECT id, name, description, category, brand, price
         FROM products
         """;
 
-  private static final String DELETE_SQL = "DELETE FROM products WHERE id = ?";
-
-  private static final String SEARCH_BY_NAME_SQL =
+  private static final String STREAM_ALL_SQL =
       """
         SELECT id, name, description, category, brand, price
-        FROM products WHERE LOWER(name) LIKE LOWER(?)
+        FROM products ORDER BY id
         """;
 
-  private static final String FILTER_BY_CATEGORY_SQL =
+  /** rows fetched from server cursor per round trip when streaming */
+  static final int STREAM_FETCH_SIZE = 500;
+
+  private static final String FIND_PAGE_SQL =
       """
         SELECT id, name, description, category, brand, price
-        FROM products WHERE category = ?
+        FROM products WHERE id > ? ORDER BY id LIMIT ?
         """;
 
-  private static final String FILTER_BY_BRAND_SQL =
+  static final String FULL_TEXT_SEARCH_SQL =
       """
         SELECT id, name, description, category, brand, price
-        FROM products WHERE brand = ?
+        FROM products, websearch_to_tsquery('english', ?) query
+        WHERE search_vector @@ query
+        ORDER BY ts_rank(search_vector, query) DESC, id
+        LIMIT ?
         """;
 
-  private static final String FILTER_BY_PRICE_RANGE_SQL =
+  private static final String SEARCH_SELECT_SQL =
+      "SELECT id, name, description, category, brand, price FROM products";
+
+  private static final String ID_SPAN_SQL = "SELECT MIN(id), MAX(id) FROM products";
+
+  /**
+   * Counts of all facets in one pass over matching products, GROUPING tells which facet a row
+   * counts. Placeholder is replaced by conditions of the search shape.
+   */
+  private static final String FACETS_SQL_TEMPLATE =
       """
-        SELECT id, name, description, category, brand, price
-        FROM products WHERE price BETWEEN ? AND ?
+        SELECT category, brand, price_bucket,
+          GROUPING(category, brand, price_bucket) AS facet, COUNT(*) AS count
+        FROM (
+          SELECT category, brand, width_bucket(price, ?::numeric[]) AS price_bucket
+          FROM products%s
+        ) matching
+        GROUP BY GROUPING SETS ((category), (brand), (price_bucket))
         """;
 
+  // GROUPING bits set for the columns not grouped by, category is the highest bit
+  private static final int CATEGORY_FACET = 0b011;
+  private static final int BRAND_FACET = 0b101;
+  private static final int PRICE_FACET = 0b110;
+
+  // bits of search shape, a shape is the set of filters present in criteria
+  private static final int ID_FILTER = 1;
+  private static final int NAME_FILTER = 1 << 1;
+  private static final int CATEGORY_FILTER = 1 << 2;
+  private static final int BRAND_FILTER = 1 << 3;
+  private static final int MIN_PRICE_FILTER = 1 << 4;
+  private static final int MAX_PRICE_FILTER = 1 << 5;
+
+  // bits of search shape for order and limit, sort value is stored in two bits
+  private static final int ORDERED = 1 << 6;
+  private static final int SORT_SHIFT = 7;
+  private static final int SORT_MASK = 0b11 << SORT_SHIFT;
+  private static final int DESCENDING = 1 << 9;
+  private static final int LIMITED = 1 << 10;
+
+  // bit of search shape for the id range searched by one partition of a split search
+  private static final int ID_RANGE = 1 << 11;
+
+  private static final String DELETE_SQL = "DELETE FROM products WHERE id = ?";
+
   private final ConnectionManager connectionManager;
+
+  /** search SQL by criteria shape, there are few shapes so the text is built once per shape */
+  private final Map<Integer, String> searchSqlByShape = new ConcurrentHashMap<>();
+
+  private final Map<Integer, String> facetsSqlByShape = new ConcurrentHashMap<>();
   private final ProductResultMapper productResultMapper = new ProductResultMapper();
 
-  public JdbcProductRepository(ConnectionManager connectionManager) {
+  /** number of id ranges a search is split into, 1 - searches are not split */
+  private final int searchPartitions;
+
+  /** searches over a smaller span of ids are not split */
+  private final long partitionMinIdSpan;
+
+  /** how long a split search waits for its ranges */
+  private final long partitionTimeoutMs;
+
+  /**
+   * searches id ranges in parallel, null if searches are not split. Threads and queue hold the
+   * ranges of one search, so split searches never take more than searchPartitions connections
+   */
+  private final ThreadPoolExecutor partitionExecutor;
+
+  /**
+   * lowest and highest product id, null until read. Inserts widen it, deletes leave it as is, so
+   * it only ever covers more ids than there are; ranges are balanced by it but do not rely on it
+   */
+  private final AtomicReference<long[]> idSpan = new AtomicReference<>();
+
+  /**
+   * @param searchPartitions number of id ranges searched in parallel, each range takes a pooled
+   *     connection for the time of its query, 1 - searches are not split
+   * @param partitionMinIdSpan difference of the highest and the lowest product id from which
+   *     searches are split
+   * @param partitionTimeoutMs how long a split search waits for all of its ranges
+   */
+  public JdbcProductRepository(
+      ConnectionManager connectionManager,
+      @Value("${search.partitioned.partitions}") int searchPartitions,
+      @Value("${search.partitioned.min_id_span}") long partitionMinIdSpan,
+      @Value("${search.partitioned.timeout_ms}") long partitionTimeoutMs) {
+    if (searchPartitions < 1) {
+      throw new InitializationException("Search partitions must be positive");
+    }
     this.connectionManager = connectionManager;
+    this.searchPartitions = searchPartitions;
+    this.partitionMinIdSpan = partitionMinIdSpan;
+    this.partitionTimeoutMs = partitionTimeoutMs;
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.partitionExecutor =
+        searchPartitions == 1
+            ? null
+            : new ThreadPoolExecutor(
+                searchPartitions,
+                searchPartitions,
+                0,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(searchPartitions),
+                runnable -> {
+                  Thread thread =
+                      new Thread(runnable, "product-search-" + threadNumber.incrementAndGet());
+                  thread.setDaemon(true);
+                  return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @PreDestroy
+  void destroy() {
+    if (partitionExecutor != null) {
+      partitionExecutor.shutdownNow();
+    }
   }
 
   @Override
@@ -108,6 +247,9 @@ public class JdbcProductRepository implements ProductRepository {
           throw new DataAccessException("Creating product failed, no ID obtained.");
         }
       }
+      long id = product.getId();
+      idSpan.updateAndGet(
+          span -> span == null ? null : new long[] {Math.min(span[0], id), Math.max(span[1], id)});
 
       return product;
     } catch (SQLException e) {
@@ -137,7 +279,7 @@ public class JdbcProductRepository implements ProductRepository {
 
   @Override
   public Optional<Product> findById(Long id) {
-    return connectionManager.doInTransaction(
+    return connectionManager.doReadOnly(
         connection -> {
           try (PreparedStatement stmt = connection.prepareStatement(FIND_BY_ID_SQL)) {
             stmt.setLong(1, id);
@@ -155,9 +297,32 @@ public class JdbcProductRepository implements ProductRepository {
         });
   }
 
+  @Override
+  public List<Product> findAllById(Collection<Long> ids) {
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+    return connectionManager.doReadOnly(
+        connection -> {
+          List<Product> products = new ArrayList<>(ids.size());
+          try (PreparedStatement stmt = connection.prepareStatement(FIND_ALL_BY_ID_SQL)) {
+            stmt.setArray(1, connection.createArrayOf("bigint", ids.toArray()));
+
+            try (ResultSet rs = stmt.executeQuery()) {
+              while (rs.next()) {
+                products.add(productResultMapper.mapToProduct(rs));
+              }
+            }
+            return products;
+          } catch (SQLException e) {
+            throw new DataAccessException("Failed to find products by ids", e);
+          }
+        });
+  }
+
   @Override
   public List<Product> findAll() {
-    return connectionManager.doInTransaction(
+    return connectionManager.doReadOnly(
         connection -> {
           List<Product> products = new ArrayList<>();
           try (PreparedStatement stmt = connection.prepareStatement(FIND_ALL_SQL);
@@ -173,6 +338,47 @@ public class JdbcProductRepository implements ProductRepository {
         });
   }
 
+  @Override
+  public long streamAll(Consumer<Product> action) {
+    return connectionManager.doInReadOnlyTransaction(
+        connection -> {
+          try (PreparedStatement stmt = connection.prepareStatement(STREAM_ALL_SQL)) {
+            stmt.setFetchSize(STREAM_FETCH_SIZE);
+            long count = 0;
+            try (ResultSet rs = stmt.executeQuery()) {
+              while (rs.next()) {
+                action.accept(productResultMapper.mapToProduct(rs));
+                count++;
+              }
+            }
+            return count;
+          } catch (SQLException e) {
+            throw new DataAccessException("Failed to stream all products", e);
+          }
+        });
+  }
+
+  @Override
+  public List<Product> findPage(Long afterId, int limit) {
+    return connectionManager.doReadOnly(
+        connection -> {
+          List<Product> products = new ArrayList<>(limit);
+          try (PreparedStatement stmt = connection.prepareStatement(FIND_PAGE_SQL)) {
+            stmt.setLong(1, afterId == null ? Long.MIN_VALUE : afterId);
+            stmt.setInt(2, limit);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+              while (rs.next()) {
+                products.add(productResultMapper.mapToProduct(rs));
+              }
+            }
+            return products;
+          } catch (SQLException e) {
+            throw new DataAccessException("Failed to find products page after id: " + afterId, e);
+          }
+        });
+  }
+
   @Override
   public boolean delete(Long id) {
     return connectionManager.doInTransaction(
@@ -189,16 +395,86 @@ public class JdbcProductRepository implements ProductRepository {
   }
 
   @Override
-  public List<Product> searchByName(String name) {
-    return executeFilter(SEARCH_BY_NAME_SQL, "%" + name + "%");
+  public List<Product> search(SearchCriteria criteria) {
+    int shape = searchShape(criteria) | orderShape(criteria);
+    if (partitionExecutor != null && (shape & ID_FILTER) == 0) {
+      long[] span = idSpan.get();
+      if (span == null) {
+        span = idSpan.updateAndGet(current -> current != null ? current : readIdSpan());
+      }
+      if (span[0] <= span[1] && span[1] - span[0] >= partitionMinIdSpan) {
+        List<Product> products = searchPartitioned(criteria, shape, span[0], span[1]);
+        if (products != null) {
+          return products;
+        }
+      }
+    }
+    return searchRange(criteria, shape, 0, 0);
   }
 
-  private List<Product> executeFilter(String sql, String filterValue) {
-    return connectionManager.doInTransaction(
+  /**
+   * Splits the id span into ranges of equal width searched in parallel, each on its own pooled
+   * connection. Every range is ordered and limited as the whole result would be, so merging the
+   * ordered ranges and keeping the first limit products gives the result of a single query. The
+   * first and the last range are open, so products outside of a stale span are found too.
+   *
+   * @return null if ranges of other searches fill the executor, the search should run as a single
+   *     query
+   */
+  private List<Product> searchPartitioned(
+      SearchCriteria criteria, int shape, long minId, long maxId) {
+    int rangeShape = shape | ORDERED | ID_RANGE;
+    long width = (maxId - minId) / searchPartitions + 1;
+    List<Future<List<Product>>> futures = new ArrayList<>(searchPartitions);
+    try {
+      for (int i = 0; i < searchPartitions; i++) {
+        long from = i == 0 ? Long.MIN_VALUE : minId + i * width;
+        long to = i == searchPartitions - 1 ? Long.MAX_VALUE : minId + (i + 1) * width;
+        futures.add(partitionExecutor.submit(() -> searchRange(criteria, rangeShape, from, to)));
+      }
+    } catch (RejectedExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      return null;
+    }
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(partitionTimeoutMs);
+    List<List<Product>> ranges = new ArrayList<>(searchPartitions);
+    try {
+      for (Future<List<Product>> future : futures) {
+        ranges.add(future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS));
+      }
+    } catch (TimeoutException e) {
+      futures.forEach(future -> future.cancel(true));
+      throw new DataAccessException("Product search was not completed in time");
+    } catch (InterruptedException e) {
+      futures.forEach(future -> future.cancel(true));
+      Thread.currentThread().interrupt();
+      throw new DataAccessException("Interrupted while searching products", e);
+    } catch (ExecutionException e) {
+      futures.forEach(future -> future.cancel(true));
+      if (e.getCause() instanceof DataAccessException dataAccessException) {
+        throw dataAccessException;
+      }
+      throw new DataAccessException("Failed to search products", e.getCause());
+    }
+    Integer limit = criteria.getLimit();
+    return merge(ranges, criteria.comparator(), limit != null ? limit : Integer.MAX_VALUE);
+  }
+
+  /** products matching criteria, with id from inclusive to exclusive if shape has id range */
+  private List<Product> searchRange(SearchCriteria criteria, int shape, long from, long to) {
+    String sql = searchSql(shape);
+    return connectionManager.doReadOnly(
         connection -> {
           List<Product> products = new ArrayList<>();
           try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setString(1, filterValue);
+            int index = bindSearchParameters(stmt, 1, shape, criteria);
+            if ((shape & ID_RANGE) != 0) {
+              stmt.setLong(index++, from);
+              stmt.setLong(index++, to);
+            }
+            if ((shape & LIMITED) != 0) {
+              stmt.setInt(index, criteria.getLimit());
+            }
 
             try (ResultSet rs = stmt.executeQuery()) {
               while (rs.next()) {
@@ -207,29 +483,96 @@ public class JdbcProductRepository implements ProductRepository {
             }
             return products;
           } catch (SQLException e) {
-            throw new DataAccessException("Failed to execute filter", e);
+            throw new DataAccessException("Failed to search products", e);
           }
         });
   }
 
-  @Override
-  public List<Product> filterByCategory(String category) {
-    return executeFilter(FILTER_BY_CATEGORY_SQL, category);
+  /** lowest and highest product id, lowest above highest if there are no products */
+  private long[] readIdSpan() {
+    return connectionManager.doReadOnly(
+        connection -> {
+          try (Statement stmt = connection.createStatement();
+              ResultSet rs = stmt.executeQuery(ID_SPAN_SQL)) {
+            rs.next();
+            long minId = rs.getLong(1);
+            return rs.wasNull()
+                ? new long[] {Long.MAX_VALUE, Long.MIN_VALUE}
+                : new long[] {minId, rs.getLong(2)};
+          } catch (SQLException e) {
+            throw new DataAccessException("Failed to read product id span", e);
+          }
+        });
+  }
+
+  /** first limit products of lists ordered the same way, in that order */
+  private static List<Product> merge(
+      List<List<Product>> ordered, Comparator<Product> order, int limit) {
+    int[] positions = new int[ordered.size()];
+    PriorityQueue<Integer> heads =
+        new PriorityQueue<>(
+            Comparator.comparing((Integer list) -> ordered.get(list).get(positions[list]), order));
+    for (int list = 0; list < ordered.size(); list++) {
+      if (!ordered.get(list).isEmpty()) {
+        heads.add(list);
+      }
+    }
+    List<Product> merged = new ArrayList<>();
+    while (!heads.isEmpty() && merged.size() < limit) {
+      int list = heads.poll();
+      merged.add(ordered.get(list).get(positions[list]++));
+      if (positions[list] < ordered.get(list).size()) {
+        heads.add(list);
+      }
+    }
+    return merged;
   }
 
   @Override
-  public List<Product> filterByBrand(String brand) {
-    return executeFilter(FILTER_BY_BRAND_SQL, brand);
+  public ProductFacets countFacets(SearchCriteria criteria, List<BigDecimal> priceBounds) {
+    int shape = searchShape(criteria);
+    String sql =
+        facetsSqlByShape.computeIfAbsent(
+            shape, key -> FACETS_SQL_TEMPLATE.formatted(whereClause(key)));
+    return connectionManager.doReadOnly(
+        connection -> {
+          Map<String, Long> categories = new HashMap<>();
+          Map<String, Long> brands = new HashMap<>();
+          long[] priceCounts = new long[priceBounds.size() + 1];
+          try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setArray(1, connection.createArrayOf("numeric", priceBounds.toArray()));
+            bindSearchParameters(stmt, 2, shape, criteria);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+              while (rs.next()) {
+                long count = rs.getLong("count");
+                switch (rs.getInt("facet")) {
+                  case CATEGORY_FACET -> putCount(categories, rs.getString("category"), count);
+                  case BRAND_FACET -> putCount(brands, rs.getString("brand"), count);
+                  case PRICE_FACET -> {
+                    int bucket = rs.getInt("price_bucket");
+                    if (!rs.wasNull()) {
+                      priceCounts[bucket] = count;
+                    }
+                  }
+                }
+              }
+            }
+            return ProductFacets.of(categories, brands, priceBounds, priceCounts);
+          } catch (SQLException e) {
+            throw new DataAccessException("Failed to count product facets", e);
+          }
+        });
   }
 
   @Override
-  public List<Product> filterByPriceRange(BigDecimal minPrice, BigDecimal maxPrice) {
-    return connectionManager.doInTransaction(
+  public List<Product> fullTextSearch(String query, int limit) {
+    return connectionManager.doReadOnly(
         connection -> {
-          List<Product> products = new ArrayList<>();
-          try (PreparedStatement stmt = connection.prepareStatement(FILTER_BY_PRICE_RANGE_SQL)) {
-            stmt.setBigDecimal(1, minPrice);
-            stmt.setBigDecimal(2, maxPrice);
+          List<Product> products = new ArrayList<>(limit);
+          try (PreparedStatement stmt = connection.prepareStatement(FULL_TEXT_SEARCH_SQL)) {
+            stmt.setString(1, query);
+            stmt.setInt(2, limit);
 
             try (ResultSet rs = stmt.executeQuery()) {
               while (rs.next()) {
@@ -238,8 +581,159 @@ public class JdbcProductRepository implements ProductRepository {
             }
             return products;
           } catch (SQLException e) {
-            throw new DataAccessException("Failed to filter products by price range", e);
+            throw new DataAccessException("Failed to execute full text search", e);
           }
         });
   }
+
+  /** SQL text issued by {@link #search} for given criteria */
+  String searchSql(SearchCriteria criteria) {
+    return searchSql(searchShape(criteria) | orderShape(criteria));
+  }
+
+  private String searchSql(int shape) {
+    return searchSqlByShape.computeIfAbsent(shape, JdbcProductRepository::buildSearchSql);
+  }
+
+  private static int searchShape(SearchCriteria criteria) {
+    int shape = 0;
+    if (criteria.getId() != null) {
+      shape |= ID_FILTER;
+    }
+    if (isSet(criteria.getName())) {
+      shape |= NAME_FILTER;
+    }
+    if (isSet(criteria.getCategory())) {
+      shape |= CATEGORY_FILTER;
+    }
+    if (isSet(criteria.getBrand())) {
+      shape |= BRAND_FILTER;
+    }
+    if (criteria.getMinPrice() != null) {
+      shape |= MIN_PRICE_FILTER;
+    }
+    if (criteria.getMaxPrice() != null) {
+      shape |= MAX_PRICE_FILTER;
+    }
+    return shape;
+  }
+
+  private static int orderShape(SearchCriteria criteria) {
+    if (!criteria.isOrdered()) {
+      return 0;
+    }
+    int shape = ORDERED;
+    if (criteria.getSort() != null) {
+      shape |= (criteria.getSort().ordinal() + 1) << SORT_SHIFT;
+    }
+    if (criteria.isDescending()) {
+      shape |= DESCENDING;
+    }
+    if (criteria.getLimit() != null) {
+      shape |= LIMITED;
+    }
+    return shape;
+  }
+
+  /** products without the value, null, form a group of their own which is not a facet value */
+  private static void putCount(Map<String, Long> counts, String value, long count) {
+    if (value != null) {
+      counts.put(value, count);
+    }
+  }
+
+  private static boolean isSet(String filter) {
+    return filter != null && !filter.isBlank();
+  }
+
+  private static String buildSearchSql(int shape) {
+    return SEARCH_SELECT_SQL + whereClause(shape) + orderClause(shape);
+  }
+
+  /**
+   * Order of {@link ProductSort} with id as tie breaker. Names are compared by code points, as
+   * Java strings are, so in-memory search orders them the same way. With limit database keeps
+   * only the first rows while sorting.
+   */
+  private static String orderClause(int shape) {
+    if ((shape & ORDERED) == 0) {
+      return "";
+    }
+    String direction = (shape & DESCENDING) != 0 ? " DESC" : "";
+    int sortBits = (shape & SORT_MASK) >>> SORT_SHIFT;
+    ProductSort sort = sortBits == 0 ? ProductSort.ID : ProductSort.values()[sortBits - 1];
+    String order =
+        switch (sort) {
+          case ID -> "id" + direction;
+          case NAME -> "name COLLATE \"C\"" + direction + ", id";
+          case PRICE -> "price" + direction + ", id";
+        };
+    return " ORDER BY " + order + ((shape & LIMITED) != 0 ? " LIMIT ?" : "");
+  }
+
+  /** conditions are appended in the same order as parameters are bound */
+  private static String whereClause(int shape) {
+    List<String> conditions = new ArrayList<>();
+    if ((shape & ID_FILTER) != 0) {
+      conditions.add("id = ?");
+    }
+    if ((shape & NAME_FILTER) != 0) {
+      conditions.add("LOWER(name) LIKE ?");
+    }
+    if ((shape & CATEGORY_FILTER) != 0) {
+      conditions.add("LOWER(category) = ?");
+    }
+    if ((shape & BRAND_FILTER) != 0) {
+      conditions.add("LOWER(brand) = ?");
+    }
+    if ((shape & MIN_PRICE_FILTER) != 0) {
+      conditions.add("price >= ?");
+    }
+    if ((shape & MAX_PRICE_FILTER) != 0) {
+      conditions.add("price <= ?");
+    }
+    if ((shape & ID_RANGE) != 0) {
+      conditions.add("id >= ? AND id < ?");
+    }
+    if (conditions.isEmpty()) {
+      return "";
+    }
+    return " WHERE " + String.join(" AND ", conditions);
+  }
+
+  /**
+   * binds parameters of search conditions starting from given parameter index, returns index of
+   * the next parameter
+   */
+  private static int bindSearchParameters(
+      PreparedStatement stmt, int index, int shape, SearchCriteria criteria) throws SQLException {
+    if ((shape & ID_FILTER) != 0) {
+      stmt.setLong(index++, criteria.getId());
+    }
+    if ((shape & NAME_FILTER) != 0) {
+      stmt.setString(index++, "%" + escapeLike(normalize(criteria.getName())) + "%");
+    }
+    if ((shape & CATEGORY_FILTER) != 0) {
+      stmt.setString(index++, normalize(criteria.getCategory()));
+    }
+    if ((shape & BRAND_FILTER) != 0) {
+      stmt.setString(index++, normalize(criteria.getBrand()));
+    }
+    if ((shape & MIN_PRICE_FILTER) != 0) {
+      stmt.setBigDecimal(index++, criteria.getMinPrice());
+    }
+    if ((shape & MAX_PRICE_FILTER) != 0) {
+      stmt.setBigDecimal(index++, criteria.getMaxPrice());
+    }
+    return index;
+  }
+
+  private static String normalize(String filter) {
+    return filter.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /** name is matched as plain text, so LIKE wildcards in it must not act as wildcards */
+  private static String escapeLike(String value) {
+    return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+  }
 }
@@ -5,10 +5,12 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import org.example.dto.UserSavedEvent;
 import org.example.exception.DataAccessException;
 import org.example.model.User;
 import org.example.repository.UserRepository;
 import org.example.repository.impl.database.mapper.UserResultMapper;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Component;
 
 @Component
@@ -32,15 +34,18 @@ public class JdbcUserRepository implements UserRepository {
         WHERE id = ?
         """;
   private final ConnectionManager connectionManager;
+  private final ApplicationEventPublisher eventPublisher;
   private final UserResultMapper userResultMapper = new UserResultMapper();
 
-  public JdbcUserRepository(ConnectionManager connectionManager) {
+  public JdbcUserRepository(
+      ConnectionManager connectionManager, ApplicationEventPublisher eventPublisher) {
     this.connectionManager = connectionManager;
+    this.eventPublisher = eventPublisher;
   }
 
   @Override
   public User findByUsername(String username) {
-    return connectionManager.doInTransaction(
+    return connectionManager.doReadOnly(
         connection -> {
           try (PreparedStatement stmt = connection.prepareStatement(FIND_BY_USERNAME_SQL)) {
             stmt.setString(1, username);
@@ -58,16 +63,21 @@ public class JdbcUserRepository implements UserRepository {
         });
   }
 
+  /** publishes {@link UserSavedEvent} after transaction is committed */
   @Override
   public User save(User user) {
-    return connectionManager.doInTransaction(
-        connection -> {
-          if (user.getId() == null) {
-            return insertUser(connection, user);
-          } else {
-            return updateUser(connection, user);
-          }
-        });
+    boolean created = user.getId() == null;
+    User saved =
+        connectionManager.doInTransaction(
+            connection -> {
+              if (created) {
+                return insertUser(connection, user);
+              } else {
+                return updateUser(connection, user);
+              }
+            });
+    eventPublisher.publishEvent(new UserSavedEvent(saved.getId(), saved.getUsername(), created));
+    return saved;
   }
 
   private User insertUser(Connection connection, User user) {
@@ -0,0 +1,11 @@
+package org.example.repository.impl.database;
+
+/**
+ * Snapshot of database operations statistics.
+ *
+ * @param count executed operations, including failed
+ * @param failures operations ended with exception
+ * @param averageMillis average duration, including waiting for a connection
+ * @param maxMillis longest duration
+ */
+public record OperationMetrics(long count, long failures, double averageMillis, double maxMillis) {}
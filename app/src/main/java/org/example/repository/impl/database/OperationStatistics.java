@@ -0,0 +1,28 @@
+package org.example.repository.impl.database;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/** Counts executions of database operations of one kind and their duration */
+class OperationStatistics {
+  private final LongAdder count = new LongAdder();
+  private final LongAdder failures = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final AtomicLong maxNanos = new AtomicLong();
+
+  void record(long nanos, boolean succeeded) {
+    count.increment();
+    if (!succeeded) {
+      failures.increment();
+    }
+    totalNanos.add(nanos);
+    maxNanos.accumulateAndGet(nanos, Math::max);
+  }
+
+  OperationMetrics snapshot() {
+    long executed = count.sum();
+    double averageMillis = executed == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / executed;
+    return new OperationMetrics(
+        executed, failures.sum(), averageMillis, maxNanos.get() / 1_000_000.0);
+  }
+}
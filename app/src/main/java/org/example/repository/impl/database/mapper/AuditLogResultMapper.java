@@ -2,6 +2,7 @@ package org.example.repository.impl.database.mapper;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.UUID;
 import org.example.model.AuditAction;
 import org.example.model.AuditLog;
 
@@ -13,6 +14,7 @@ public class AuditLogResultMapper {
     log.setUsername(rs.getString("username"));
     log.setAction(AuditAction.valueOf(rs.getString("action")));
     log.setDetails(rs.getString("details"));
+    log.setEventId(rs.getObject("event_id", UUID.class));
     return log;
   }
 }
@@ -0,0 +1,409 @@
+package org.example.repository.impl.spool;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import lombok.extern.log4j.Log4j2;
+import org.example.exception.DataAccessException;
+import org.example.exception.InitializationException;
+import org.example.model.AuditAction;
+import org.example.model.AuditLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Append-only local spool of audit logs for the time database can not take them. Records are
+ * appended to memory mapped segment files of fixed size, a full segment is synced to disk and the
+ * next one is started. Records are read back in order of appending, a segment whose records were
+ * all replayed is deleted.
+ *
+ * <p>Segment file starts with a header: magic, format version, and offset up to which records
+ * were replayed. Every record is its payload length, CRC32 of the payload and the payload, length
+ * 0 ends the records. Written records survive a crash of the process, as the mapped pages belong
+ * to the operating system. On start the segments left in the directory are scanned and records
+ * after the first one with wrong CRC, torn by a crash of the operating system, are dropped.
+ *
+ * <p>Replayed offset is stored after the records were saved, so a crash between these two steps
+ * replays the records again. Records keep their event id, which lets the database skip the ones
+ * saved before. Records which can not be read back are skipped, records the writer gives up on
+ * are appended to a dead letter file next to the segments, one line per record.
+ */
+@Log4j2
+@Component
+public class AuditSpool {
+  private static final int MAGIC = 0x41554453;
+  private static final int VERSION = 2;
+
+  /** version of segments written before records had event id, still read on recovery */
+  private static final int VERSION_WITHOUT_EVENT_ID = 1;
+
+  private static final int REPLAYED_OFFSET_POSITION = 8;
+  static final int HEADER_SIZE = 16;
+  private static final int RECORD_HEADER_SIZE = 8;
+  private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{20})\\.spool");
+  static final String DEAD_LETTER_FILE = "audit-dead-letter.log";
+
+  private final Path directory;
+  private final int segmentSize;
+
+  /** oldest first, the last one takes appended records */
+  private final Deque<Segment> segments = new ArrayDeque<>();
+
+  private final CRC32 crc = new CRC32();
+  private long pending;
+
+  /** position in the oldest segment up to which records were returned by last peek */
+  private int peekedOffset;
+
+  /** records passed by last peek, including unreadable ones */
+  private int peekedRecords;
+
+  /**
+   * @param directory where segment files are kept, created if missing
+   * @param segmentSize size of a segment file in bytes, limits the size of a record
+   */
+  public AuditSpool(
+      @Value("${audit.spool.directory}") String directory,
+      @Value("${audit.spool.segment_size}") int segmentSize) {
+    if (segmentSize < HEADER_SIZE + RECORD_HEADER_SIZE) {
+      throw new InitializationException("Audit spool segment size is too small: " + segmentSize);
+    }
+    this.directory = Path.of(directory);
+    this.segmentSize = segmentSize;
+    try {
+      Files.createDirectories(this.directory);
+      recover();
+    } catch (IOException e) {
+      throw new InitializationException(e);
+    }
+  }
+
+  /** Appends audit log to the newest segment, starting a new segment when it is full. */
+  public synchronized void append(AuditLog auditLog) {
+    byte[] action = bytes(auditLog.getAction().name());
+    byte[] username = bytes(auditLog.getUsername());
+    byte[] details = bytes(auditLog.getDetails());
+    // epoch second and nano, event id, then length and bytes of action, username and details
+    int payloadSize =
+        8 + 4 + 16 + 4 + length(action) + 4 + length(username) + 4 + length(details);
+    if (RECORD_HEADER_SIZE + payloadSize > segmentSize - HEADER_SIZE) {
+      throw new DataAccessException("Audit log does not fit into spool segment");
+    }
+    Segment segment = segments.peekLast();
+    if (segment == null
+        || segment.version != VERSION
+        || segment.end + RECORD_HEADER_SIZE + payloadSize > segment.buffer.capacity()) {
+      segment = startSegment();
+    }
+    ByteBuffer buffer = segment.buffer.duplicate();
+    buffer.position(segment.end + RECORD_HEADER_SIZE);
+    LocalDateTime timestamp = auditLog.getTimestamp();
+    buffer.putLong(timestamp.toEpochSecond(ZoneOffset.UTC));
+    buffer.putInt(timestamp.getNano());
+    // nil uuid, which random ones never are, stands for no event id
+    UUID eventId = auditLog.getEventId();
+    buffer.putLong(eventId == null ? 0 : eventId.getMostSignificantBits());
+    buffer.putLong(eventId == null ? 0 : eventId.getLeastSignificantBits());
+    putBytes(buffer, action);
+    putBytes(buffer, username);
+    putBytes(buffer, details);
+    crc.reset();
+    crc.update(buffer.flip().position(segment.end + RECORD_HEADER_SIZE));
+    // length goes last, so a record is never seen with its payload missing
+    segment.buffer.putInt(segment.end + 4, (int) crc.getValue());
+    segment.buffer.putInt(segment.end, payloadSize);
+    segment.end += RECORD_HEADER_SIZE + payloadSize;
+    pending++;
+  }
+
+  /**
+   * Returns up to maxRecords oldest records not replayed yet, without removing them. Records of
+   * one call come from one segment. Nothing changes until {@link #commit()}, the next peek
+   * returns the same records. A record which can not be read back, like one of an action removed
+   * since, is logged and skipped, commit drops it with the returned ones.
+   */
+  public synchronized List<AuditLog> peek(int maxRecords) {
+    dropReplayedSegments();
+    Segment segment = segments.peekFirst();
+    List<AuditLog> records = new ArrayList<>();
+    peekedRecords = 0;
+    if (segment == null) {
+      return records;
+    }
+    int offset = segment.replayedOffset;
+    while (peekedRecords < maxRecords && offset < segment.end) {
+      int payloadSize = segment.buffer.getInt(offset);
+      try {
+        records.add(read(segment, offset + RECORD_HEADER_SIZE));
+      } catch (RuntimeException e) {
+        log.error(
+            "Skipping unreadable audit spool record at {} of {}: {}",
+            offset,
+            segment.path,
+            e.getMessage());
+      }
+      offset += RECORD_HEADER_SIZE + payloadSize;
+      peekedRecords++;
+    }
+    peekedOffset = offset;
+    return records;
+  }
+
+  /**
+   * Appends audit log to the dead letter file, for records which could not be replayed. The file
+   * is only appended to, it is for an operator to inspect and to save the records by hand.
+   */
+  public synchronized void deadLetter(AuditLog auditLog) {
+    String line =
+        String.join(
+                "\t",
+                String.valueOf(auditLog.getTimestamp()),
+                String.valueOf(auditLog.getEventId()),
+                String.valueOf(auditLog.getUsername()),
+                String.valueOf(auditLog.getAction()),
+                String.valueOf(auditLog.getDetails()))
+            .replace("\n", "\\n")
+            .replace("\r", "\\r");
+    try {
+      Files.writeString(
+          directory.resolve(DEAD_LETTER_FILE),
+          line + System.lineSeparator(),
+          StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE,
+          StandardOpenOption.APPEND);
+    } catch (IOException e) {
+      throw new DataAccessException("Failed to write audit dead letter file", e);
+    }
+  }
+
+  /** Marks records returned by the last peek as replayed. */
+  public synchronized void commit() {
+    Segment segment = segments.peekFirst();
+    if (segment == null || peekedRecords == 0) {
+      return;
+    }
+    segment.replayedOffset = peekedOffset;
+    segment.buffer.putInt(REPLAYED_OFFSET_POSITION, peekedOffset);
+    pending -= peekedRecords;
+    peekedRecords = 0;
+    dropReplayedSegments();
+  }
+
+  /** number of records waiting to be replayed */
+  public synchronized long pending() {
+    return pending;
+  }
+
+  /** number of segment files */
+  public synchronized int segments() {
+    return segments.size();
+  }
+
+  @PreDestroy
+  public synchronized void close() {
+    segments.forEach(segment -> segment.buffer.force());
+  }
+
+  /** deletes fully replayed segments, except the newest one which still takes records */
+  private void dropReplayedSegments() {
+    while (segments.size() > 1 && segments.peekFirst().isReplayed()) {
+      Segment segment = segments.pollFirst();
+      try {
+        Files.deleteIfExists(segment.path);
+      } catch (IOException e) {
+        log.warn("Failed to delete audit spool segment {}: {}", segment.path, e.getMessage());
+      }
+    }
+  }
+
+  private Segment startSegment() {
+    Segment last = segments.peekLast();
+    long sequence = last == null ? 1 : last.sequence + 1;
+    Path path = directory.resolve("audit-%020d.spool".formatted(sequence));
+    try (FileChannel channel =
+        FileChannel.open(
+            path,
+            StandardOpenOption.CREATE_NEW,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+      MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+      buffer.putInt(0, MAGIC);
+      buffer.putInt(4, VERSION);
+      buffer.putInt(REPLAYED_OFFSET_POSITION, HEADER_SIZE);
+      if (last != null) {
+        last.buffer.force();
+      }
+      Segment segment = new Segment(path, sequence, VERSION, buffer);
+      segment.replayedOffset = HEADER_SIZE;
+      segment.end = HEADER_SIZE;
+      segments.addLast(segment);
+      return segment;
+    } catch (IOException e) {
+      throw new DataAccessException("Failed to create audit spool segment " + path, e);
+    }
+  }
+
+  /** opens segments left by previous run, finds their valid records */
+  private void recover() throws IOException {
+    List<Path> paths;
+    try (Stream<Path> files = Files.list(directory)) {
+      paths =
+          files
+              .filter(path -> SEGMENT_NAME.matcher(path.getFileName().toString()).matches())
+              .sorted()
+              .toList();
+    }
+    for (Path path : paths) {
+      Segment segment = openSegment(path);
+      if (segment != null) {
+        segments.addLast(segment);
+      }
+    }
+    dropReplayedSegments();
+    if (pending > 0) {
+      log.info("Audit spool has {} records to replay in {} segments", pending, segments.size());
+    }
+  }
+
+  private Segment openSegment(Path path) throws IOException {
+    Matcher name = SEGMENT_NAME.matcher(path.getFileName().toString());
+    long sequence = name.matches() ? Long.parseLong(name.group(1)) : 0;
+    MappedByteBuffer buffer;
+    try (FileChannel channel =
+        FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+      if (channel.size() < HEADER_SIZE || channel.size() > Integer.MAX_VALUE) {
+        log.warn("Skipping audit spool file {} of unexpected size", path);
+        return null;
+      }
+      buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+    }
+    int replayedOffset = buffer.getInt(REPLAYED_OFFSET_POSITION);
+    int version = buffer.getInt(4);
+    if (buffer.getInt(0) != MAGIC
+        || (version != VERSION && version != VERSION_WITHOUT_EVENT_ID)
+        || replayedOffset < HEADER_SIZE
+        || replayedOffset > buffer.capacity()) {
+      log.warn("Skipping audit spool file {} with unknown header", path);
+      return null;
+    }
+    Segment segment = new Segment(path, sequence, version, buffer);
+    segment.replayedOffset = replayedOffset;
+    int offset = replayedOffset;
+    while (isValidRecord(buffer, offset)) {
+      offset += RECORD_HEADER_SIZE + buffer.getInt(offset);
+      pending++;
+    }
+    segment.end = offset;
+    if (offset + RECORD_HEADER_SIZE <= buffer.capacity() && buffer.getInt(offset) != 0) {
+      log.warn("Audit spool segment {} has a damaged record at {}, rest is dropped", path, offset);
+      for (int position = offset; position < buffer.capacity(); position++) {
+        buffer.put(position, (byte) 0);
+      }
+    }
+    return segment;
+  }
+
+  private boolean isValidRecord(MappedByteBuffer buffer, int offset) {
+    if (offset + RECORD_HEADER_SIZE > buffer.capacity()) {
+      return false;
+    }
+    int payloadSize = buffer.getInt(offset);
+    if (payloadSize <= 0 || payloadSize > buffer.capacity() - offset - RECORD_HEADER_SIZE) {
+      return false;
+    }
+    crc.reset();
+    int payloadOffset = offset + RECORD_HEADER_SIZE;
+    crc.update(buffer.duplicate().limit(payloadOffset + payloadSize).position(payloadOffset));
+    return (int) crc.getValue() == buffer.getInt(offset + 4);
+  }
+
+  private static AuditLog read(Segment segment, int payloadOffset) {
+    ByteBuffer buffer = segment.buffer.duplicate().position(payloadOffset);
+    AuditLog auditLog = new AuditLog();
+    long epochSecond = buffer.getLong();
+    int nano = buffer.getInt();
+    auditLog.setTimestamp(LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC));
+    if (segment.version != VERSION_WITHOUT_EVENT_ID) {
+      UUID eventId = new UUID(buffer.getLong(), buffer.getLong());
+      auditLog.setEventId(
+          eventId.getMostSignificantBits() == 0 && eventId.getLeastSignificantBits() == 0
+              ? null
+              : eventId);
+    }
+    auditLog.setAction(AuditAction.valueOf(getString(buffer)));
+    auditLog.setUsername(getString(buffer));
+    auditLog.setDetails(getString(buffer));
+    return auditLog;
+  }
+
+  private static byte[] bytes(String value) {
+    return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static int length(byte[] bytes) {
+    return bytes == null ? 0 : bytes.length;
+  }
+
+  /** length and bytes, length -1 for null */
+  private static void putBytes(ByteBuffer buffer, byte[] bytes) {
+    if (bytes == null) {
+      buffer.putInt(-1);
+    } else {
+      buffer.putInt(bytes.length).put(bytes);
+    }
+  }
+
+  private static String getString(ByteBuffer buffer) {
+    int length = buffer.getInt();
+    if (length < 0) {
+      return null;
+    }
+    byte[] bytes = new byte[length];
+    buffer.get(bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  private static final class Segment {
+    private final Path path;
+    private final long sequence;
+
+    /** format of the records, the newest one takes appended records */
+    private final int version;
+
+    private final MappedByteBuffer buffer;
+
+    /** records before this offset were replayed */
+    private int replayedOffset;
+
+    /** offset after the last record */
+    private int end;
+
+    private Segment(Path path, long sequence, int version, MappedByteBuffer buffer) {
+      this.path = path;
+      this.sequence = sequence;
+      this.version = version;
+      this.buffer = buffer;
+    }
+
+    private boolean isReplayed() {
+      return replayedOffset == end;
+    }
+  }
+}
@@ -0,0 +1,175 @@
+package org.example.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Prefix index of product names for suggestions while typing. Distinct names are kept lower cased
+ * in one sorted array, names starting with a prefix form a contiguous range of it, so a lookup is
+ * a binary search followed by reading the suggested names. There is no node per character as in
+ * a trie, memory is two references and a counter per distinct name.
+ *
+ * <p>Every name counts products having it and is dropped with the last of them. Names differing
+ * only in letter case are one name, suggested as written by the first product added with it.
+ *
+ * <p>Thread safe, lookups run concurrently, updates are exclusive. An update shifts the array
+ * tail, which is cheap next to the database write causing it.
+ */
+public class NamePrefixIndex {
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private String[] keys = new String[16];
+  private String[] names = new String[16];
+  private int[] counts = new int[16];
+  private int size;
+
+  public void add(String name) {
+    if (name == null || name.isBlank()) {
+      return;
+    }
+    Entry entry = Entry.of(name);
+    lock.writeLock().lock();
+    try {
+      int position = Arrays.binarySearch(keys, 0, size, entry.key());
+      if (position >= 0) {
+        counts[position]++;
+        return;
+      }
+      position = -position - 1;
+      if (size == keys.length) {
+        keys = Arrays.copyOf(keys, size * 2);
+        names = Arrays.copyOf(names, size * 2);
+        counts = Arrays.copyOf(counts, size * 2);
+      }
+      System.arraycopy(keys, position, keys, position + 1, size - position);
+      System.arraycopy(names, position, names, position + 1, size - position);
+      System.arraycopy(counts, position, counts, position + 1, size - position);
+      keys[position] = entry.key();
+      names[position] = entry.name();
+      counts[position] = 1;
+      size++;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds names in bulk, used to build the index from storage. Names are sorted once and merged
+   * with the indexed ones instead of being inserted one by one.
+   */
+  public void addAll(Collection<String> newNames) {
+    List<Entry> added =
+        newNames.stream()
+            .filter(name -> name != null && !name.isBlank())
+            .map(Entry::of)
+            .sorted(Comparator.comparing(Entry::key))
+            .toList();
+    lock.writeLock().lock();
+    try {
+      String[] mergedKeys = new String[Math.max(16, size + added.size())];
+      String[] mergedNames = new String[mergedKeys.length];
+      int[] mergedCounts = new int[mergedKeys.length];
+      int merged = 0;
+      int i = 0;
+      int j = 0;
+      while (i < size || j < added.size()) {
+        String key;
+        String name;
+        int count;
+        // indexed name goes first on equal keys, so its letter case is kept
+        if (j == added.size() || (i < size && keys[i].compareTo(added.get(j).key()) <= 0)) {
+          key = keys[i];
+          name = names[i];
+          count = counts[i++];
+        } else {
+          key = added.get(j).key();
+          name = added.get(j++).name();
+          count = 1;
+        }
+        if (merged > 0 && mergedKeys[merged - 1].equals(key)) {
+          mergedCounts[merged - 1] += count;
+        } else {
+          mergedKeys[merged] = key;
+          mergedNames[merged] = name;
+          mergedCounts[merged++] = count;
+        }
+      }
+      keys = mergedKeys;
+      names = mergedNames;
+      counts = mergedCounts;
+      size = merged;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(String name) {
+    if (name == null || name.isBlank()) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      int position = Arrays.binarySearch(keys, 0, size, toKey(name));
+      if (position < 0 || --counts[position] > 0) {
+        return;
+      }
+      System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+      System.arraycopy(names, position + 1, names, position, size - position - 1);
+      System.arraycopy(counts, position + 1, counts, position, size - position - 1);
+      size--;
+      keys[size] = null;
+      names[size] = null;
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Up to limit distinct names starting with prefix, ignoring letter case and leading whitespace
+   * of prefix, in alphabetical order.
+   */
+  public List<String> suggest(String prefix, int limit) {
+    String keyPrefix = prefix.stripLeading().toLowerCase(Locale.ROOT);
+    lock.readLock().lock();
+    try {
+      int position = Arrays.binarySearch(keys, 0, size, keyPrefix);
+      if (position < 0) {
+        position = -position - 1;
+      }
+      List<String> result = new ArrayList<>(Math.min(limit, 16));
+      while (position < size && result.size() < limit && keys[position].startsWith(keyPrefix)) {
+        result.add(names[position++]);
+      }
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** number of distinct names */
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return size;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private static String toKey(String name) {
+    return name.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /** lower cased key and name as suggested, name shares the key string when they are equal */
+  private record Entry(String key, String name) {
+    static Entry of(String name) {
+      String key = toKey(name);
+      String trimmed = name.trim();
+      return new Entry(key, trimmed.equals(key) ? key : trimmed);
+    }
+  }
+}
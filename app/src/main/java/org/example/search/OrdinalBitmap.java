@@ -0,0 +1,396 @@
+package org.example.search;
+
+import java.util.Arrays;
+
+/**
+ * Compressed set of product ordinals in the roaring bitmap layout. Ordinals are split into chunks
+ * of 65536 by their high 16 bits, a sparse chunk keeps its low bits in a sorted array, a dense
+ * chunk in a bit set of 1024 words. AND and OR of dense chunks combine 64 ordinals per word.
+ */
+final class OrdinalBitmap {
+  /** cardinality above which a chunk is stored as bit set, both forms take 8 KB at this point */
+  private static final int ARRAY_LIMIT = 4096;
+
+  private char[] keys = new char[4];
+  private Chunk[] chunks = new Chunk[4];
+  private int size;
+
+  void add(int ordinal) {
+    char key = (char) (ordinal >>> 16);
+    int position = position(key);
+    if (position >= 0) {
+      chunks[position] = chunks[position].add((char) ordinal);
+      return;
+    }
+    insert(-position - 1, key, new ArrayChunk().add((char) ordinal));
+  }
+
+  void remove(int ordinal) {
+    int position = position((char) (ordinal >>> 16));
+    if (position < 0) {
+      return;
+    }
+    Chunk chunk = chunks[position].remove((char) ordinal);
+    if (chunk.cardinality() == 0) {
+      System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+      System.arraycopy(chunks, position + 1, chunks, position, size - position - 1);
+      chunks[--size] = null;
+    } else {
+      chunks[position] = chunk;
+    }
+  }
+
+  boolean contains(int ordinal) {
+    int position = position((char) (ordinal >>> 16));
+    return position >= 0 && chunks[position].contains((char) ordinal);
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  int cardinality() {
+    int cardinality = 0;
+    for (int i = 0; i < size; i++) {
+      cardinality += chunks[i].cardinality();
+    }
+    return cardinality;
+  }
+
+  /** new bitmap with ordinals present in both bitmaps */
+  OrdinalBitmap and(OrdinalBitmap other) {
+    OrdinalBitmap result = new OrdinalBitmap();
+    int i = 0;
+    int j = 0;
+    while (i < size && j < other.size) {
+      if (keys[i] < other.keys[j]) {
+        i++;
+      } else if (keys[i] > other.keys[j]) {
+        j++;
+      } else {
+        Chunk chunk = chunks[i].and(other.chunks[j]);
+        if (chunk.cardinality() > 0) {
+          result.insert(result.size, keys[i], chunk);
+        }
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /** new bitmap with ordinals present in any of the bitmaps */
+  OrdinalBitmap or(OrdinalBitmap other) {
+    OrdinalBitmap result = new OrdinalBitmap();
+    int i = 0;
+    int j = 0;
+    while (i < size || j < other.size) {
+      if (j == other.size || (i < size && keys[i] < other.keys[j])) {
+        result.insert(result.size, keys[i], chunks[i].copy());
+        i++;
+      } else if (i == size || keys[i] > other.keys[j]) {
+        result.insert(result.size, other.keys[j], other.chunks[j].copy());
+        j++;
+      } else {
+        result.insert(result.size, keys[i], chunks[i].or(other.chunks[j]));
+        i++;
+        j++;
+      }
+    }
+    return result;
+  }
+
+  /** ordinals of given sorted array which are present in this bitmap */
+  int[] retain(int[] ordinals) {
+    int[] result = new int[ordinals.length];
+    int count = 0;
+    for (int ordinal : ordinals) {
+      if (contains(ordinal)) {
+        result[count++] = ordinal;
+      }
+    }
+    return count == result.length ? result : Arrays.copyOf(result, count);
+  }
+
+  /** sorted ordinals */
+  int[] toArray() {
+    int[] result = new int[cardinality()];
+    int offset = 0;
+    for (int i = 0; i < size; i++) {
+      offset = chunks[i].copyTo(result, offset, keys[i] << 16);
+    }
+    return result;
+  }
+
+  private int position(char key) {
+    return Arrays.binarySearch(keys, 0, size, key);
+  }
+
+  private void insert(int position, char key, Chunk chunk) {
+    if (size == keys.length) {
+      keys = Arrays.copyOf(keys, size * 2);
+      chunks = Arrays.copyOf(chunks, size * 2);
+    }
+    System.arraycopy(keys, position, keys, position + 1, size - position);
+    System.arraycopy(chunks, position, chunks, position + 1, size - position);
+    keys[position] = key;
+    chunks[position] = chunk;
+    size++;
+  }
+
+  /** low 16 bits of ordinals sharing the same high bits, updates may return a converted chunk */
+  private abstract static sealed class Chunk permits ArrayChunk, BitSetChunk {
+    abstract Chunk add(char value);
+
+    abstract Chunk remove(char value);
+
+    abstract boolean contains(char value);
+
+    abstract int cardinality();
+
+    abstract Chunk and(Chunk other);
+
+    abstract Chunk or(Chunk other);
+
+    abstract Chunk copy();
+
+    /** writes high | value for every value starting at offset, returns next offset */
+    abstract int copyTo(int[] target, int offset, int high);
+  }
+
+  private static final class ArrayChunk extends Chunk {
+    private char[] values;
+    private int cardinality;
+
+    ArrayChunk() {
+      this(new char[4], 0);
+    }
+
+    ArrayChunk(char[] values, int cardinality) {
+      this.values = values;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    Chunk add(char value) {
+      int position = Arrays.binarySearch(values, 0, cardinality, value);
+      if (position >= 0) {
+        return this;
+      }
+      if (cardinality == ARRAY_LIMIT) {
+        return toBitSet().add(value);
+      }
+      int insertAt = -position - 1;
+      if (cardinality == values.length) {
+        values = Arrays.copyOf(values, Math.min(ARRAY_LIMIT, Math.max(4, cardinality * 2)));
+      }
+      System.arraycopy(values, insertAt, values, insertAt + 1, cardinality - insertAt);
+      values[insertAt] = value;
+      cardinality++;
+      return this;
+    }
+
+    @Override
+    Chunk remove(char value) {
+      int position = Arrays.binarySearch(values, 0, cardinality, value);
+      if (position >= 0) {
+        System.arraycopy(values, position + 1, values, position, cardinality - position - 1);
+        cardinality--;
+      }
+      return this;
+    }
+
+    @Override
+    boolean contains(char value) {
+      return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    Chunk and(Chunk other) {
+      char[] result = new char[cardinality];
+      int count = 0;
+      if (other instanceof ArrayChunk array) {
+        int i = 0;
+        int j = 0;
+        while (i < cardinality && j < array.cardinality) {
+          if (values[i] < array.values[j]) {
+            i++;
+          } else if (values[i] > array.values[j]) {
+            j++;
+          } else {
+            result[count++] = values[i];
+            i++;
+            j++;
+          }
+        }
+      } else {
+        for (int i = 0; i < cardinality; i++) {
+          if (other.contains(values[i])) {
+            result[count++] = values[i];
+          }
+        }
+      }
+      return new ArrayChunk(result, count);
+    }
+
+    @Override
+    Chunk or(Chunk other) {
+      if (other instanceof BitSetChunk) {
+        return other.or(this);
+      }
+      ArrayChunk array = (ArrayChunk) other;
+      if (cardinality + array.cardinality > ARRAY_LIMIT) {
+        return toBitSet().or(array);
+      }
+      char[] result = new char[cardinality + array.cardinality];
+      int count = 0;
+      int i = 0;
+      int j = 0;
+      while (i < cardinality || j < array.cardinality) {
+        if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+          result[count++] = values[i++];
+        } else if (i == cardinality || values[i] > array.values[j]) {
+          result[count++] = array.values[j++];
+        } else {
+          result[count++] = values[i];
+          i++;
+          j++;
+        }
+      }
+      return new ArrayChunk(result, count);
+    }
+
+    @Override
+    Chunk copy() {
+      return new ArrayChunk(Arrays.copyOf(values, cardinality), cardinality);
+    }
+
+    @Override
+    int copyTo(int[] target, int offset, int high) {
+      for (int i = 0; i < cardinality; i++) {
+        target[offset++] = high | values[i];
+      }
+      return offset;
+    }
+
+    private BitSetChunk toBitSet() {
+      BitSetChunk bitSet = new BitSetChunk();
+      for (int i = 0; i < cardinality; i++) {
+        bitSet.add(values[i]);
+      }
+      return bitSet;
+    }
+  }
+
+  private static final class BitSetChunk extends Chunk {
+    private final long[] words;
+    private int cardinality;
+
+    BitSetChunk() {
+      this(new long[1024], 0);
+    }
+
+    BitSetChunk(long[] words, int cardinality) {
+      this.words = words;
+      this.cardinality = cardinality;
+    }
+
+    @Override
+    Chunk add(char value) {
+      long mask = 1L << value;
+      if ((words[value >>> 6] & mask) == 0) {
+        words[value >>> 6] |= mask;
+        cardinality++;
+      }
+      return this;
+    }
+
+    @Override
+    Chunk remove(char value) {
+      long mask = 1L << value;
+      if ((words[value >>> 6] & mask) == 0) {
+        return this;
+      }
+      words[value >>> 6] &= ~mask;
+      cardinality--;
+      return cardinality > ARRAY_LIMIT ? this : toArrayChunk();
+    }
+
+    @Override
+    boolean contains(char value) {
+      return (words[value >>> 6] & (1L << value)) != 0;
+    }
+
+    @Override
+    int cardinality() {
+      return cardinality;
+    }
+
+    @Override
+    Chunk and(Chunk other) {
+      if (other instanceof ArrayChunk) {
+        return other.and(this);
+      }
+      BitSetChunk bitSet = (BitSetChunk) other;
+      long[] result = new long[words.length];
+      int count = 0;
+      for (int i = 0; i < words.length; i++) {
+        result[i] = words[i] & bitSet.words[i];
+        count += Long.bitCount(result[i]);
+      }
+      BitSetChunk chunk = new BitSetChunk(result, count);
+      return count > ARRAY_LIMIT ? chunk : chunk.toArrayChunk();
+    }
+
+    @Override
+    Chunk or(Chunk other) {
+      BitSetChunk result = (BitSetChunk) copy();
+      if (other instanceof ArrayChunk array) {
+        for (int i = 0; i < array.cardinality; i++) {
+          result.add(array.values[i]);
+        }
+        return result;
+      }
+      BitSetChunk bitSet = (BitSetChunk) other;
+      int count = 0;
+      for (int i = 0; i < words.length; i++) {
+        result.words[i] |= bitSet.words[i];
+        count += Long.bitCount(result.words[i]);
+      }
+      result.cardinality = count;
+      return result;
+    }
+
+    @Override
+    Chunk copy() {
+      return new BitSetChunk(words.clone(), cardinality);
+    }
+
+    @Override
+    int copyTo(int[] target, int offset, int high) {
+      for (int i = 0; i < words.length; i++) {
+        long word = words[i];
+        while (word != 0) {
+          target[offset++] = high | (i << 6) | Long.numberOfTrailingZeros(word);
+          word &= word - 1;
+        }
+      }
+      return offset;
+    }
+
+    private ArrayChunk toArrayChunk() {
+      char[] values = new char[cardinality];
+      int[] low = new int[cardinality];
+      copyTo(low, 0, 0);
+      for (int i = 0; i < cardinality; i++) {
+        values[i] = (char) low[i];
+      }
+      return new ArrayChunk(values, cardinality);
+    }
+  }
+}
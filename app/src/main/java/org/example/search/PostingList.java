@@ -0,0 +1,99 @@
+package org.example.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of product ordinals backed by a growable array. New products get increasing
+ * ordinals, so additions are appends, insertion in the middle shifts the tail.
+ */
+final class PostingList {
+  static final int[] EMPTY = new int[0];
+
+  private int[] ordinals = new int[4];
+  private int size;
+
+  /** returns false if ordinal is already present */
+  boolean add(int ordinal) {
+    int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+    if (position >= 0) {
+      return false;
+    }
+    int insertAt = -position - 1;
+    if (size == ordinals.length) {
+      ordinals = Arrays.copyOf(ordinals, size * 2);
+    }
+    System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+    ordinals[insertAt] = ordinal;
+    size++;
+    return true;
+  }
+
+  /** returns false if ordinal was not present */
+  boolean remove(int ordinal) {
+    int position = Arrays.binarySearch(ordinals, 0, size, ordinal);
+    if (position < 0) {
+      return false;
+    }
+    System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+    size--;
+    return true;
+  }
+
+  boolean contains(int ordinal) {
+    return Arrays.binarySearch(ordinals, 0, size, ordinal) >= 0;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  /** intersection of two sorted arrays without duplicates */
+  static int[] intersect(int[] first, int[] second) {
+    int[] result = new int[Math.min(first.length, second.length)];
+    int count = 0;
+    int i = 0;
+    int j = 0;
+    while (i < first.length && j < second.length) {
+      if (first[i] < second[j]) {
+        i++;
+      } else if (first[i] > second[j]) {
+        j++;
+      } else {
+        result[count++] = first[i];
+        i++;
+        j++;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  /** sorted union of ordinals of all given lists */
+  static int[] union(Iterable<PostingList> lists) {
+    int total = 0;
+    for (PostingList list : lists) {
+      total += list.size;
+    }
+    int[] result = new int[total];
+    int offset = 0;
+    for (PostingList list : lists) {
+      System.arraycopy(list.ordinals, 0, result, offset, list.size);
+      offset += list.size;
+    }
+    return sortDistinct(result);
+  }
+
+  /** sorts array in place and returns its distinct prefix */
+  static int[] sortDistinct(int[] ordinals) {
+    if (ordinals.length < 2) {
+      return ordinals;
+    }
+    Arrays.sort(ordinals);
+    int count = 1;
+    for (int i = 1; i < ordinals.length; i++) {
+      if (ordinals[i] != ordinals[count - 1]) {
+        ordinals[count++] = ordinals[i];
+      }
+    }
+    return count == ordinals.length ? ordinals : Arrays.copyOf(ordinals, count);
+  }
+}
@@ -0,0 +1,166 @@
+package org.example.search;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+/**
+ * Product ordinals sorted by price and ordinal, so products in a price range form one continuous
+ * slice.
+ */
+final class PriceIndex {
+  private BigDecimal[] prices = new BigDecimal[16];
+  private int[] ordinals = new int[16];
+  private int size;
+
+  void add(int ordinal, BigDecimal price) {
+    int insertAt = position(price, ordinal);
+    if (insertAt >= 0) {
+      return;
+    }
+    insertAt = -insertAt - 1;
+    if (size == ordinals.length) {
+      prices = Arrays.copyOf(prices, size * 2);
+      ordinals = Arrays.copyOf(ordinals, size * 2);
+    }
+    System.arraycopy(prices, insertAt, prices, insertAt + 1, size - insertAt);
+    System.arraycopy(ordinals, insertAt, ordinals, insertAt + 1, size - insertAt);
+    prices[insertAt] = price;
+    ordinals[insertAt] = ordinal;
+    size++;
+  }
+
+  /**
+   * Adds many entries at once, sorting them together is much cheaper than inserting one by one
+   * into the middle of the arrays.
+   */
+  void addAll(int[] newOrdinals, BigDecimal[] newPrices, int count) {
+    Integer[] order = new Integer[count];
+    for (int i = 0; i < count; i++) {
+      order[i] = i;
+    }
+    Arrays.sort(
+        order,
+        (first, second) -> {
+          int comparison = newPrices[first].compareTo(newPrices[second]);
+          return comparison != 0
+              ? comparison
+              : Integer.compare(newOrdinals[first], newOrdinals[second]);
+        });
+    BigDecimal[] mergedPrices = new BigDecimal[Math.max(16, size + count)];
+    int[] mergedOrdinals = new int[mergedPrices.length];
+    int merged = 0;
+    int existing = 0;
+    for (int added = 0; added < count || existing < size; ) {
+      boolean takeAdded;
+      if (added == count) {
+        takeAdded = false;
+      } else if (existing == size) {
+        takeAdded = true;
+      } else {
+        int comparison = newPrices[order[added]].compareTo(prices[existing]);
+        takeAdded =
+            comparison < 0 || (comparison == 0 && newOrdinals[order[added]] < ordinals[existing]);
+      }
+      if (takeAdded) {
+        int index = order[added++];
+        if (merged > 0
+            && mergedOrdinals[merged - 1] == newOrdinals[index]
+            && mergedPrices[merged - 1].compareTo(newPrices[index]) == 0) {
+          continue;
+        }
+        mergedPrices[merged] = newPrices[index];
+        mergedOrdinals[merged++] = newOrdinals[index];
+      } else {
+        mergedPrices[merged] = prices[existing];
+        mergedOrdinals[merged++] = ordinals[existing++];
+      }
+    }
+    prices = mergedPrices;
+    ordinals = mergedOrdinals;
+    size = merged;
+  }
+
+  void remove(int ordinal, BigDecimal price) {
+    int position = position(price, ordinal);
+    if (position < 0) {
+      return;
+    }
+    System.arraycopy(prices, position + 1, prices, position, size - position - 1);
+    System.arraycopy(ordinals, position + 1, ordinals, position, size - position - 1);
+    prices[--size] = null;
+  }
+
+  /** number of products with price in range, null bound is open */
+  int count(BigDecimal minPrice, BigDecimal maxPrice) {
+    return Math.max(0, upperBound(maxPrice) - lowerBound(minPrice));
+  }
+
+  /** sorted ordinals of products with price in range, null bound is open */
+  int[] ordinalsInRange(BigDecimal minPrice, BigDecimal maxPrice) {
+    int from = lowerBound(minPrice);
+    int to = upperBound(maxPrice);
+    if (from >= to) {
+      return PostingList.EMPTY;
+    }
+    int[] result = Arrays.copyOfRange(ordinals, from, to);
+    Arrays.sort(result);
+    return result;
+  }
+
+  /** index of first entry with price not less than minPrice */
+  private int lowerBound(BigDecimal minPrice) {
+    if (minPrice == null) {
+      return 0;
+    }
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (prices[middle].compareTo(minPrice) < 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** index after last entry with price not greater than maxPrice */
+  private int upperBound(BigDecimal maxPrice) {
+    if (maxPrice == null) {
+      return size;
+    }
+    int low = 0;
+    int high = size;
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (prices[middle].compareTo(maxPrice) <= 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** binary search by price then ordinal, same result as {@link Arrays#binarySearch(int[], int)} */
+  private int position(BigDecimal price, int ordinal) {
+    int low = 0;
+    int high = size - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int comparison = prices[middle].compareTo(price);
+      if (comparison == 0) {
+        comparison = Integer.compare(ordinals[middle], ordinal);
+      }
+      if (comparison < 0) {
+        low = middle + 1;
+      } else if (comparison > 0) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -(low + 1);
+  }
+}
@@ -0,0 +1,492 @@
+package org.example.search;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import org.example.dto.ProductFacets;
+import org.example.dto.SearchCriteria;
+import org.example.model.Product;
+
+/**
+ * In-memory search index of products. Every product gets a dense ordinal, the index keeps posting
+ * lists of ordinals per word of name and description, bitmaps of ordinals per category and per
+ * brand, and ordinals sorted by price.
+ *
+ * <p>Search starts from the most selective filter and narrows it by the others, category and brand
+ * bitmaps are combined word by word. Price and name are checked on the few candidates left, so
+ * the cost depends on the size of the most selective filter rather than on the number of
+ * products. Matching follows {@link SearchCriteria}: name contains text, category and brand are
+ * equal ignoring case.
+ *
+ * <p>Thread safe, searches run concurrently, updates are exclusive.
+ */
+public class ProductIndex {
+  /** candidates count below which checking name directly is cheaper than scanning name words */
+  private static final int VERIFY_LIMIT = 1024;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+  private final Map<Long, Integer> ordinals = new HashMap<>();
+  private final Map<String, PostingList> nameWords = new HashMap<>();
+  private final Map<String, PostingList> descriptionWords = new HashMap<>();
+  private final Map<String, OrdinalBitmap> categories = new HashMap<>();
+  private final Map<String, OrdinalBitmap> brands = new HashMap<>();
+  private final PriceIndex prices = new PriceIndex();
+
+  /** ordinals of removed products are not reused, their slots stay null */
+  private Product[] products = new Product[16];
+
+  private int nextOrdinal;
+
+  /** Adds product or replaces indexed product with the same id. */
+  public void put(Product product) {
+    if (product == null || product.getId() == null) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      int ordinal = ordinal(product);
+      index(product, ordinal);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Adds products in bulk, used to build the index from storage. Products get ordinals in id order
+   * so posting lists and bitmaps only grow at the end.
+   */
+  public void putAll(Collection<Product> newProducts) {
+    List<Product> byId =
+        newProducts.stream()
+            .filter(product -> product != null && product.getId() != null)
+            .sorted(Comparator.comparing(Product::getId))
+            .toList();
+    lock.writeLock().lock();
+    try {
+      int[] newOrdinals = new int[byId.size()];
+      BigDecimal[] newPrices = new BigDecimal[byId.size()];
+      int count = 0;
+      for (Product product : byId) {
+        int ordinal = ordinal(product);
+        indexValues(product, ordinal);
+        if (product.getPrice() != null) {
+          newOrdinals[count] = ordinal;
+          newPrices[count++] = product.getPrice();
+        }
+      }
+      prices.addAll(newOrdinals, newPrices, count);
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public void remove(Long id) {
+    if (id == null) {
+      return;
+    }
+    lock.writeLock().lock();
+    try {
+      Integer ordinal = ordinals.remove(id);
+      if (ordinal != null) {
+        unindex(products[ordinal], ordinal);
+        products[ordinal] = null;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return ordinals.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** Finds products matching all criteria, in criteria order and up to its limit. */
+  public List<Product> search(SearchCriteria criteria) {
+    lock.readLock().lock();
+    try {
+      int[] candidates = candidates(criteria);
+      Comparator<Product> order = criteria.comparator();
+      Integer limit = criteria.getLimit();
+      if (limit != null) {
+        return limit < 1 ? List.of() : top(candidates, criteria, order, limit);
+      }
+      List<Product> result = new ArrayList<>();
+      for (int ordinal : candidates) {
+        Product product = products[ordinal];
+        if (matches(criteria, product)) {
+          result.add(product);
+        }
+      }
+      // ordinals follow id order unless older ids were added later, then this is a single pass
+      result.sort(order);
+      return result;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * First limit matching candidates in given order. Heap keeps the last of them on top, so the
+   * matches are never collected and memory depends on limit only.
+   */
+  private List<Product> top(
+      int[] candidates, SearchCriteria criteria, Comparator<Product> order, int limit) {
+    PriorityQueue<Product> heap = new PriorityQueue<>(order.reversed());
+    for (int ordinal : candidates) {
+      Product product = products[ordinal];
+      if (!matches(criteria, product)) {
+        continue;
+      }
+      if (heap.size() < limit) {
+        heap.add(product);
+      } else if (order.compare(product, heap.peek()) < 0) {
+        heap.poll();
+        heap.add(product);
+      }
+    }
+    List<Product> result = new ArrayList<>(heap);
+    result.sort(order);
+    return result;
+  }
+
+  /**
+   * Counts products matching criteria per category, brand and price bucket, in one pass over the
+   * matching products. See {@link ProductFacets#of} for price buckets.
+   */
+  public ProductFacets facets(SearchCriteria criteria, List<BigDecimal> priceBounds) {
+    Map<String, Long> categoryCounts = new HashMap<>();
+    Map<String, Long> brandCounts = new HashMap<>();
+    long[] priceCounts = new long[priceBounds.size() + 1];
+    lock.readLock().lock();
+    try {
+      for (int ordinal : candidates(criteria)) {
+        Product product = products[ordinal];
+        if (!matches(criteria, product)) {
+          continue;
+        }
+        if (product.getCategory() != null) {
+          categoryCounts.merge(product.getCategory(), 1L, Long::sum);
+        }
+        if (product.getBrand() != null) {
+          brandCounts.merge(product.getBrand(), 1L, Long::sum);
+        }
+        if (product.getPrice() != null) {
+          priceCounts[priceBucket(priceBounds, product.getPrice())]++;
+        }
+      }
+    } finally {
+      lock.readLock().unlock();
+    }
+    return ProductFacets.of(categoryCounts, brandCounts, priceBounds, priceCounts);
+  }
+
+  /**
+   * Finds up to limit products containing every word of query in name or description, words
+   * prefixed with '-' exclude products containing them. Words are matched exactly, ignoring case.
+   * Products with more words found in name come first.
+   */
+  public List<Product> fullTextSearch(String query, int limit) {
+    Set<String> required = new LinkedHashSet<>();
+    Set<String> excluded = new LinkedHashSet<>();
+    for (String part : query.trim().split("\\s+")) {
+      if (part.startsWith("-")) {
+        excluded.addAll(words(part));
+      } else {
+        required.addAll(words(part));
+      }
+    }
+    if (required.isEmpty()) {
+      return List.of();
+    }
+    lock.readLock().lock();
+    try {
+      int[] candidates = null;
+      for (String word : required) {
+        int[] containing = containingWord(word);
+        candidates =
+            candidates == null ? containing : PostingList.intersect(candidates, containing);
+        if (candidates.length == 0) {
+          return List.of();
+        }
+      }
+      List<ScoredProduct> scored = new ArrayList<>(candidates.length);
+      for (int ordinal : candidates) {
+        if (!containsAny(excluded, ordinal)) {
+          scored.add(new ScoredProduct(products[ordinal], score(required, ordinal)));
+        }
+      }
+      return scored.stream()
+          .sorted(
+              Comparator.comparingInt(ScoredProduct::score)
+                  .reversed()
+                  .thenComparing(scoredProduct -> scoredProduct.product().getId()))
+          .limit(limit)
+          .map(ScoredProduct::product)
+          .toList();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /** ordinal of product, indexed values of previous version of the product are removed */
+  private int ordinal(Product product) {
+    Integer ordinal = ordinals.get(product.getId());
+    if (ordinal != null) {
+      unindex(products[ordinal], ordinal);
+    } else {
+      ordinal = nextOrdinal++;
+      ordinals.put(product.getId(), ordinal);
+      if (ordinal == products.length) {
+        products = Arrays.copyOf(products, ordinal * 2);
+      }
+    }
+    products[ordinal] = product;
+    return ordinal;
+  }
+
+  private void index(Product product, int ordinal) {
+    indexValues(product, ordinal);
+    if (product.getPrice() != null) {
+      prices.add(ordinal, product.getPrice());
+    }
+  }
+
+  /** all but price */
+  private void indexValues(Product product, int ordinal) {
+    for (String word : words(product.getName())) {
+      postings(nameWords, word).add(ordinal);
+    }
+    for (String word : words(product.getDescription())) {
+      postings(descriptionWords, word).add(ordinal);
+    }
+    if (product.getCategory() != null) {
+      bitmap(categories, product.getCategory()).add(ordinal);
+    }
+    if (product.getBrand() != null) {
+      bitmap(brands, product.getBrand()).add(ordinal);
+    }
+  }
+
+  private void unindex(Product product, int ordinal) {
+    for (String word : words(product.getName())) {
+      removePosting(nameWords, word, ordinal);
+    }
+    for (String word : words(product.getDescription())) {
+      removePosting(descriptionWords, word, ordinal);
+    }
+    if (product.getCategory() != null) {
+      removeFromBitmap(categories, product.getCategory(), ordinal);
+    }
+    if (product.getBrand() != null) {
+      removeFromBitmap(brands, product.getBrand(), ordinal);
+    }
+    if (product.getPrice() != null) {
+      prices.remove(ordinal, product.getPrice());
+    }
+  }
+
+  private static PostingList postings(Map<String, PostingList> index, String key) {
+    return index.computeIfAbsent(key, k -> new PostingList());
+  }
+
+  private static void removePosting(Map<String, PostingList> index, String key, int ordinal) {
+    PostingList list = index.get(key);
+    if (list != null && list.remove(ordinal) && list.isEmpty()) {
+      index.remove(key);
+    }
+  }
+
+  /** same key for values equal ignoring case, as compared by {@link SearchCriteria} */
+  private static OrdinalBitmap bitmap(Map<String, OrdinalBitmap> index, String value) {
+    return index.computeIfAbsent(value.toLowerCase(Locale.ROOT), k -> new OrdinalBitmap());
+  }
+
+  private static void removeFromBitmap(
+      Map<String, OrdinalBitmap> index, String value, int ordinal) {
+    String key = value.toLowerCase(Locale.ROOT);
+    OrdinalBitmap bitmap = index.get(key);
+    if (bitmap != null) {
+      bitmap.remove(ordinal);
+      if (bitmap.isEmpty()) {
+        index.remove(key);
+      }
+    }
+  }
+
+  /**
+   * Sorted ordinals which may match criteria. Category and brand bitmaps are intersected first,
+   * then the smallest of that, id and price range is taken as the base. Name is only looked up in
+   * the index when there are many candidates, otherwise it is cheaper to check it on each.
+   */
+  private int[] candidates(SearchCriteria criteria) {
+    OrdinalBitmap filter = null;
+    if (isSet(criteria.getCategory())) {
+      filter = categories.getOrDefault(normalize(criteria.getCategory()), new OrdinalBitmap());
+    }
+    if (isSet(criteria.getBrand())) {
+      OrdinalBitmap brand =
+          brands.getOrDefault(normalize(criteria.getBrand()), new OrdinalBitmap());
+      filter = filter == null ? brand : filter.and(brand);
+    }
+    int[] base = null;
+    int smallest = filter == null ? ordinals.size() : filter.cardinality();
+    if (criteria.getId() != null) {
+      Integer ordinal = ordinals.get(criteria.getId());
+      base = ordinal == null ? PostingList.EMPTY : new int[] {ordinal};
+      smallest = base.length;
+    }
+
+    boolean hasPriceRange = criteria.getMinPrice() != null || criteria.getMaxPrice() != null;
+    if (hasPriceRange) {
+      int inRange = prices.count(criteria.getMinPrice(), criteria.getMaxPrice());
+      if (inRange < smallest) {
+        base = prices.ordinalsInRange(criteria.getMinPrice(), criteria.getMaxPrice());
+        smallest = inRange;
+      }
+    }
+    if (isSet(criteria.getName()) && smallest > VERIFY_LIMIT) {
+      int[] named = nameCandidates(criteria.getName());
+      if (named != null) {
+        base = base == null ? named : PostingList.intersect(base, named);
+      }
+    }
+    if (base == null) {
+      return filter == null ? allOrdinals() : filter.toArray();
+    }
+    return filter == null ? base : filter.retain(base);
+  }
+
+  /**
+   * Ordinals of products whose name has a word containing the longest word of given text. Every
+   * word of the text is a part of some word of matching name, so no match is lost. Returns null if
+   * text has no letters or digits to look for.
+   */
+  private int[] nameCandidates(String name) {
+    String longest =
+        words(name).stream().max(Comparator.comparingInt(String::length)).orElse(null);
+    if (longest == null) {
+      return null;
+    }
+    List<PostingList> matching = new ArrayList<>();
+    for (Map.Entry<String, PostingList> entry : nameWords.entrySet()) {
+      if (entry.getKey().contains(longest)) {
+        matching.add(entry.getValue());
+      }
+    }
+    return PostingList.union(matching);
+  }
+
+  private int[] containingWord(String word) {
+    List<PostingList> lists = new ArrayList<>(2);
+    PostingList inName = nameWords.get(word);
+    if (inName != null) {
+      lists.add(inName);
+    }
+    PostingList inDescription = descriptionWords.get(word);
+    if (inDescription != null) {
+      lists.add(inDescription);
+    }
+    return PostingList.union(lists);
+  }
+
+  private boolean containsAny(Set<String> words, int ordinal) {
+    for (String word : words) {
+      PostingList inName = nameWords.get(word);
+      PostingList inDescription = descriptionWords.get(word);
+      if ((inName != null && inName.contains(ordinal))
+          || (inDescription != null && inDescription.contains(ordinal))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** word found in name weighs more than in description */
+  private int score(Set<String> words, int ordinal) {
+    int score = 0;
+    for (String word : words) {
+      PostingList inName = nameWords.get(word);
+      score += inName != null && inName.contains(ordinal) ? 2 : 1;
+    }
+    return score;
+  }
+
+  private int[] allOrdinals() {
+    int[] result = new int[ordinals.size()];
+    int count = 0;
+    for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+      if (products[ordinal] != null) {
+        result[count++] = ordinal;
+      }
+    }
+    return result;
+  }
+
+  /** number of bounds not greater than price */
+  private static int priceBucket(List<BigDecimal> priceBounds, BigDecimal price) {
+    int low = 0;
+    int high = priceBounds.size();
+    while (low < high) {
+      int middle = (low + high) >>> 1;
+      if (priceBounds.get(middle).compareTo(price) <= 0) {
+        low = middle + 1;
+      } else {
+        high = middle;
+      }
+    }
+    return low;
+  }
+
+  /** category and brand are already matched by bitmaps */
+  private static boolean matches(SearchCriteria criteria, Product product) {
+    boolean hasPriceRange = criteria.getMinPrice() != null || criteria.getMaxPrice() != null;
+    return product != null
+        && criteria.matchesName(product)
+        && (!hasPriceRange || criteria.matchesPriceRange(product));
+  }
+
+  private static boolean isSet(String filter) {
+    return filter != null && !filter.isBlank();
+  }
+
+  private static String normalize(String value) {
+    return value.trim().toLowerCase(Locale.ROOT);
+  }
+
+  /** distinct lower case runs of letters and digits */
+  static Set<String> words(String text) {
+    Set<String> words = new LinkedHashSet<>();
+    if (text == null) {
+      return words;
+    }
+    String lowerCase = text.toLowerCase(Locale.ROOT);
+    int start = -1;
+    for (int i = 0; i <= lowerCase.length(); i++) {
+      boolean wordChar = i < lowerCase.length() && Character.isLetterOrDigit(lowerCase.charAt(i));
+      if (wordChar && start < 0) {
+        start = i;
+      } else if (!wordChar && start >= 0) {
+        words.add(lowerCase.substring(start, i));
+        start = -1;
+      }
+    }
+    return words;
+  }
+
+  private record ScoredProduct(Product product, int score) {}
+}
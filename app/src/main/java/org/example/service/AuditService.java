@@ -1,27 +1,41 @@
 package org.example.service;
 
-import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+import org.example.dto.AuditCursor;
+import org.example.dto.AuditLogPage;
+import org.example.dto.AuditQuery;
 import org.example.model.AuditAction;
 import org.example.model.AuditLog;
 import org.example.model.User;
 
 /** Service for auditing user activities. */
 public interface AuditService {
+  int MAX_PAGE_SIZE = 1000;
 
   /**
-   * Stores an audit log of a user action.
+   * Stores an audit log of a user action. The user is resolved on the calling thread, the log
+   * may be saved after the method returns.
    *
    * @param userSupplier who performed the action
    * @param action the action performed
-   * @param details arbitrary information about the action
+   * @param details arbitrary information about the action, cut to 255 characters
    */
   void logAction(Supplier<User> userSupplier, AuditAction action, String details);
 
-  /** Returns all audit logs. */
-  List<AuditLog> findAll();
+  /**
+   * Retrieve audit logs matching query newest first, page by page. First page if after is null,
+   * next page is requested with cursor of the previous one. Limit must be between 1 and {@link
+   * #MAX_PAGE_SIZE}, from, if set with to, must be before it
+   */
+  AuditLogPage findPage(AuditQuery query, AuditCursor after, int limit);
 
-  /** Finds audit logs by username. */
-  List<AuditLog> findByUsername(String username);
+  /**
+   * Passes all audit logs matching query, newest first, to action as they are read, without
+   * collecting them. From, if set with to, must be before it
+   *
+   * @return number of audit logs
+   */
+  long stream(AuditQuery query, Consumer<AuditLog> action);
 }
@@ -1,6 +1,7 @@
 package org.example.service;
 
 import org.example.dto.LoginResult;
+import org.example.dto.SessionToken;
 import org.example.model.User;
 
 /** Provides authentication and authorization methods */
@@ -11,6 +12,13 @@ public interface AuthService {
    */
   LoginResult login(String username, String password);
 
+  /**
+   * Issue session token for current authenticated user, token can be used instead of credentials
+   * until it expires or logout() is called with it. Will throw AccessDeniedException if user is
+   * not authenticated
+   */
+  SessionToken issueToken();
+
   /**
    * Validation method to ensure current user has admin role Will throw AccessDeniedException if not
    * an admin
@@ -24,7 +32,8 @@ public interface AuthService {
   boolean isAuthenticated();
 
   /**
-   * remove authentication information for current user isAuthenticated will return false afterward
+   * remove authentication information for current user isAuthenticated will return false afterward,
+   * if user was authenticated with session token, the token is revoked
    */
   void logout();
 
@@ -0,0 +1,10 @@
+package org.example.service;
+
+import java.util.Map;
+
+/** Provides runtime statistics of application components. */
+public interface MetricsService {
+
+  /** Snapshot of statistics of all components, grouped by component name */
+  Map<String, Object> getMetrics();
+}
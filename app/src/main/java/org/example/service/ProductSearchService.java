@@ -1,8 +1,11 @@
 package org.example.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.Optional;
 
+import org.example.dto.ProductFacets;
+import org.example.dto.ProductPage;
 import org.example.dto.SearchCriteria;
 import org.example.model.Product;
 
@@ -17,6 +20,30 @@ public interface ProductSearchService {
   /** Find all products in application storage. Result can contain large number of items. */
   List<Product> getAllProducts();
 
+  /** Find up to limit products matching query by name or description, most relevant first */
+  List<Product> fullTextSearch(String query, int limit);
+
+  /** Find up to limit distinct product names starting with prefix ignoring case, alphabetically */
+  List<String> suggestNames(String prefix, int limit);
+
+  /** Count products matching criteria per category, brand and price bucket */
+  ProductFacets getFacets(SearchCriteria criteria);
+
+  /** Pass all products ordered by id to action as they are read, returns number of products */
+  long streamAll(Consumer<Product> action);
+
+  /** Find up to limit products following product with given id, ordered by id */
+  ProductPage getPage(Long afterId, int limit);
+
+  /**
+   * Keep search data in sync with storage, called after product is created or updated. Previous
+   * is the product before update, null for a new product
+   */
+  void productSaved(Product previous, Product saved);
+
+  /** Keep search data in sync with storage, called after product is deleted */
+  void productDeleted(Product deleted);
+
   /** For given id find product if exist */
   Optional<Product> findById(Long id);
 }
@@ -1,23 +1,62 @@
 package org.example.service;
 
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.Optional;
 
+import org.example.dto.ProductFacets;
 import org.example.dto.ProductForm;
+import org.example.dto.ProductPage;
 import org.example.dto.SearchCriteria;
 import org.example.model.Product;
 
 /** Main interface for product related operations */
 public interface ProductService {
-  /** For given criteria search for products in application storage */
+  int MAX_PAGE_SIZE = 1000;
+
+  /**
+   * For given criteria search for products in application storage, in criteria order. Limit, if
+   * set, must be between 1 and {@link #MAX_PAGE_SIZE}
+   */
   List<Product> search(SearchCriteria criteria);
 
+  /**
+   * Search products by words of their name and description, most relevant first. Query must not be
+   * blank, limit must be between 1 and {@link #MAX_PAGE_SIZE}
+   */
+  List<Product> fullTextSearch(String query, int limit);
+
+  /**
+   * Suggest up to limit distinct product names starting with prefix, for completion while typing.
+   * Prefix must not be blank, limit must be between 1 and {@link #MAX_PAGE_SIZE}. Not audited, it
+   * is called on every keystroke
+   */
+  List<String> suggestNames(String prefix, int limit);
+
+  /**
+   * Count products matching criteria per category, brand and price bucket, empty criteria counts
+   * all products. Counts are cached per criteria until a product is changed
+   */
+  ProductFacets getFacets(SearchCriteria criteria);
+
   /**
    * Retrieve all products from application storage. Caution: no pagination can cause performance
-   * issues with large datasets
+   * issues with large datasets, see {@link #streamAll} and {@link #getPage}
    */
   List<Product> getAllProducts();
 
+  /**
+   * Pass all products ordered by id to action while they are read from storage, products are not
+   * collected in memory. Returns number of products
+   */
+  long streamAll(Consumer<Product> action);
+
+  /**
+   * Retrieve products ordered by id page by page, first page if afterId is null, next page is
+   * requested with cursor of the previous one. Limit must be between 1 and {@link #MAX_PAGE_SIZE}
+   */
+  ProductPage getPage(Long afterId, int limit);
+
   /** add product to application storage */
   Product addProduct(Product product);
 
@@ -0,0 +1,17 @@
+package org.example.service;
+
+import java.util.Optional;
+import org.example.dto.SessionToken;
+import org.example.model.User;
+
+/** Issues and validates signed session tokens, validation does not access database */
+public interface TokenService {
+  /** create token for a user who has been authenticated by other means */
+  SessionToken issue(User user);
+
+  /** user stored in token, empty if token is malformed, has wrong signature, expired or revoked */
+  Optional<User> authenticate(String token);
+
+  /** token will not be accepted anymore, does nothing for invalid token */
+  void revoke(String token);
+}
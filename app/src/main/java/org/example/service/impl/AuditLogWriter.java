@@ -0,0 +1,407 @@
+package org.example.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import lombok.extern.log4j.Log4j2;
+import org.example.exception.InitializationException;
+import org.example.model.AuditLog;
+import org.example.repository.AuditRepository;
+import org.example.repository.impl.spool.AuditSpool;
+import org.example.util.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes audit logs in the background, so audited requests do not wait for a database write.
+ * Records are queued in memory and saved by a single writer thread in batches, a batch is saved
+ * when it is full or when its first record waited for the flush interval.
+ *
+ * <p>When the queue is full, the overflow policy decides: block - caller waits for free space,
+ * drop - record is dropped and counted, spill - record is appended to the local {@link
+ * AuditSpool}. A batch which fails to save because the database is unavailable is appended to
+ * the spool too, and for the retry interval following batches go to the spool without trying the
+ * database. Between batches the writer replays spooled records to the database, oldest first.
+ * Records are counted as failed only when they can not be appended to the spool either.
+ *
+ * <p>A batch the database rejects, for a record it can never take, is saved record by record.
+ * Rejected records are logged and counted, trying them again would only fail again and keep the
+ * records after them from the database.
+ *
+ * <p>Every record gets an event id when it is written. Spooled records are replayed skipping the
+ * event ids saved before, so a batch saved by the database whose outcome was lost, or replayed
+ * again after a crash before its spool commit, is not duplicated. A spooled batch which failed the
+ * maximum number of replay attempts, each while the database saved other records, is replayed
+ * record by record and records failing again are moved to the dead letter file of the spool.
+ *
+ * <p>On shutdown queued records are saved before the writer stops, records written after that
+ * are saved on the caller thread. Spooled records not replayed yet are replayed after restart. A
+ * caller interrupted while blocked on a full queue spools its record.
+ */
+@Log4j2
+@Component
+public class AuditLogWriter implements MetricsSource {
+
+  /**
+   * SQLState classes of failures the same records may not hit on retry: connection exception,
+   * transaction rollback, insufficient resources, operator intervention and system error
+   */
+  private static final Set<String> UNAVAILABLE_SQL_STATE_CLASSES =
+      Set.of("08", "40", "53", "57", "58");
+
+  enum OverflowPolicy {
+    BLOCK,
+    DROP,
+    SPILL
+  }
+
+  private final AuditRepository auditRepository;
+  private final AuditSpool auditSpool;
+  private final BlockingQueue<AuditLog> queue;
+  private final int batchSize;
+  private final long flushIntervalNanos;
+  private final long shutdownTimeoutMs;
+  private final long retryIntervalNanos;
+  private final OverflowPolicy overflowPolicy;
+  private final Thread writerThread;
+  private final LongAdder written = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+  private final LongAdder batches = new LongAdder();
+  private final LongAdder spooled = new LongAdder();
+  private final LongAdder replayed = new LongAdder();
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder deadLettered = new LongAdder();
+  private final int maxReplayAttempts;
+  private volatile boolean closed;
+
+  /** writers queue records under the read lock, so none is queued after shutdown drained them */
+  private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+
+  /** database is not tried before this time after a failed save, System.nanoTime() */
+  private volatile long retryAt = System.nanoTime();
+
+  /** whether a save succeeded since the last failed replay, so the database was available */
+  private volatile boolean savedSinceReplayFailed = true;
+
+  /** failed replays of the oldest spooled batch, used by the writer thread only */
+  private int replayFailures;
+
+  /**
+   * @param queueSize records allowed to wait for the writer
+   * @param batchSize maximum records saved at once
+   * @param flushIntervalMs how long the first record of a batch waits for more records
+   * @param overflow block, drop or spill, what happens to records which do not fit into the
+   *     queue
+   * @param shutdownTimeoutMs how long shutdown waits for queued records to be saved
+   * @param retryIntervalMs how long records go to the spool after database failed to save them
+   * @param maxReplayAttempts failed replays of a spooled batch, while other records are saved,
+   *     after which its records failing again are moved to the dead letter file
+   */
+  public AuditLogWriter(
+      AuditRepository auditRepository,
+      AuditSpool auditSpool,
+      @Value("${audit.writer.queue_size}") int queueSize,
+      @Value("${audit.writer.batch_size}") int batchSize,
+      @Value("${audit.writer.flush_interval_ms}") long flushIntervalMs,
+      @Value("${audit.writer.overflow}") String overflow,
+      @Value("${audit.writer.shutdown_timeout_ms}") long shutdownTimeoutMs,
+      @Value("${audit.writer.retry_interval_ms}") long retryIntervalMs,
+      @Value("${audit.writer.max_replay_attempts}") int maxReplayAttempts) {
+    if (queueSize < 1 || batchSize < 1 || flushIntervalMs < 1 || maxReplayAttempts < 1) {
+      throw new InitializationException(
+          "Audit writer queue size, batch size, flush interval and replay attempts must be"
+              + " positive");
+    }
+    this.auditRepository = auditRepository;
+    this.auditSpool = auditSpool;
+    this.queue = new ArrayBlockingQueue<>(queueSize);
+    this.batchSize = batchSize;
+    this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+    this.shutdownTimeoutMs = shutdownTimeoutMs;
+    this.retryIntervalNanos = TimeUnit.MILLISECONDS.toNanos(retryIntervalMs);
+    this.overflowPolicy = overflowPolicy(overflow);
+    this.maxReplayAttempts = maxReplayAttempts;
+    this.writerThread = new Thread(this::writeQueued, "audit-writer");
+    writerThread.setDaemon(true);
+    writerThread.start();
+  }
+
+  /** Queues audit log to be saved, returns without waiting for the database. */
+  public void write(AuditLog auditLog) {
+    if (auditLog.getEventId() == null) {
+      auditLog.setEventId(UUID.randomUUID());
+    }
+    closeLock.readLock().lock();
+    try {
+      if (!closed) {
+        enqueue(auditLog);
+        return;
+      }
+    } finally {
+      closeLock.readLock().unlock();
+    }
+    saveBatch(List.of(auditLog));
+  }
+
+  private void enqueue(AuditLog auditLog) {
+    if (queue.offer(auditLog)) {
+      return;
+    }
+    if (overflowPolicy == OverflowPolicy.DROP) {
+      dropped.increment();
+      return;
+    }
+    if (overflowPolicy == OverflowPolicy.SPILL) {
+      spool(List.of(auditLog));
+      return;
+    }
+    try {
+      queue.put(auditLog);
+    } catch (InterruptedException e) {
+      // spooled first, starting a spool segment fails on a thread marked interrupted
+      spool(List.of(auditLog));
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Stops accepting records into the queue and waits until queued ones are saved. The writer is
+   * not interrupted, a batch being saved must not lose its pooled connection.
+   */
+  @PreDestroy
+  void destroy() throws InterruptedException {
+    closeLock.writeLock().lock();
+    try {
+      closed = true;
+    } finally {
+      closeLock.writeLock().unlock();
+    }
+    writerThread.join(shutdownTimeoutMs);
+    if (writerThread.isAlive()) {
+      log.warn(
+          "Audit writer did not finish in {} ms, {} logs queued", shutdownTimeoutMs, queue.size());
+    }
+    // records queued while the writer was finishing
+    List<AuditLog> remaining = new ArrayList<>();
+    queue.drainTo(remaining);
+    if (!remaining.isEmpty()) {
+      saveBatch(remaining);
+    }
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "audit_writer";
+  }
+
+  @Override
+  public AuditWriterMetrics getMetrics() {
+    return new AuditWriterMetrics(
+        queue.size(),
+        queue.size() + queue.remainingCapacity(),
+        written.sum(),
+        batches.sum(),
+        dropped.sum(),
+        failed.sum(),
+        rejected.sum(),
+        deadLettered.sum(),
+        spooled.sum(),
+        replayed.sum(),
+        auditSpool.pending());
+  }
+
+  private void writeQueued() {
+    List<AuditLog> batch = new ArrayList<>(batchSize);
+    try {
+      while (!closed || !queue.isEmpty()) {
+        AuditLog first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+        if (first != null) {
+          batch.add(first);
+          long flushAt = System.nanoTime() + flushIntervalNanos;
+          while (batch.size() < batchSize) {
+            if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+              continue;
+            }
+            AuditLog next = queue.poll(flushAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+              break;
+            }
+            batch.add(next);
+          }
+          saveBatch(batch);
+          batch.clear();
+        }
+        replaySpooled();
+      }
+    } catch (InterruptedException e) {
+      if (!batch.isEmpty()) {
+        saveBatch(batch);
+      }
+    }
+  }
+
+  private void saveBatch(List<AuditLog> batch) {
+    if (System.nanoTime() - retryAt < 0) {
+      spool(batch);
+      return;
+    }
+    try {
+      auditRepository.saveAll(batch);
+      written.add(batch.size());
+      batches.increment();
+      savedSinceReplayFailed = true;
+    } catch (RuntimeException e) {
+      if (isUnavailable(e)) {
+        retryAt = System.nanoTime() + retryIntervalNanos;
+        log.warn("Failed to save {} audit logs, spooling them: {}", batch.size(), e.getMessage());
+        spool(batch);
+        return;
+      }
+      log.warn(
+          "Database rejected {} audit logs, saving them one by one: {}",
+          batch.size(),
+          e.getMessage());
+      int saved = saveEach(batch, false);
+      spool(batch.subList(saved, batch.size()));
+    }
+  }
+
+  /** Replays one batch of spooled records, if there are any and database is not failing. */
+  private void replaySpooled() {
+    if (System.nanoTime() - retryAt < 0 || auditSpool.pending() == 0) {
+      return;
+    }
+    List<AuditLog> spooledBatch = auditSpool.peek(batchSize);
+    if (replayFailures >= maxReplayAttempts) {
+      log.warn(
+          "Spooled audit logs failed {} replays, replaying them one by one", replayFailures);
+      deadLetterFailing(spooledBatch);
+    } else {
+      try {
+        auditRepository.saveAllIfAbsent(spooledBatch);
+        replayed.add(spooledBatch.size());
+      } catch (RuntimeException e) {
+        if (isUnavailable(e)) {
+          retryAt = System.nanoTime() + retryIntervalNanos;
+          // failures while nothing is saved are of the database, not of the batch
+          if (savedSinceReplayFailed) {
+            savedSinceReplayFailed = false;
+            replayFailures++;
+          }
+          log.warn("Failed to replay spooled audit logs: {}", e.getMessage());
+          return;
+        }
+        log.warn(
+            "Database rejected {} spooled audit logs, replaying them one by one: {}",
+            spooledBatch.size(),
+            e.getMessage());
+        if (saveEach(spooledBatch, true) < spooledBatch.size()) {
+          return;
+        }
+      }
+    }
+    replayFailures = 0;
+    auditSpool.commit();
+  }
+
+  /** Replays records one at a time, records failing for any reason go to the dead letter file. */
+  private void deadLetterFailing(List<AuditLog> records) {
+    for (AuditLog auditLog : records) {
+      try {
+        auditRepository.saveAllIfAbsent(List.of(auditLog));
+        replayed.increment();
+      } catch (RuntimeException e) {
+        log.error("Failed to replay audit log {}, dead lettering it: {}", auditLog, e.getMessage());
+        deadLetter(auditLog);
+      }
+    }
+  }
+
+  private void deadLetter(AuditLog auditLog) {
+    try {
+      auditSpool.deadLetter(auditLog);
+      deadLettered.increment();
+    } catch (RuntimeException e) {
+      failed.increment();
+      log.error("Failed to dead letter audit log {}: {}", auditLog, e.getMessage());
+    }
+  }
+
+  /**
+   * Saves records one at a time, records the database rejects are counted and skipped.
+   *
+   * @param replay whether records are spooled ones, saved unless saved before
+   * @return number of records done, less than all of them if the database became unavailable
+   */
+  private int saveEach(List<AuditLog> records, boolean replay) {
+    for (int i = 0; i < records.size(); i++) {
+      AuditLog auditLog = records.get(i);
+      try {
+        if (replay) {
+          auditRepository.saveAllIfAbsent(List.of(auditLog));
+          replayed.increment();
+        } else {
+          auditRepository.saveAll(List.of(auditLog));
+          written.increment();
+        }
+        savedSinceReplayFailed = true;
+      } catch (RuntimeException e) {
+        if (isUnavailable(e)) {
+          retryAt = System.nanoTime() + retryIntervalNanos;
+          log.warn("Failed to save audit logs one by one: {}", e.getMessage());
+          return i;
+        }
+        rejected.increment();
+        log.error("Database rejected audit log {}, dropping it: {}", auditLog, e.getMessage());
+      }
+    }
+    return records.size();
+  }
+
+  /**
+   * Whether saving failed because the database could not be reached or was short of resources,
+   * not because of the records. Pool errors, like a borrow timeout, have no SQL cause.
+   */
+  static boolean isUnavailable(Throwable failure) {
+    for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+      if (cause instanceof SQLException sqlException) {
+        String state = sqlException.getSQLState();
+        return state == null
+            || state.length() < 2
+            || UNAVAILABLE_SQL_STATE_CLASSES.contains(state.substring(0, 2));
+      }
+    }
+    return true;
+  }
+
+  private void spool(List<AuditLog> batch) {
+    for (AuditLog auditLog : batch) {
+      try {
+        auditSpool.append(auditLog);
+        spooled.increment();
+      } catch (RuntimeException e) {
+        failed.increment();
+        log.error("Failed to spool audit log {}: {}", auditLog, e.getMessage());
+      }
+    }
+  }
+
+  private static OverflowPolicy overflowPolicy(String overflow) {
+    try {
+      return OverflowPolicy.valueOf(overflow.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new InitializationException("Unknown audit writer overflow policy: " + overflow);
+    }
+  }
+}
@@ -0,0 +1,108 @@
+package org.example.service.impl;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.log4j.Log4j2;
+import org.example.exception.InitializationException;
+import org.example.repository.AuditPartitionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps monthly audit log partitions ready ahead of time and removes the expired ones, so audit
+ * logs can always be saved and retention never deletes rows one by one. Runs on start and then
+ * periodically, a failed run is retried at the next one.
+ */
+@Log4j2
+@Component
+public class AuditPartitionMaintainer {
+  private final AuditPartitionRepository auditPartitionRepository;
+  private final int monthsAhead;
+  private final int retentionMonths;
+  private final boolean detachExpired;
+  private final long checkIntervalMs;
+  private ScheduledExecutorService executor;
+
+  /**
+   * @param monthsAhead partitions created after the current month
+   * @param retentionMonths full months kept before the current one, 0 - partitions are never
+   *     removed
+   * @param expired detach - expired partition is kept as a standalone table, drop - it is dropped
+   * @param checkIntervalMs time between runs
+   */
+  public AuditPartitionMaintainer(
+      AuditPartitionRepository auditPartitionRepository,
+      @Value("${audit.partitions.months_ahead}") int monthsAhead,
+      @Value("${audit.partitions.retention_months}") int retentionMonths,
+      @Value("${audit.partitions.expired}") String expired,
+      @Value("${audit.partitions.check_interval_ms}") long checkIntervalMs) {
+    if (monthsAhead < 1 || retentionMonths < 0) {
+      throw new InitializationException(
+          "Audit partitions months ahead must be positive and retention not negative");
+    }
+    this.auditPartitionRepository = auditPartitionRepository;
+    this.monthsAhead = monthsAhead;
+    this.retentionMonths = retentionMonths;
+    this.detachExpired =
+        switch (expired) {
+          case "detach" -> true;
+          case "drop" -> false;
+          default ->
+              throw new InitializationException("Unknown audit partition expiry: " + expired);
+        };
+    this.checkIntervalMs = checkIntervalMs;
+  }
+
+  @PostConstruct
+  void start() {
+    executor =
+        Executors.newSingleThreadScheduledExecutor(
+            runnable -> {
+              Thread thread = new Thread(runnable, "audit-partition-maintenance");
+              thread.setDaemon(true);
+              return thread;
+            });
+    executor.scheduleWithFixedDelay(this::maintain, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+  }
+
+  @PreDestroy
+  void destroy() {
+    executor.shutdownNow();
+  }
+
+  private void maintain() {
+    try {
+      maintain(YearMonth.now());
+    } catch (RuntimeException e) {
+      log.error("Audit partition maintenance failed: {}", e.getMessage(), e);
+    }
+  }
+
+  /** Creates missing partitions up to months ahead of current month, removes expired ones. */
+  void maintain(YearMonth currentMonth) {
+    List<YearMonth> partitions = auditPartitionRepository.findPartitions();
+    for (YearMonth month = currentMonth;
+        !month.isAfter(currentMonth.plusMonths(monthsAhead));
+        month = month.plusMonths(1)) {
+      if (!partitions.contains(month)) {
+        auditPartitionRepository.createPartition(month);
+        log.info("Created audit log partition for {}", month);
+      }
+    }
+    if (retentionMonths == 0) {
+      return;
+    }
+    YearMonth oldestKept = currentMonth.minusMonths(retentionMonths);
+    for (YearMonth month : partitions) {
+      if (month.isBefore(oldestKept)) {
+        auditPartitionRepository.removePartition(month, detachExpired);
+        log.info("Removed expired audit log partition for {}", month);
+      }
+    }
+  }
+}
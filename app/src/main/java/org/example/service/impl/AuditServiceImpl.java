@@ -1,10 +1,15 @@
 package org.example.service.impl;
 
+import jakarta.validation.ValidationException;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import lombok.RequiredArgsConstructor;
+import org.example.dto.AuditCursor;
+import org.example.dto.AuditLogPage;
+import org.example.dto.AuditQuery;
 import org.example.model.AuditAction;
 import org.example.model.AuditLog;
 import org.example.model.User;
@@ -15,7 +20,11 @@ import org.springframework.stereotype.Component;
 @Component
 @RequiredArgsConstructor
 public class AuditServiceImpl implements AuditService {
+  /** characters of audit_logs.details column */
+  static final int MAX_DETAILS_LENGTH = 255;
+
   private final AuditRepository auditRepository;
+  private final AuditLogWriter auditLogWriter;
 
   @Override
   public void logAction(Supplier<User> userSupplier, AuditAction action, String details) {
@@ -27,17 +36,53 @@ public class AuditServiceImpl implements AuditService {
     auditLog.setTimestamp(LocalDateTime.now());
     auditLog.setUsername(user.getUsername());
     auditLog.setAction(action);
-    auditLog.setDetails(details);
-    auditRepository.save(auditLog);
+    auditLog.setDetails(fitDetails(details));
+    auditLogWriter.write(auditLog);
+  }
+
+  /**
+   * details cut to the column size, so the batch of the log is not rejected by the database.
+   * A surrogate pair is not split, a database character is a code point.
+   */
+  static String fitDetails(String details) {
+    if (details == null) {
+      return "";
+    }
+    if (details.length() <= MAX_DETAILS_LENGTH) {
+      return details;
+    }
+    int end = MAX_DETAILS_LENGTH;
+    if (Character.isHighSurrogate(details.charAt(end - 1))) {
+      end--;
+    }
+    return details.substring(0, end);
   }
 
   @Override
-  public List<AuditLog> findAll() {
-    return auditRepository.findAll();
+  public AuditLogPage findPage(AuditQuery query, AuditCursor after, int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new ValidationException("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+    validateRange(query);
+    List<AuditLog> auditLogs = auditRepository.findPage(query, after, limit + 1);
+    if (auditLogs.size() <= limit) {
+      return new AuditLogPage(auditLogs, null);
+    }
+    List<AuditLog> page = auditLogs.subList(0, limit);
+    return new AuditLogPage(page, AuditCursor.of(page.get(limit - 1)));
   }
 
   @Override
-  public List<AuditLog> findByUsername(String username) {
-    return auditRepository.findByUsername(username);
+  public long stream(AuditQuery query, Consumer<AuditLog> action) {
+    validateRange(query);
+    return auditRepository.stream(query, action);
+  }
+
+  private static void validateRange(AuditQuery query) {
+    if (query.getFrom() != null
+        && query.getTo() != null
+        && !query.getFrom().isBefore(query.getTo())) {
+      throw new ValidationException("from must be before to");
+    }
   }
 }
@@ -0,0 +1,26 @@
+package org.example.service.impl;
+
+/**
+ * @param queued records waiting for the writer
+ * @param written records saved to the database
+ * @param batches saves performed, written / batches is the average batch size
+ * @param dropped records which did not fit into the queue
+ * @param failed records which could be neither saved nor spooled
+ * @param rejected records the database refused to take, logged and dropped
+ * @param deadLettered spooled records which failed every replay, moved to the dead letter file
+ * @param spooled records appended to the local spool
+ * @param replayed spooled records saved to the database
+ * @param spoolPending spooled records waiting to be replayed, including ones of previous runs
+ */
+public record AuditWriterMetrics(
+    int queued,
+    int queueCapacity,
+    long written,
+    long batches,
+    long dropped,
+    long failed,
+    long rejected,
+    long deadLettered,
+    long spooled,
+    long replayed,
+    long spoolPending) {}
@@ -1,13 +1,16 @@
 package org.example.service.impl;
 
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import org.example.dto.LoginResult;
+import org.example.dto.SessionToken;
 import org.example.exception.AccessDeniedException;
 import org.example.model.Role;
 import org.example.model.User;
 import org.example.repository.UserRepository;
 import org.example.service.AuthLoginAttemptService;
 import org.example.service.AuthService;
+import org.example.service.TokenService;
 import org.example.util.Passwords;
 import org.springframework.stereotype.Component;
 
@@ -19,6 +22,8 @@ public class AuthServiceImpl implements AuthService {
   private final UserRepository userRepository;
   private final AuthLoginAttemptService authLoginAttemptService;
   private final Passwords passwords;
+  private final VerifiedCredentialCache verifiedCredentialCache;
+  private final TokenService tokenService;
 
   @Override
   public LoginResult login(String username, String password) {
@@ -28,6 +33,11 @@ public class AuthServiceImpl implements AuthService {
     if (authLoginAttemptService.isAccountLocked(username)) {
       return new LoginResult("Login failed: account locked due to too many attempts");
     }
+    Optional<User> verifiedUser = verifiedCredentialCache.find(username, password);
+    if (verifiedUser.isPresent()) {
+      UserContext.setCurrentUser(verifiedUser.get());
+      return new LoginResult(true, "Login successful");
+    }
     User user = userRepository.findByUsername(username);
     if (user == null) {
       authLoginAttemptService.recordFailedAttempt(username);
@@ -38,10 +48,19 @@ public class AuthServiceImpl implements AuthService {
       return new LoginResult("Login failed: invalid password");
     }
     authLoginAttemptService.remove(username);
+    verifiedCredentialCache.put(username, password, user);
     UserContext.setCurrentUser(user);
     return new LoginResult(true, "Login successful");
   }
 
+  @Override
+  public SessionToken issueToken() {
+    if (!isAuthenticated()) {
+      throw new AccessDeniedException("Authentication required to issue token");
+    }
+    return tokenService.issue(UserContext.getValidatedCurrentUser());
+  }
+
   @Override
   public void requireAdmin() {
     if (!isAdmin()) {
@@ -63,6 +82,8 @@ public class AuthServiceImpl implements AuthService {
 
   @Override
   public void logout() {
+    UserContext.getCurrentToken().ifPresent(tokenService::revoke);
+    UserContext.setCurrentToken(null);
     UserContext.setCurrentUser(User.anonymous());
   }
 
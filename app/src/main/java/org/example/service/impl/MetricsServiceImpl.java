@@ -0,0 +1,24 @@
+package org.example.service.impl;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.example.service.MetricsService;
+import org.example.util.MetricsSource;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class MetricsServiceImpl implements MetricsService {
+  private final List<MetricsSource> metricsSources;
+
+  @Override
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new TreeMap<>();
+    for (MetricsSource metricsSource : metricsSources) {
+      metrics.put(metricsSource.getMetricsName(), metricsSource.getMetrics());
+    }
+    return metrics;
+  }
+}
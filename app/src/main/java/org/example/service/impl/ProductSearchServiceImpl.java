@@ -1,34 +1,134 @@
 package org.example.service.impl;
 
+import jakarta.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.Optional;
 
 import lombok.RequiredArgsConstructor;
+import lombok.extern.log4j.Log4j2;
 import org.example.cache.Cache;
+import org.example.dto.ProductFacets;
+import org.example.dto.ProductPage;
 import org.example.dto.SearchCriteria;
+import org.example.exception.InitializationException;
 import org.example.model.Product;
 import org.example.repository.ProductRepository;
+import org.example.search.NamePrefixIndex;
+import org.example.search.ProductIndex;
 import org.example.service.ProductSearchService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
+@Log4j2
 @Component
 @RequiredArgsConstructor
 public class ProductSearchServiceImpl implements ProductSearchService {
   private final ProductRepository productRepository;
   private final Cache<Long, Product> productCache;
 
+  /** ids of products found by normalized criteria, dropped when a matching product changes */
+  private final Cache<SearchCriteria, List<Long>> searchResultCache;
+
+  /** facets by normalized criteria, dropped when a matching product changes */
+  private final Cache<SearchCriteria, ProductFacets> facetCache;
+
+  /** answer searches from in-memory index instead of database */
+  @Value("${search.in_memory.enabled}")
+  private boolean inMemorySearchEnabled;
+
+  /** larger search results are not cached, resolving them would cost more than searching */
+  @Value("${cache.search_results.max_ids}")
+  private int maxCachedResults;
+
+  /** ascending upper bounds of price facet buckets, last bucket has no upper bound */
+  @Value("${search.facets.price_bounds}")
+  private BigDecimal[] priceBounds;
+
+  /** null until built, searches go to database meanwhile */
+  private volatile ProductIndex productIndex;
+
+  /** null until built, there are no suggestions meanwhile */
+  private volatile NamePrefixIndex namePrefixIndex;
+
+  @PostConstruct
+  void validatePriceBounds() {
+    if (priceBounds.length == 0) {
+      throw new InitializationException("Price facet bounds can not be empty");
+    }
+    for (int i = 1; i < priceBounds.length; i++) {
+      if (priceBounds[i].compareTo(priceBounds[i - 1]) <= 0) {
+        throw new InitializationException("Price facet bounds must be ascending");
+      }
+    }
+  }
+
+  /**
+   * Builds in-memory indexes once the context is refreshed, so database migrations have been
+   * applied. Name suggestions are always indexed, products only if in-memory search is enabled.
+   * Indexes are updated by {@link #productSaved} and {@link #productDeleted}, so each application
+   * instance sees only its own changes.
+   */
+  @EventListener(ContextRefreshedEvent.class)
+  void buildIndexes() {
+    if (namePrefixIndex != null) {
+      return;
+    }
+    long start = System.nanoTime();
+    List<String> productNames = new ArrayList<>();
+    if (inMemorySearchEnabled) {
+      List<Product> products = productRepository.findAll();
+      ProductIndex index = new ProductIndex();
+      index.putAll(products);
+      productIndex = index;
+      products.forEach(product -> productNames.add(product.getName()));
+    } else {
+      // only names are kept, products are not collected
+      productRepository.streamAll(product -> productNames.add(product.getName()));
+    }
+    NamePrefixIndex names = new NamePrefixIndex();
+    names.addAll(productNames);
+    namePrefixIndex = names;
+    log.info(
+        "Product search indexes built: {} products, {} names in {} ms",
+        productNames.size(),
+        names.size(),
+        (System.nanoTime() - start) / 1_000_000);
+  }
+
   @Override
   public List<Product> search(SearchCriteria criteria) {
     if (criteria == null || criteria.isEmpty()) {
       return getAllProducts();
     }
-    List<Product> results;
-    if (hasSingleFilter(criteria)) {
-      results = applySingleFilter(criteria);
-    } else {
-      results = applyCombinedFilters(criteria);
+    ProductIndex index = productIndex;
+    if (index != null) {
+      return index.search(criteria);
+    }
+    SearchCriteria key = criteria.normalized();
+    List<Product> loaded = new ArrayList<>();
+    Optional<List<Long>> ids =
+        searchResultCache.get(
+            key,
+            k -> {
+              List<Product> found = productRepository.search(k);
+              loaded.addAll(found);
+              return found.size() > maxCachedResults
+                  ? null
+                  : found.stream().map(Product::getId).toList();
+            });
+    if (!loaded.isEmpty()) {
+      return loaded;
     }
-    return results;
+    // found by another caller, or not cached because the result is too large
+    return ids.map(this::resolve).orElseGet(() -> productRepository.search(key));
   }
 
   @Override
@@ -36,46 +136,113 @@ public class ProductSearchServiceImpl implements ProductSearchService {
     return productRepository.findAll();
   }
 
-  private boolean hasSingleFilter(SearchCriteria criteria) {
-    int filterCount = 0;
-    if (criteria.getName() != null) {
-      filterCount++;
+  @Override
+  public List<Product> fullTextSearch(String query, int limit) {
+    ProductIndex index = productIndex;
+    if (index != null) {
+      return index.fullTextSearch(query, limit);
+    }
+    return productRepository.fullTextSearch(query, limit);
+  }
+
+  @Override
+  public List<String> suggestNames(String prefix, int limit) {
+    NamePrefixIndex index = namePrefixIndex;
+    return index != null ? index.suggest(prefix, limit) : List.of();
+  }
+
+  @Override
+  public ProductFacets getFacets(SearchCriteria criteria) {
+    return facetCache
+        .get(
+            criteria.normalized(),
+            key -> {
+              ProductIndex index = productIndex;
+              List<BigDecimal> bounds = List.of(priceBounds);
+              return index != null
+                  ? index.facets(key, bounds)
+                  : productRepository.countFacets(key, bounds);
+            })
+        .orElseThrow();
+  }
+
+  /**
+   * Only cached results which contain the product before or after the change are dropped, other
+   * results can not be affected by it.
+   */
+  @Override
+  public void productSaved(Product previous, Product saved) {
+    searchResultCache.removeIf(criteria -> affects(criteria, previous, saved));
+    facetCache.removeIf(criteria -> affects(criteria, previous, saved));
+    NamePrefixIndex names = namePrefixIndex;
+    if (names != null) {
+      if (previous != null) {
+        names.remove(previous.getName());
+      }
+      names.add(saved.getName());
     }
-    if (criteria.getCategory() != null) {
-      filterCount++;
+    ProductIndex index = productIndex;
+    if (index != null) {
+      index.put(saved);
     }
-    if (criteria.getBrand() != null) {
-      filterCount++;
+  }
+
+  @Override
+  public void productDeleted(Product deleted) {
+    searchResultCache.removeIf(criteria -> affects(criteria, deleted, null));
+    facetCache.removeIf(criteria -> affects(criteria, deleted, null));
+    NamePrefixIndex names = namePrefixIndex;
+    if (names != null) {
+      names.remove(deleted.getName());
     }
-    if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
-      filterCount++;
+    ProductIndex index = productIndex;
+    if (index != null) {
+      index.remove(deleted.getId());
     }
+  }
 
-    return filterCount == 1;
+  @Override
+  public long streamAll(Consumer<Product> action) {
+    return productRepository.streamAll(action);
+  }
+
+  /** one extra product is requested to know if there is a next page */
+  @Override
+  public ProductPage getPage(Long afterId, int limit) {
+    List<Product> products = productRepository.findPage(afterId, limit + 1);
+    if (products.size() <= limit) {
+      return new ProductPage(products, null);
+    }
+    List<Product> page = products.subList(0, limit);
+    return new ProductPage(page, page.get(limit - 1).getId());
   }
 
-  private List<Product> applySingleFilter(SearchCriteria criteria) {
-    if (criteria.getName() != null) {
-      return productRepository.searchByName(criteria.getName());
-    } else if (criteria.getCategory() != null) {
-      return productRepository.filterByCategory(criteria.getCategory());
-    } else if (criteria.getBrand() != null) {
-      return productRepository.filterByBrand(criteria.getBrand());
-    } else if (criteria.getMinPrice() != null || criteria.getMaxPrice() != null) {
-      return productRepository.filterByPriceRange(criteria.getMinPrice(), criteria.getMaxPrice());
-    }
-    return List.of();
+  /**
+   * Products with given ids in the same order. Products are taken from product cache, the rest is
+   * read in one query and not cached: a product read here may be replaced by a concurrent update,
+   * product cache is only filled by lookups and writes which keep it in sync.
+   */
+  private List<Product> resolve(List<Long> ids) {
+    Map<Long, Product> products = new HashMap<>();
+    List<Long> missing = new ArrayList<>();
+    for (Long id : ids) {
+      Optional<Product> cached = productCache.get(id);
+      if (cached.isPresent()) {
+        products.put(id, cached.get());
+      } else {
+        missing.add(id);
+      }
+    }
+    for (Product product : productRepository.findAllById(missing)) {
+      products.put(product.getId(), product);
+    }
+    return ids.stream().map(products::get).filter(Objects::nonNull).toList();
   }
 
-  private List<Product> applyCombinedFilters(SearchCriteria criteria) {
-    List<Product> allProducts = productRepository.findAll();
-    return allProducts.stream()
-        .filter(criteria::matchesId)
-        .filter(criteria::matchesName)
-        .filter(criteria::matchesCategory)
-        .filter(criteria::matchesBrand)
-        .filter(criteria::matchesPriceRange)
-        .toList();
+  /** true if a cached result for criteria may contain the product or should now contain it */
+  private static boolean affects(SearchCriteria criteria, Product previous, Product current) {
+    return (previous != null && criteria.matches(previous))
+        || (current != null && criteria.matches(current));
   }
 
   @Override
@@ -83,14 +250,6 @@ public class ProductSearchServiceImpl implements ProductSearchService {
     if (id == null) {
       return Optional.empty();
     }
-    Optional<Product> cached = productCache.get(id);
-    if (cached.isPresent()) {
-      return cached;
-    }
-    Optional<Product> productOpt = productRepository.findById(id);
-    if (productOpt.isPresent()) {
-      productCache.put(id, productOpt.orElse(null));
-    }
-    return productOpt;
+    return productCache.get(id, key -> productRepository.findById(key).orElse(null));
   }
 }
@@ -3,12 +3,15 @@ package org.example.service.impl;
 import jakarta.validation.ValidationException;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import lombok.RequiredArgsConstructor;
 import org.example.aspect.AuditProduct;
 import org.example.aspect.AuditType;
 import org.example.cache.Cache;
+import org.example.dto.ProductFacets;
 import org.example.dto.ProductForm;
+import org.example.dto.ProductPage;
 import org.example.dto.SearchCriteria;
 import org.example.exception.ResourceNotFoundException;
 import org.example.mapper.ProductMapper;
@@ -34,6 +37,9 @@ public class ProductServiceImpl implements ProductService {
   @AuditProduct(action = AuditAction.SEARCH, type = AuditType.SEARCH)
   @Override
   public List<Product> search(SearchCriteria criteria) {
+    if (criteria.getLimit() != null) {
+      validateLimit(criteria.getLimit());
+    }
     return productSearchService.search(criteria);
   }
 
@@ -43,6 +49,44 @@ public class ProductServiceImpl implements ProductService {
     return productSearchService.getAllProducts();
   }
 
+  @AuditProduct(action = AuditAction.SEARCH, type = AuditType.SEARCH, message = "Get product facets")
+  @Override
+  public ProductFacets getFacets(SearchCriteria criteria) {
+    return productSearchService.getFacets(criteria);
+  }
+
+  @AuditProduct(action = AuditAction.SEARCH, type = AuditType.SEARCH, message = "Full text search")
+  @Override
+  public List<Product> fullTextSearch(String query, int limit) {
+    if (query == null || query.isBlank()) {
+      throw new ValidationException("search query can not be empty");
+    }
+    validateLimit(limit);
+    return productSearchService.fullTextSearch(query.trim(), limit);
+  }
+
+  @Override
+  public List<String> suggestNames(String prefix, int limit) {
+    if (prefix == null || prefix.isBlank()) {
+      throw new ValidationException("prefix can not be empty");
+    }
+    validateLimit(limit);
+    return productSearchService.suggestNames(prefix, limit);
+  }
+
+  @AuditProduct(action = AuditAction.SEARCH, type = AuditType.SEARCH, message = "Stream all products")
+  @Override
+  public long streamAll(Consumer<Product> action) {
+    return productSearchService.streamAll(action);
+  }
+
+  @AuditProduct(action = AuditAction.SEARCH, type = AuditType.SEARCH, message = "Get products page")
+  @Override
+  public ProductPage getPage(Long afterId, int limit) {
+    validateLimit(limit);
+    return productSearchService.getPage(afterId, limit);
+  }
+
   @AuditProduct(action = AuditAction.DELETE_PRODUCT, type = AuditType.ID_BASED, message = "Removed product: [%d]")
   @Override
   public void deleteProduct(Long id) {
@@ -58,7 +102,7 @@ public class ProductServiceImpl implements ProductService {
     boolean deleted = productRepository.delete(id);
     if (deleted) {
       productCache.remove(id);
-      ;
+      productSearchService.productDeleted(product.get());
     } else {
       throw new ResourceNotFoundException("product", String.valueOf(id));
     }
@@ -87,6 +131,7 @@ public class ProductServiceImpl implements ProductService {
             .build();
     Product updated = productRepository.save(forUpdate);
     productCache.put(updated.getId(), updated);
+    productSearchService.productSaved(existingOpt.get(), updated);
     return updated;
   }
 
@@ -118,6 +163,13 @@ public class ProductServiceImpl implements ProductService {
     Product newProduct = Product.builder(product).build();
     Product saved = productRepository.save(newProduct);
     productCache.put(saved.getId(), saved);
+    productSearchService.productSaved(null, saved);
     return saved;
   }
+
+  private void validateLimit(int limit) {
+    if (limit < 1 || limit > MAX_PAGE_SIZE) {
+      throw new ValidationException("limit must be between 1 and " + MAX_PAGE_SIZE);
+    }
+  }
 }
@@ -0,0 +1,184 @@
+package org.example.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import lombok.extern.log4j.Log4j2;
+import org.example.dto.SessionToken;
+import org.example.dto.UserSavedEvent;
+import org.example.exception.InitializationException;
+import org.example.exception.PasswordHashingException;
+import org.example.model.Role;
+import org.example.model.User;
+import org.example.service.TokenService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Token is base64url(payload).base64url(signature), payload is "id:userId:role:expiresAt:username"
+ * and signature is HMAC-SHA256 of encoded payload with configured secret. Token carries everything
+ * needed to restore the user, so validation is a single HMAC computation.
+ *
+ * <p>Revoked token ids are kept in memory until tokens expire. Tokens issued to a user before the
+ * user was updated are rejected, so a changed role or username applies at once rather than when
+ * the token expires. Without configured secret a random one is generated on start, tokens are
+ * then not accepted after restart or by other instances.
+ */
+@Log4j2
+@Component
+public class TokenServiceImpl implements TokenService {
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+  private static final String TOKEN_TYPE = "Bearer";
+  private static final int MIN_SECRET_LENGTH = 32;
+  private static final int TOKEN_ID_LENGTH = 16;
+  private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+  private final long ttlMs;
+  private final ThreadLocal<Mac> mac;
+  private final SecureRandom random = new SecureRandom();
+  private final Map<String, Long> revokedTokens = new ConcurrentHashMap<>();
+
+  /** time of the last update per user id, kept until tokens issued before it expire */
+  private final Map<Long, Long> usersUpdatedAt = new ConcurrentHashMap<>();
+
+  /**
+   * @param secret HMAC key, blank - random key is generated
+   * @param ttlMs how long issued tokens are valid
+   */
+  public TokenServiceImpl(
+      @Value("${auth.token.secret}") String secret, @Value("${auth.token.ttl_ms}") long ttlMs) {
+    byte[] keyBytes;
+    if (secret.isBlank()) {
+      log.warn("auth.token.secret is not set, tokens are signed with a random key");
+      keyBytes = new byte[MIN_SECRET_LENGTH];
+      random.nextBytes(keyBytes);
+    } else if (secret.length() < MIN_SECRET_LENGTH) {
+      throw new InitializationException(
+          "auth.token.secret must be at least %d characters long".formatted(MIN_SECRET_LENGTH));
+    } else {
+      keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+    }
+    this.ttlMs = ttlMs;
+    SecretKeySpec key = new SecretKeySpec(keyBytes, HMAC_ALGORITHM);
+    this.mac = ThreadLocal.withInitial(() -> createMac(key));
+  }
+
+  @Override
+  public SessionToken issue(User user) {
+    byte[] tokenId = new byte[TOKEN_ID_LENGTH];
+    random.nextBytes(tokenId);
+    long expiresAt = System.currentTimeMillis() + ttlMs;
+    String payload =
+        String.join(
+            ":",
+            ENCODER.encodeToString(tokenId),
+            String.valueOf(user.getId()),
+            user.getRole().name(),
+            String.valueOf(expiresAt),
+            user.getUsername());
+    String encodedPayload = ENCODER.encodeToString(payload.getBytes(StandardCharsets.UTF_8));
+    String token = encodedPayload + "." + sign(encodedPayload);
+    return new SessionToken(token, TOKEN_TYPE, ttlMs / 1000);
+  }
+
+  @Override
+  public Optional<User> authenticate(String token) {
+    Claims claims = parse(token);
+    if (claims == null
+        || claims.expiresAt <= System.currentTimeMillis()
+        || revokedTokens.containsKey(claims.tokenId)
+        || issuedBeforeUpdate(claims)) {
+      return Optional.empty();
+    }
+    User user = new User(claims.username, "", claims.role);
+    user.setId(claims.userId);
+    return Optional.of(user);
+  }
+
+  @Override
+  public void revoke(String token) {
+    Claims claims = parse(token);
+    if (claims == null) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    revokedTokens.values().removeIf(expiresAt -> expiresAt <= now);
+    if (claims.expiresAt > now) {
+      revokedTokens.put(claims.tokenId, claims.expiresAt);
+    }
+  }
+
+  /** tokens issued to the user until now carry its old role or username and are rejected */
+  @EventListener
+  public void onUserSaved(UserSavedEvent event) {
+    if (event.isCreated() || event.getUserId() == null) {
+      return;
+    }
+    long now = System.currentTimeMillis();
+    usersUpdatedAt.values().removeIf(updatedAt -> updatedAt + ttlMs <= now);
+    usersUpdatedAt.put(event.getUserId(), now);
+  }
+
+  private boolean issuedBeforeUpdate(Claims claims) {
+    Long updatedAt = claims.userId == null ? null : usersUpdatedAt.get(claims.userId);
+    return updatedAt != null && claims.expiresAt - ttlMs <= updatedAt;
+  }
+
+  /** returns null if token is malformed or signature does not match */
+  private Claims parse(String token) {
+    if (token == null) {
+      return null;
+    }
+    int separator = token.indexOf('.');
+    if (separator <= 0) {
+      return null;
+    }
+    String encodedPayload = token.substring(0, separator);
+    byte[] signature = token.substring(separator + 1).getBytes(StandardCharsets.US_ASCII);
+    byte[] expected = sign(encodedPayload).getBytes(StandardCharsets.US_ASCII);
+    if (!MessageDigest.isEqual(expected, signature)) {
+      return null;
+    }
+    try {
+      String payload = new String(DECODER.decode(encodedPayload), StandardCharsets.UTF_8);
+      String[] parts = payload.split(":", 5);
+      if (parts.length != 5) {
+        return null;
+      }
+      return new Claims(
+          parts[0],
+          "null".equals(parts[1]) ? null : Long.valueOf(parts[1]),
+          Role.valueOf(parts[2]),
+          Long.parseLong(parts[3]),
+          parts[4]);
+    } catch (IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  private String sign(String encodedPayload) {
+    byte[] signature = mac.get().doFinal(encodedPayload.getBytes(StandardCharsets.US_ASCII));
+    return ENCODER.encodeToString(signature);
+  }
+
+  private static Mac createMac(SecretKeySpec key) {
+    try {
+      Mac hmac = Mac.getInstance(HMAC_ALGORITHM);
+      hmac.init(key);
+      return hmac;
+    } catch (GeneralSecurityException e) {
+      throw new PasswordHashingException("Failed to initialize token signature", e);
+    }
+  }
+
+  private record Claims(String tokenId, Long userId, Role role, long expiresAt, String username) {}
+}
@@ -10,6 +10,9 @@ public class UserContext {
 
   private static final ThreadLocal<User> currentUser = new ThreadLocal<>();
 
+  /** session token the current user was authenticated with, absent for other methods */
+  private static final ThreadLocal<String> currentToken = new ThreadLocal<>();
+
   public static Optional<User> getCurrentUser() {
     return Optional.ofNullable(currentUser.get());
   }
@@ -26,7 +29,16 @@ public class UserContext {
     return user;
   }
 
+  public static Optional<String> getCurrentToken() {
+    return Optional.ofNullable(currentToken.get());
+  }
+
+  public static void setCurrentToken(String token) {
+    currentToken.set(token);
+  }
+
   public static void remove() {
     currentUser.remove();
+    currentToken.remove();
   }
 }
@@ -0,0 +1,114 @@
+package org.example.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.example.cache.Cache;
+import org.example.cache.CacheStats;
+import org.example.cache.StripedCacheImpl;
+import org.example.dto.UserSavedEvent;
+import org.example.exception.PasswordHashingException;
+import org.example.model.User;
+import org.example.util.MetricsSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Remembers credentials which were successfully verified, so repeated requests of the same user
+ * skip password hashing and user lookup until entry expires.
+ *
+ * <p>Passwords are not stored, entry keeps HMAC of username and password computed with a key
+ * generated on start. Entries of a user are dropped when the user is saved.
+ */
+@Component
+public class VerifiedCredentialCache implements MetricsSource {
+  private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+  private final Cache<String, VerifiedCredential> credentials;
+  private final long ttlNanos;
+  private final ThreadLocal<Mac> mac;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public VerifiedCredentialCache(
+      @Value("${auth.credential_cache.max_size}") int maxSize,
+      @Value("${auth.credential_cache.ttl_ms}") long ttlMs) {
+    this.credentials = new StripedCacheImpl<>(maxSize) {};
+    this.ttlNanos = ttlMs * 1_000_000;
+    SecretKeySpec key = new SecretKeySpec(generateKey(), HMAC_ALGORITHM);
+    this.mac = ThreadLocal.withInitial(() -> createMac(key));
+  }
+
+  /** returns user if the same credentials were verified recently */
+  public Optional<User> find(String username, String password) {
+    Optional<VerifiedCredential> credential = credentials.get(username);
+    if (credential.isPresent()) {
+      VerifiedCredential verified = credential.get();
+      if (verified.expiresAt - System.nanoTime() > 0
+          && MessageDigest.isEqual(verified.digest, digest(username, password))) {
+        hits.increment();
+        return Optional.of(verified.user);
+      }
+    }
+    misses.increment();
+    return Optional.empty();
+  }
+
+  /** remembers credentials, must be called only after password was verified */
+  public void put(String username, String password, User user) {
+    credentials.put(
+        username,
+        new VerifiedCredential(user, digest(username, password), System.nanoTime() + ttlNanos));
+  }
+
+  /** renamed user can not be found by new username, so all entries are dropped on update */
+  @EventListener
+  public void onUserSaved(UserSavedEvent event) {
+    if (event.isCreated()) {
+      credentials.remove(event.getUsername());
+    } else {
+      credentials.clear();
+    }
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "credential_cache";
+  }
+
+  @Override
+  public CacheStats getMetrics() {
+    return CacheStats.of(hits.sum(), misses.sum(), credentials.stats().evictions());
+  }
+
+  private byte[] digest(String username, String password) {
+    Mac hmac = mac.get();
+    hmac.update(username.getBytes(StandardCharsets.UTF_8));
+    hmac.update((byte) 0);
+    return hmac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+  }
+
+  private static byte[] generateKey() {
+    byte[] key = new byte[32];
+    new SecureRandom().nextBytes(key);
+    return key;
+  }
+
+  private static Mac createMac(SecretKeySpec key) {
+    try {
+      Mac hmac = Mac.getInstance(HMAC_ALGORITHM);
+      hmac.init(key);
+      return hmac;
+    } catch (GeneralSecurityException e) {
+      throw new PasswordHashingException("Failed to initialize credential digest", e);
+    }
+  }
+
+  private record VerifiedCredential(User user, byte[] digest, long expiresAt) {}
+}
@@ -0,0 +1,11 @@
+package org.example.util;
+
+/** Component exposing runtime statistics, all sources are collected by metrics service. */
+public interface MetricsSource {
+
+  /** Unique name of the statistics group, e.g. connection_pool */
+  String getMetricsName();
+
+  /** Current snapshot of statistics, must be serializable to json */
+  Object getMetrics();
+}
@@ -0,0 +1,20 @@
+package org.example.util;
+
+/**
+ * @param queued operations waiting for a free worker
+ * @param rejected operations rejected because queue was full
+ * @param timedOut operations whose caller stopped waiting for the result, a started one still
+ *     completes on its worker
+ * @param averageWaitMillis average time operation spent in queue
+ * @param averageHashMillis average time of hashing itself
+ */
+public record PasswordHashingMetrics(
+    int threads,
+    int active,
+    int queued,
+    long completed,
+    long rejected,
+    long timedOut,
+    double averageWaitMillis,
+    double averageHashMillis,
+    double maxHashMillis) {}
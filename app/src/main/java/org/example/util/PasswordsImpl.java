@@ -1,24 +1,93 @@
 package org.example.util;
 
+import jakarta.annotation.PreDestroy;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Arrays;
 import java.util.Base64;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 import org.example.exception.PasswordHashingException;
 import org.example.exception.PasswordValidationException;
+import org.example.exception.ServiceOverloadedException;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+/**
+ * Hashing runs on a dedicated pool of workers with bounded queue, so a burst of authentication
+ * requests can not occupy all request threads. Operations which do not fit into the queue, or
+ * whose result is not ready in time, fail fast with {@link ServiceOverloadedException}.
+ *
+ * <p>The timeout only releases the caller. PBKDF2 does not respond to interrupts, so an operation
+ * which already started keeps its worker until it completes and is counted as completed too, an
+ * operation still in the queue is cancelled and removed from it, so it never runs and does not
+ * hold a queue slot.
+ */
 @Component
-public class PasswordsImpl implements Passwords {
+public class PasswordsImpl implements Passwords, MetricsSource {
   private static final int MIN_PASSWORD_LENGTH = 8;
   private static final int SALT_LENGTH = 16;
   private static final int PBKDF2_ITERATIONS = 100000;
   private static final int KEY_LENGTH = 256;
   private static final String PBKDF2_ALGORITHM = "PBKDF2WithHmacSHA256";
 
+  private final ThreadPoolExecutor executor;
+  private final long timeoutMs;
+  private final LongAdder rejected = new LongAdder();
+  private final LongAdder timedOut = new LongAdder();
+  private final LongAdder completed = new LongAdder();
+  private final LongAdder waitNanos = new LongAdder();
+  private final LongAdder hashNanos = new LongAdder();
+  private final LongAccumulator maxHashNanos = new LongAccumulator(Math::max, 0);
+
+  /**
+   * @param threads number of workers, each fully loads a CPU core while hashing
+   * @param queueSize operations allowed to wait for a worker, 0 - no waiting
+   * @param timeoutMs how long caller waits for result, including time in queue
+   */
+  public PasswordsImpl(
+      @Value("${auth.password_hashing.threads}") int threads,
+      @Value("${auth.password_hashing.queue_size}") int queueSize,
+      @Value("${auth.password_hashing.timeout_ms}") long timeoutMs) {
+    this.timeoutMs = timeoutMs;
+    BlockingQueue<Runnable> queue =
+        queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+    AtomicInteger threadNumber = new AtomicInteger();
+    this.executor =
+        new ThreadPoolExecutor(
+            threads,
+            threads,
+            0,
+            TimeUnit.MILLISECONDS,
+            queue,
+            runnable -> {
+              Thread thread =
+                  new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+              thread.setDaemon(true);
+              return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  @PreDestroy
+  void destroy() {
+    executor.shutdownNow();
+  }
+
   /** Format: base64(salt):base64(hash) */
   @Override
   public String hashPassword(String password) {
@@ -26,6 +95,86 @@ public class PasswordsImpl implements Passwords {
       throw new PasswordValidationException("Password cannot be null");
     }
     validatePasswordComplexity(password);
+    return execute(() -> computeHash(password));
+  }
+
+  /**
+ * @return true if password is valid
+*/
+  @Override
+  public boolean verifyPassword(String password, String storedHash) {
+    return execute(() -> matches(password, storedHash));
+  }
+
+  @Override
+  public String getMetricsName() {
+    return "password_hashing";
+  }
+
+  @Override
+  public PasswordHashingMetrics getMetrics() {
+    long count = completed.sum();
+    return new PasswordHashingMetrics(
+        executor.getMaximumPoolSize(),
+        executor.getActiveCount(),
+        executor.getQueue().size(),
+        count,
+        rejected.sum(),
+        timedOut.sum(),
+        count == 0 ? 0 : waitNanos.sum() / 1_000_000.0 / count,
+        count == 0 ? 0 : hashNanos.sum() / 1_000_000.0 / count,
+        maxHashNanos.get() / 1_000_000.0);
+  }
+
+  private <T> T execute(Callable<T> operation) {
+    long submittedAt = System.nanoTime();
+    Future<T> future;
+    try {
+      future = executor.submit(() -> measure(operation, submittedAt));
+    } catch (RejectedExecutionException e) {
+      rejected.increment();
+      throw new ServiceOverloadedException("Too many password operations in progress");
+    }
+    try {
+      return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException e) {
+      // a running operation can not be stopped, a queued one is dropped to free its slot
+      cancel(future);
+      timedOut.increment();
+      throw new ServiceOverloadedException("Password operation was not completed in time");
+    } catch (InterruptedException e) {
+      cancel(future);
+      Thread.currentThread().interrupt();
+      throw new ServiceOverloadedException("Interrupted while waiting for password operation");
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new PasswordHashingException("Password operation failed", e.getCause());
+    }
+  }
+
+  /** cancelled task stays in the queue until a worker takes it, unless removed */
+  private void cancel(Future<?> future) {
+    if (future.cancel(false)) {
+      executor.remove((Runnable) future);
+    }
+  }
+
+  private <T> T measure(Callable<T> operation, long submittedAt) throws Exception {
+    long start = System.nanoTime();
+    waitNanos.add(start - submittedAt);
+    try {
+      return operation.call();
+    } finally {
+      long duration = System.nanoTime() - start;
+      hashNanos.add(duration);
+      maxHashNanos.accumulate(duration);
+      completed.increment();
+    }
+  }
+
+  private String computeHash(String password) {
     try {
       SecureRandom random = new SecureRandom();
       byte[] salt = new byte[SALT_LENGTH];
@@ -43,11 +192,7 @@ public class PasswordsImpl implements Passwords {
     }
   }
 
-  /**
- * @return true if password is valid
-*/
-  @Override
-  public boolean verifyPassword(String password, String storedHash) {
+  private boolean matches(String password, String storedHash) {
     try {
       // Parse stored hash: format is salt:hash
       String[] parts = storedHash.split(":");
@@ -1,6 +1,11 @@
 package org.example.web.configuration;
 
+import java.util.List;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -10,6 +15,25 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 @Configuration
 public class WebMvcConfiguration implements WebMvcConfigurer {
 
+  /**
+   * JSON converter of request and response bodies. It is a bean so controllers which stream JSON
+   * themselves serialize with the same object mapper.
+   */
+  @Bean
+  public MappingJackson2HttpMessageConverter jsonMessageConverter() {
+    return new MappingJackson2HttpMessageConverter(Jackson2ObjectMapperBuilder.json().build());
+  }
+
+  /** Replaces default JSON converter with the bean */
+  @Override
+  public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+    converters.replaceAll(
+        converter ->
+            converter instanceof MappingJackson2HttpMessageConverter
+                ? jsonMessageConverter()
+                : converter);
+  }
+
   /** Configuration of swagger resources */
   @Override
   public void addResourceHandlers(ResourceHandlerRegistry registry) {
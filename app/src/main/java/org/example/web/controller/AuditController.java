@@ -1,10 +1,21 @@
 package org.example.web.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.AuditCursor;
 import org.example.dto.AuditLogDto;
+import org.example.dto.AuditLogPage;
+import org.example.dto.AuditQuery;
 import org.example.mapper.AuditLogMapper;
+import org.example.model.AuditAction;
 import org.example.service.AuditService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -14,16 +25,54 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequiredArgsConstructor
 public class AuditController {
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final int DEFAULT_PAGE_SIZE = 100;
 
   private final AuditLogMapper auditLogMapper;
   private final AuditService auditService;
+  private final MappingJackson2HttpMessageConverter jsonMessageConverter;
 
+  /** Page of audit logs newest first, cursor of the next page is returned in header */
   @GetMapping
-  public List<AuditLogDto> getByUsername(@RequestParam(required = false) String username) {
-    if (username != null) {
-      return auditService.findByUsername(username).stream().map(auditLogMapper::toDto).toList();
-    } else {
-      return auditService.findAll().stream().map(auditLogMapper::toDto).toList();
+  public ResponseEntity<List<AuditLogDto>> getAudits(
+      @RequestParam(required = false) String username,
+      @RequestParam(required = false) AuditAction action,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to,
+      @RequestParam(required = false) String after,
+      @RequestParam(required = false) Integer limit) {
+    AuditQuery query =
+        AuditQuery.builder().username(username).action(action).from(from).to(to).build();
+    AuditLogPage page =
+        auditService.findPage(
+            query,
+            after != null ? AuditCursor.of(after) : null,
+            limit != null ? limit : DEFAULT_PAGE_SIZE);
+    var response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+    if (page.getNextCursor() != null) {
+      response.header(NEXT_CURSOR_HEADER, page.getNextCursor().toString());
     }
+    return response.body(page.getAuditLogs().stream().map(auditLogMapper::toDto).toList());
+  }
+
+  /** All audit logs matching filters newest first, streamed directly to response */
+  @GetMapping(value = "/export")
+  public void export(
+      @RequestParam(required = false) String username,
+      @RequestParam(required = false) AuditAction action,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime from,
+      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+          LocalDateTime to,
+      HttpServletResponse httpResponse)
+      throws IOException {
+    AuditQuery query =
+        AuditQuery.builder().username(username).action(action).from(from).to(to).build();
+    JsonArrayResponse.write(
+        httpResponse,
+        jsonMessageConverter.getObjectMapper(),
+        writer -> auditService.stream(query, log -> writer.accept(auditLogMapper.toDto(log))));
   }
 }
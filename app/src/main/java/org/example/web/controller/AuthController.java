@@ -0,0 +1,30 @@
+package org.example.web.controller;
+
+import lombok.RequiredArgsConstructor;
+import org.example.dto.SessionToken;
+import org.example.service.AuthService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping(value = "/auth", produces = MediaType.APPLICATION_JSON_VALUE)
+@RestController
+@RequiredArgsConstructor
+public class AuthController {
+  private final AuthService authService;
+
+  /** credentials are verified by authentication filter, issues token for authenticated user */
+  @PostMapping("/login")
+  public SessionToken login() {
+    return authService.issueToken();
+  }
+
+  @PostMapping("/logout")
+  @ResponseStatus(HttpStatus.NO_CONTENT)
+  public void logout() {
+    authService.logout();
+  }
+}
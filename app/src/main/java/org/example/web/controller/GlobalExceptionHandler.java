@@ -5,7 +5,9 @@ import jakarta.validation.ValidationException;
 import java.util.stream.Collectors;
 import lombok.extern.log4j.Log4j2;
 import org.example.exception.AccessDeniedException;
+import org.example.exception.CacheLoadException;
 import org.example.exception.ResourceNotFoundException;
+import org.example.exception.ServiceOverloadedException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.stereotype.Component;
@@ -123,6 +125,21 @@ public class GlobalExceptionHandler {
         ex, HttpStatus.FORBIDDEN, "access_denied", "ask administrator for additional details");
   }
 
+  @ExceptionHandler(CacheLoadException.class)
+  public ErrorResponse handle(CacheLoadException ex) {
+    return errorResponse(
+        ex,
+        HttpStatus.SERVICE_UNAVAILABLE,
+        "service_unavailable",
+        "Resource is being loaded by another request, please retry later");
+  }
+
+  @ExceptionHandler(ServiceOverloadedException.class)
+  public ErrorResponse handle(ServiceOverloadedException ex) {
+    return errorResponse(
+        ex, HttpStatus.SERVICE_UNAVAILABLE, "service_overloaded", "%s", ex.getMessage());
+  }
+
   @ExceptionHandler(Exception.class)
   public ErrorResponse handle(Exception ex) {
     log.error(
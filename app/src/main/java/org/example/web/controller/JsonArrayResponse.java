@@ -0,0 +1,49 @@
+package org.example.web.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.function.Consumer;
+import org.springframework.http.MediaType;
+
+/**
+ * Writes JSON array to response element by element as a source produces them, so the whole
+ * result is never held in memory. Elements are serialized by the object mapper of the JSON message
+ * converter, the same way as response bodies.
+ *
+ * <p>Once generator buffer is flushed the response is committed, a failure after that point can
+ * not be turned into an error response, the array is left unterminated so clients see broken
+ * JSON rather than a truncated but valid result.
+ */
+final class JsonArrayResponse {
+  private JsonArrayResponse() {}
+
+  /**
+   * @param source called once with a consumer which writes every element passed to it
+   */
+  static <T> void write(
+      HttpServletResponse response, ObjectMapper objectMapper, Consumer<Consumer<T>> source)
+      throws IOException {
+    response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+    JsonGenerator generator =
+        objectMapper
+            .getFactory()
+            .createGenerator(response.getOutputStream())
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+    generator.writeStartArray();
+    source.accept(element -> writeElement(generator, element));
+    generator.writeEndArray();
+    generator.close();
+  }
+
+  private static void writeElement(JsonGenerator generator, Object element) {
+    try {
+      generator.writeObject(element);
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write response element", e);
+    }
+  }
+}
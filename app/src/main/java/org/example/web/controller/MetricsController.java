@@ -0,0 +1,21 @@
+package org.example.web.controller;
+
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.example.service.MetricsService;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RequestMapping(value = "/metrics", produces = MediaType.APPLICATION_JSON_VALUE)
+@RestController
+@RequiredArgsConstructor
+public class MetricsController {
+  private final MetricsService metricsService;
+
+  @GetMapping
+  public Map<String, Object> getMetrics() {
+    return metricsService.getMetrics();
+  }
+}
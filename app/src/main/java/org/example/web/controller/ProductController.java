@@ -1,11 +1,17 @@
 package org.example.web.controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.ValidationException;
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 import lombok.RequiredArgsConstructor;
 import org.example.dto.ProductDto;
+import org.example.dto.ProductFacets;
 import org.example.dto.ProductForm;
+import org.example.dto.ProductPage;
+import org.example.dto.ProductSort;
 import org.example.dto.SearchCriteria;
 import org.example.exception.ResourceNotFoundException;
 import org.example.mapper.ProductMapper;
@@ -14,6 +20,7 @@ import org.example.service.ProductService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -30,8 +37,13 @@ import org.springframework.web.bind.annotation.RestController;
 @RestController
 @RequiredArgsConstructor
 public class ProductController {
+  static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+  private static final int DEFAULT_PAGE_SIZE = 100;
+  private static final int DEFAULT_SUGGESTIONS = 10;
+
   private final ProductMapper productMapper;
   private final ProductService productService;
+  private final MappingJackson2HttpMessageConverter jsonMessageConverter;
 
   @GetMapping(value = "/{id}")
   public ResponseEntity<ProductDto> getById(@PathVariable Long id) {
@@ -46,6 +58,37 @@ public class ProductController {
         .orElseThrow(() -> new ResourceNotFoundException("product", String.valueOf(id)));
   }
 
+  @GetMapping(value = "/facets")
+  public ResponseEntity<ProductFacets> getFacets(
+      @RequestParam(required = false) Long id,
+      @RequestParam(required = false) String name,
+      @RequestParam(required = false) String category,
+      @RequestParam(required = false) String brand,
+      @RequestParam(required = false) BigDecimal minPrice,
+      @RequestParam(required = false) BigDecimal maxPrice) {
+    SearchCriteria criteria =
+        SearchCriteria.builder()
+            .id(id)
+            .name(name)
+            .category(category)
+            .brand(brand)
+            .minPrice(minPrice)
+            .maxPrice(maxPrice)
+            .build();
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(productService.getFacets(criteria));
+  }
+
+  @GetMapping(value = "/suggest")
+  public ResponseEntity<List<String>> suggest(
+      @RequestParam String prefix, @RequestParam(required = false) Integer limit) {
+    return ResponseEntity.ok()
+        .contentType(MediaType.APPLICATION_JSON)
+        .body(
+            productService.suggestNames(prefix, limit != null ? limit : DEFAULT_SUGGESTIONS));
+  }
+
   @GetMapping
   public ResponseEntity<List<ProductDto>> getFilter(
       @RequestParam(required = false) Long id,
@@ -53,7 +96,16 @@ public class ProductController {
       @RequestParam(required = false) String category,
       @RequestParam(required = false) String brand,
       @RequestParam(required = false) BigDecimal minPrice,
-      @RequestParam(required = false) BigDecimal maxPrice) {
+      @RequestParam(required = false) BigDecimal maxPrice,
+      @RequestParam(required = false) Integer limit,
+      @RequestParam(required = false) Long after,
+      @RequestParam(required = false) String q,
+      @RequestParam(required = false) String sort,
+      @RequestParam(required = false) String order,
+      HttpServletResponse httpResponse)
+      throws IOException {
+    // ordered results are cut to top ones, sorting never returns the whole table
+    boolean ordered = sort != null || order != null;
     SearchCriteria criteria =
         SearchCriteria.builder()
             .id(id)
@@ -62,12 +114,42 @@ public class ProductController {
             .brand(brand)
             .minPrice(minPrice)
             .maxPrice(maxPrice)
+            .sort(sort != null ? ProductSort.of(sort) : null)
+            .descending(isDescending(order))
+            .limit(limit == null && ordered ? DEFAULT_PAGE_SIZE : limit)
             .build();
+    if (after != null && (q != null || criteria.hasFilters() || ordered)) {
+      // pages are walked by id only, cursor would be silently dropped by search
+      throw new ValidationException("after can not be combined with filters, sort, order or q");
+    }
+    if (q != null && (criteria.hasFilters() || ordered)) {
+      // full text results are ordered by relevance only and not filtered
+      throw new ValidationException("q can not be combined with filters, sort or order");
+    }
     var response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
-    if (criteria.isEmpty()) {
+    if (q != null) {
       List<ProductDto> products =
-          productService.getAllProducts().stream().map(productMapper::toDto).toList();
+          productService
+              .fullTextSearch(q, limit != null ? limit : DEFAULT_PAGE_SIZE)
+              .stream()
+              .map(productMapper::toDto)
+              .toList();
       return response.body(products);
+    } else if (!criteria.hasFilters() && !ordered && (limit != null || after != null)) {
+      ProductPage page =
+          productService.getPage(after, limit != null ? limit : DEFAULT_PAGE_SIZE);
+      if (page.getNextCursor() != null) {
+        response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+      }
+      return response.body(page.getProducts().stream().map(productMapper::toDto).toList());
+    } else if (criteria.isEmpty()) {
+      // everything is requested, body is streamed directly to response
+      JsonArrayResponse.write(
+          httpResponse,
+          jsonMessageConverter.getObjectMapper(),
+          writer ->
+              productService.streamAll(product -> writer.accept(productMapper.toDto(product))));
+      return null;
     } else {
       List<ProductDto> products =
           productService.search(criteria).stream().map(productMapper::toDto).toList();
@@ -97,4 +179,15 @@ public class ProductController {
     productService.deleteProduct(id);
     return ResponseEntity.status(HttpStatus.NO_CONTENT).build();
   }
+
+  /** order of sorted results, ascending unless given */
+  private static boolean isDescending(String order) {
+    if (order == null || order.equalsIgnoreCase("asc")) {
+      return false;
+    }
+    if (order.equalsIgnoreCase("desc")) {
+      return true;
+    }
+    throw new ValidationException("order must be asc or desc");
+  }
 }
@@ -16,6 +16,7 @@ import org.example.web.server.filter.AnonymousFilter;
 import org.example.web.server.filter.AuthorizationFilter;
 import org.example.web.server.filter.BasicAuthenticationFilter;
 import org.example.web.server.filter.GlobalExceptionFilter;
+import org.example.web.server.filter.TokenAuthenticationFilter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -32,6 +33,7 @@ import org.springframework.web.servlet.DispatcherServlet;
 public class ServerConfiguration {
   private final GlobalExceptionFilter globalExceptionFilter;
   private final AnonymousFilter anonymousFilter;
+  private final TokenAuthenticationFilter tokenAuthenticationFilter;
   private final BasicAuthenticationFilter basicAuthenticationFilter;
   private final AuthorizationFilter authorizationFilter;
 
@@ -86,6 +88,7 @@ public class ServerConfiguration {
   private void addFilters(Context ctx) {
     addFilter(ctx, globalExceptionFilter, "/*");
     addFilter(ctx, anonymousFilter, "/*");
+    addFilter(ctx, tokenAuthenticationFilter, "/*");
     addFilter(ctx, basicAuthenticationFilter, "/*");
     addFilter(ctx, authorizationFilter, "/*");
   }
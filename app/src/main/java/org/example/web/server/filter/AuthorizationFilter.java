@@ -14,7 +14,10 @@ import org.example.model.User;
 import org.example.service.impl.UserContext;
 import org.springframework.stereotype.Component;
 
-/** Filter that enforces authorization rules for admin and product search access. */
+/**
+ * Filter that enforces authorization rules for admin, product search and session management
+ * access.
+ */
 @Component
 public class AuthorizationFilter extends BasicFilter implements Filter {
 
@@ -32,7 +35,7 @@ public class AuthorizationFilter extends BasicFilter implements Filter {
       sendUnauthorizedResponse(httpRequest, httpResponse, "unauthorized");
     }
     boolean notAdmin = !currentUser.getRole().equals(Role.ADMIN);
-    if (!isProductSearchRequest(httpRequest) && notAdmin) {
+    if (!isProductSearchRequest(httpRequest) && !isSessionRequest(httpRequest) && notAdmin) {
       sendUnauthorizedResponse(httpRequest, httpResponse, "unauthorized");
       return;
     }
@@ -56,6 +59,12 @@ public class AuthorizationFilter extends BasicFilter implements Filter {
     response.getWriter().write(json);
   }
 
+  /** Checks if request is for session token management (POST /auth/...). */
+  private static boolean isSessionRequest(HttpServletRequest httpRequest) {
+    return httpRequest.getRequestURI().startsWith("/auth/")
+        && "POST".equals(httpRequest.getMethod());
+  }
+
   /** Checks if request is for product search (GET /products). */
   private static boolean isProductSearchRequest(HttpServletRequest httpRequest) {
     return httpRequest.getRequestURI().startsWith("/products")
@@ -12,15 +12,20 @@ import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import org.example.dto.LoginResult;
+import org.example.exception.ServiceOverloadedException;
 import org.example.service.AuthService;
 import org.springframework.stereotype.Component;
 
-/** Filter that handles Basic Authentication for HTTP requests. */
+/**
+ * Filter that handles Basic Authentication for HTTP requests. Requests with session token are
+ * authenticated by {@link TokenAuthenticationFilter} and passed through.
+ */
 @Component
 public class BasicAuthenticationFilter extends BasicFilter implements Filter {
 
   private static final String AUTH_HEADER = "Authorization";
   private static final String BASIC_PREFIX = "Basic ";
+  private static final String RETRY_AFTER_SECONDS = "1";
   private final AuthService authService;
 
   public BasicAuthenticationFilter(AuthService authService, ObjectMapper objectMapper) {
@@ -42,6 +47,10 @@ public class BasicAuthenticationFilter extends BasicFilter implements Filter {
       throws IOException, ServletException {
 
     String authHeader = httpRequest.getHeader(AUTH_HEADER);
+    if (authHeader != null && authHeader.startsWith(TokenAuthenticationFilter.BEARER_PREFIX)) {
+      chain.doFilter(httpRequest, httpResponse);
+      return;
+    }
     if (authHeader == null || !authHeader.startsWith(BASIC_PREFIX)) {
       sendUnauthorizedResponse(
           httpRequest, httpResponse, "Missing or invalid Authorization header");
@@ -62,7 +71,13 @@ public class BasicAuthenticationFilter extends BasicFilter implements Filter {
 
     String username = credentials[0];
     String password = credentials[1];
-    LoginResult loginResult = authService.login(username, password);
+    LoginResult loginResult;
+    try {
+      loginResult = authService.login(username, password);
+    } catch (ServiceOverloadedException e) {
+      sendServiceUnavailableResponse(httpRequest, httpResponse, e.getMessage());
+      return;
+    }
     if (loginResult.isFailure()) {
       sendUnauthorizedResponse(httpRequest, httpResponse, loginResult.getMessage());
       return;
@@ -86,6 +101,22 @@ public class BasicAuthenticationFilter extends BasicFilter implements Filter {
     response.getWriter().write(json);
   }
 
+  /** Sends 503 response asking client to retry authentication later. */
+  private void sendServiceUnavailableResponse(
+      HttpServletRequest httpRequest, HttpServletResponse response, String message)
+      throws IOException {
+    response.setHeader("Retry-After", RETRY_AFTER_SECONDS);
+    response.setContentType("application/json");
+    response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+    String json =
+        getResponse(
+            "authentication_overloaded",
+            message,
+            HttpServletResponse.SC_SERVICE_UNAVAILABLE,
+            httpRequest);
+    response.getWriter().write(json);
+  }
+
   /** Extracts username and password from Basic Auth header. */
   private String[] extractCredentials(String authHeader) {
     String base64Credentials = authHeader.substring(BASIC_PREFIX.length());
@@ -0,0 +1,69 @@
+package org.example.web.server.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+import org.example.model.User;
+import org.example.service.TokenService;
+import org.example.service.impl.UserContext;
+import org.springframework.stereotype.Component;
+
+/**
+ * Filter that authenticates requests carrying a session token in "Authorization: Bearer" header.
+ * Requests without bearer token are passed to the next filter unchanged.
+ */
+@Component
+public class TokenAuthenticationFilter extends BasicFilter implements Filter {
+
+  static final String BEARER_PREFIX = "Bearer ";
+  private static final String AUTH_HEADER = "Authorization";
+  private final TokenService tokenService;
+
+  public TokenAuthenticationFilter(TokenService tokenService, ObjectMapper objectMapper) {
+    super(objectMapper);
+    this.tokenService = tokenService;
+  }
+
+  @Override
+  public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+      throws IOException, ServletException {
+    HttpServletRequest httpRequest = (HttpServletRequest) request;
+    HttpServletResponse httpResponse = (HttpServletResponse) response;
+    String authHeader = httpRequest.getHeader(AUTH_HEADER);
+    if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+      chain.doFilter(request, response);
+      return;
+    }
+    String token = authHeader.substring(BEARER_PREFIX.length()).trim();
+    Optional<User> user = tokenService.authenticate(token);
+    if (user.isEmpty()) {
+      sendUnauthorizedResponse(httpRequest, httpResponse);
+      return;
+    }
+    UserContext.setCurrentUser(user.get());
+    UserContext.setCurrentToken(token);
+    chain.doFilter(request, response);
+  }
+
+  /** Sends 401 response with Bearer challenge and JSON error. */
+  private void sendUnauthorizedResponse(
+      HttpServletRequest httpRequest, HttpServletResponse response) throws IOException {
+    response.setHeader("WWW-Authenticate", "Bearer error=\"invalid_token\"");
+    response.setContentType("application/json");
+    response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+    String json =
+        getResponse(
+            "token_authentication_error",
+            "Invalid, expired or revoked session token",
+            HttpServletResponse.SC_UNAUTHORIZED,
+            httpRequest);
+    response.getWriter().write(json);
+  }
+}
@@ -0,0 +1,279 @@
+package org.example.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.example.exception.CacheLoadException;
+import org.junit.jupiter.api.Test;
+
+class StripedCacheImplTest {
+
+  private static Cache<Long, Long> createCache(int maxSize, int concurrencyLevel) {
+    return new StripedCacheImpl<>(maxSize, concurrencyLevel) {};
+  }
+
+  private static Cache<Long, Long> createLoadingCache(Duration loadTimeout) {
+    return new StripedCacheImpl<>(10, 4, LruEvictionPolicy::new, loadTimeout) {};
+  }
+
+  /** runs lookups from several threads at once, results or exceptions are returned in futures */
+  private static List<Future<Optional<Long>>> getConcurrently(
+      Cache<Long, Long> cache, int threads, CountDownLatch loaderRelease, Runnable loaderAction)
+      throws InterruptedException {
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch started = new CountDownLatch(threads);
+    List<Future<Optional<Long>>> results = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      results.add(
+          executor.submit(
+              () -> {
+                started.countDown();
+                return cache.get(
+                    1L,
+                    key -> {
+                      awaitQuietly(loaderRelease);
+                      loaderAction.run();
+                      return 42L;
+                    });
+              }));
+    }
+    started.await();
+    Thread.sleep(100);
+    loaderRelease.countDown();
+    executor.shutdown();
+    executor.awaitTermination(1, TimeUnit.MINUTES);
+    return results;
+  }
+
+  private static void awaitQuietly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  void get_ShouldReturnPutValue() {
+    // Given
+    Cache<Long, Long> cache = createCache(10, 4);
+
+    // When
+    cache.put(1L, 100L);
+
+    // Then
+    assertThat(cache.get(1L)).contains(100L);
+    assertThat(cache.get(2L)).isEmpty();
+    assertThat(cache.get(null)).isEmpty();
+  }
+
+  @Test
+  void put_ShouldEvictLeastRecentlyUsedEntry_WhenSegmentIsFull() {
+    // Given
+    Cache<Long, Long> cache = createCache(2, 1);
+    cache.put(1L, 1L);
+    cache.put(2L, 2L);
+    cache.get(1L);
+
+    // When
+    cache.put(3L, 3L);
+
+    // Then
+    assertThat(cache.get(1L)).isPresent();
+    assertThat(cache.get(2L)).isEmpty();
+    assertThat(cache.get(3L)).isPresent();
+    assertThat(cache.size()).isEqualTo(2);
+  }
+
+  @Test
+  void removeAndClear_ShouldDropEntries() {
+    // Given
+    Cache<Long, Long> cache = createCache(10, 4);
+    cache.put(1L, 1L);
+    cache.put(2L, 2L);
+
+    // When
+    cache.remove(1L);
+
+    // Then
+    assertThat(cache.get(1L)).isEmpty();
+    assertThat(cache.size()).isEqualTo(1);
+
+    // When
+    cache.clear();
+
+    // Then
+    assertThat(cache.isEmpty()).isTrue();
+  }
+
+  @Test
+  void removeIf_ShouldDropOnlyMatchingKeys() {
+    // Given
+    Cache<Long, Long> cache = createCache(10, 4);
+    for (long key = 1; key <= 6; key++) {
+      cache.put(key, key);
+    }
+
+    // When
+    cache.removeIf(key -> key % 2 == 0);
+
+    // Then
+    assertThat(cache.size()).isEqualTo(3);
+    assertThat(cache.get(2L)).isEmpty();
+    assertThat(cache.get(3L)).contains(3L);
+  }
+
+  @Test
+  void concurrentAccess_ShouldKeepEntriesConsistentAndBounded() throws Exception {
+    // Given
+    int maxSize = 1_000;
+    int threads = 8;
+    int operationsPerThread = 200_000;
+    Cache<Long, Long> cache = createCache(maxSize, 16);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Integer>> results = new ArrayList<>();
+
+    // When
+    for (int t = 0; t < threads; t++) {
+      results.add(
+          executor.submit(
+              () -> {
+                start.await();
+                int inconsistent = 0;
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < operationsPerThread; i++) {
+                  long key = random.nextLong(10_000);
+                  int operation = random.nextInt(10);
+                  if (operation < 7) {
+                    Optional<Long> value = cache.get(key);
+                    if (value.isPresent() && value.get() != key * 2) {
+                      inconsistent++;
+                    }
+                  } else if (operation < 9) {
+                    cache.put(key, key * 2);
+                  } else {
+                    cache.remove(key);
+                  }
+                }
+                return inconsistent;
+              }));
+    }
+    start.countDown();
+    executor.shutdown();
+    assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+    // Then
+    for (Future<Integer> result : results) {
+      assertThat(result.get()).isZero();
+    }
+    assertThat(cache.size()).isPositive().isLessThanOrEqualTo(maxSize);
+  }
+
+  @Test
+  void getWithLoader_ShouldCallLoaderOnce_WhenKeyIsRequestedConcurrently() throws Exception {
+    // Given
+    Cache<Long, Long> cache = createLoadingCache(Duration.ofSeconds(10));
+    AtomicInteger loads = new AtomicInteger();
+
+    // When
+    List<Future<Optional<Long>>> results =
+        getConcurrently(cache, 16, new CountDownLatch(1), loads::incrementAndGet);
+
+    // Then
+    assertThat(loads).hasValue(1);
+    for (Future<Optional<Long>> result : results) {
+      assertThat(result.get()).contains(42L);
+    }
+    assertThat(cache.get(1L)).contains(42L);
+  }
+
+  @Test
+  void getWithLoader_ShouldPropagateLoaderFailure_ToWaitingCallers() throws Exception {
+    // Given
+    Cache<Long, Long> cache = createLoadingCache(Duration.ofSeconds(10));
+    AtomicInteger loads = new AtomicInteger();
+    Runnable failingLoad =
+        () -> {
+          loads.incrementAndGet();
+          throw new IllegalStateException("database is down");
+        };
+
+    // When
+    List<Future<Optional<Long>>> results =
+        getConcurrently(cache, 8, new CountDownLatch(1), failingLoad);
+
+    // Then
+    assertThat(loads).hasValue(1);
+    for (Future<Optional<Long>> result : results) {
+      assertThatThrownBy(result::get).hasRootCauseMessage("database is down");
+    }
+    assertThat(cache.get(1L)).isEmpty();
+  }
+
+  @Test
+  void getWithLoader_ShouldThrow_WhenLoadTakesLongerThanTimeout() throws Exception {
+    // Given
+    Cache<Long, Long> cache = createLoadingCache(Duration.ofMillis(10));
+    CountDownLatch loaderRelease = new CountDownLatch(1);
+
+    // When
+    List<Future<Optional<Long>>> results = getConcurrently(cache, 4, loaderRelease, () -> {});
+
+    // Then
+    int timedOut = 0;
+    for (Future<Optional<Long>> result : results) {
+      try {
+        assertThat(result.get()).contains(42L);
+      } catch (ExecutionException e) {
+        assertThat(e.getCause()).isInstanceOf(CacheLoadException.class);
+        timedOut++;
+      }
+    }
+    assertThat(timedOut).isEqualTo(3);
+  }
+
+  @Test
+  void getWithLoader_ShouldNotCacheLoadedValue_WhenEntryIsRemovedDuringLoad() {
+    // Given
+    Cache<Long, Long> cache = createLoadingCache(Duration.ofSeconds(10));
+
+    // When
+    Optional<Long> loaded =
+        cache.get(
+            1L,
+            key -> {
+              cache.remove(key);
+              return 42L;
+            });
+
+    // Then
+    assertThat(loaded).contains(42L);
+    assertThat(cache.get(1L)).isEmpty();
+  }
+
+  @Test
+  void getWithLoader_ShouldNotCache_WhenLoaderReturnsNull() {
+    // Given
+    Cache<Long, Long> cache = createLoadingCache(Duration.ofSeconds(10));
+
+    // When
+    Optional<Long> loaded = cache.get(1L, key -> null);
+
+    // Then
+    assertThat(loaded).isEmpty();
+    assertThat(cache.size()).isZero();
+  }
+}
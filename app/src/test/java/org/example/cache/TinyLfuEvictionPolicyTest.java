@@ -0,0 +1,90 @@
+package org.example.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.function.IntFunction;
+import org.junit.jupiter.api.Test;
+
+class TinyLfuEvictionPolicyTest {
+  private static final int CACHE_SIZE = 100;
+  private static final int HOT_KEYS = 50;
+  private static final int SCAN_LENGTH = 200;
+  private static final int ROUNDS = 100;
+
+  private static Cache<Long, Long> createCache(IntFunction<EvictionPolicy<Long>> policyFactory) {
+    return new StripedCacheImpl<>(CACHE_SIZE, 1, policyFactory) {};
+  }
+
+  /** hot keys read repeatedly, each round followed by a scan over keys never seen again */
+  private static CacheStats replayScanPollutedTrace(Cache<Long, Long> cache) {
+    long scanKey = 1_000_000;
+    for (int round = 0; round < ROUNDS; round++) {
+      for (long key = 0; key < HOT_KEYS; key++) {
+        readThrough(cache, key);
+      }
+      for (int i = 0; i < SCAN_LENGTH; i++) {
+        readThrough(cache, scanKey++);
+      }
+    }
+    return cache.stats();
+  }
+
+  private static void readThrough(Cache<Long, Long> cache, long key) {
+    if (cache.get(key).isEmpty()) {
+      cache.put(key, key);
+    }
+  }
+
+  @Test
+  void tinyLfu_ShouldKeepHotEntries_WhenCacheIsFloodedByScan() {
+    // Given
+    Cache<Long, Long> lruCache = createCache(LruEvictionPolicy::new);
+    Cache<Long, Long> tinyLfuCache = createCache(TinyLfuEvictionPolicy::new);
+
+    // When
+    CacheStats lruStats = replayScanPollutedTrace(lruCache);
+    CacheStats tinyLfuStats = replayScanPollutedTrace(tinyLfuCache);
+
+    // Then
+    assertThat(lruStats.hits()).isZero();
+    // hot keys can hit in every round after the first one
+    assertThat(tinyLfuStats.hits()).isGreaterThan((long) HOT_KEYS * (ROUNDS - 1) * 9 / 10);
+    for (long key = 0; key < HOT_KEYS; key++) {
+      assertThat(tinyLfuCache.get(key)).contains(key);
+    }
+    assertThat(tinyLfuCache.size()).isLessThanOrEqualTo(CACHE_SIZE);
+  }
+
+  @Test
+  void tinyLfu_ShouldAdmitEntries_WhileCacheHasFreeSpace() {
+    // Given
+    Cache<Long, Long> cache = createCache(TinyLfuEvictionPolicy::new);
+
+    // When
+    for (long key = 0; key < CACHE_SIZE; key++) {
+      cache.put(key, key);
+    }
+
+    // Then
+    assertThat(cache.size()).isEqualTo(CACHE_SIZE);
+    assertThat(cache.stats().evictions()).isZero();
+  }
+
+  @Test
+  void tinyLfu_ShouldForgetRemovedEntries() {
+    // Given
+    Cache<Long, Long> cache = createCache(TinyLfuEvictionPolicy::new);
+    cache.put(1L, 1L);
+    cache.put(2L, 2L);
+
+    // When
+    cache.remove(1L);
+    cache.clear();
+    cache.put(3L, 3L);
+
+    // Then
+    assertThat(cache.get(1L)).isEmpty();
+    assertThat(cache.get(3L)).contains(3L);
+    assertThat(cache.size()).isEqualTo(1);
+  }
+}
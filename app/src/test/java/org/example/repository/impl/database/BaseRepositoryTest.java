@@ -25,6 +25,16 @@ public abstract class BaseRepositoryTest {
     registry.add("database.migration.liquibase.scheme", () -> "liquibase_data");
     registry.add("database.connect.application_scheme", () -> "application_data");
     registry.add("database.migration.liquibase.changelog_file", () -> "db/changelog/db.changelog-master.yaml");
+    registry.add("database.pool.min_size", () -> 1);
+    registry.add("database.pool.max_size", () -> 4);
+    registry.add("database.pool.max_waiters", () -> 10);
+    registry.add("database.pool.borrow_timeout_ms", () -> 5000);
+    registry.add("database.pool.idle_timeout_ms", () -> 60000);
+    registry.add("database.pool.eviction_interval_ms", () -> 30000);
+    registry.add("database.pool.validation_timeout_seconds", () -> 2);
+    registry.add("search.partitioned.partitions", () -> 1);
+    registry.add("search.partitioned.min_id_span", () -> 1000000);
+    registry.add("search.partitioned.timeout_ms", () -> 10000);
   }
 
   @Autowired
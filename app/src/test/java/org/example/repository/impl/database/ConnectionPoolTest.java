@@ -0,0 +1,148 @@
+package org.example.repository.impl.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.example.exception.DataAccessException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class ConnectionPoolTest {
+
+  private final List<Connection> opened = new ArrayList<>();
+  private ConnectionPool connectionPool;
+
+  @AfterEach
+  void tearDown() {
+    if (connectionPool != null) {
+      connectionPool.close();
+    }
+  }
+
+  private ConnectionPool createPool(int minSize, int maxSize, int maxWaiters, long timeoutMs) {
+    var settings =
+        new ConnectionPool.Settings(
+            minSize,
+            maxSize,
+            maxWaiters,
+            Duration.ofMillis(timeoutMs),
+            Duration.ofMinutes(10),
+            Duration.ofMinutes(1),
+            1);
+    connectionPool = new ConnectionPool(this::openConnection, settings);
+    connectionPool.start();
+    return connectionPool;
+  }
+
+  private Connection openConnection() throws SQLException {
+    Connection connection = mock(Connection.class);
+    when(connection.isValid(anyInt())).thenReturn(true);
+    opened.add(connection);
+    return connection;
+  }
+
+  @Test
+  void start_ShouldPreWarmMinimalNumberOfConnections() {
+    // When
+    ConnectionPool pool = createPool(3, 5, 10, 100);
+
+    // Then
+    assertThat(opened).hasSize(3);
+    assertThat(pool.getMetrics().idle()).isEqualTo(3);
+    assertThat(pool.getMetrics().active()).isZero();
+  }
+
+  @Test
+  void borrow_ShouldReuseReleasedConnection() throws SQLException {
+    // Given
+    ConnectionPool pool = createPool(0, 5, 10, 100);
+    Connection first = pool.borrow();
+    pool.release(first, true);
+
+    // When
+    Connection second = pool.borrow();
+
+    // Then
+    assertThat(second).isSameAs(first);
+    assertThat(opened).hasSize(1);
+    assertThat(pool.getMetrics().borrowed()).isEqualTo(2);
+  }
+
+  @Test
+  void borrow_ShouldTimeout_WhenPoolExhausted() throws SQLException {
+    // Given
+    ConnectionPool pool = createPool(0, 1, 10, 50);
+    pool.borrow();
+
+    // When & Then
+    assertThatThrownBy(pool::borrow)
+        .isInstanceOf(DataAccessException.class)
+        .hasMessageContaining("Timed out");
+    assertThat(pool.getMetrics().timeouts()).isEqualTo(1);
+  }
+
+  @Test
+  void borrow_ShouldRejectImmediately_WhenWaitQueueIsFull() throws SQLException {
+    // Given
+    ConnectionPool pool = createPool(0, 1, 0, 5000);
+    pool.borrow();
+
+    // When & Then
+    assertThatThrownBy(pool::borrow)
+        .isInstanceOf(DataAccessException.class)
+        .hasMessageContaining("exhausted");
+    assertThat(pool.getMetrics().rejected()).isEqualTo(1);
+  }
+
+  @Test
+  void borrow_ShouldHandOverConnection_ToWaitingThread() throws Exception {
+    // Given
+    ConnectionPool pool = createPool(0, 1, 10, 5000);
+    Connection connection = pool.borrow();
+    List<Connection> received = new ArrayList<>();
+    Thread waiter =
+        new Thread(
+            () -> {
+              try {
+                received.add(pool.borrow());
+              } catch (SQLException e) {
+                throw new RuntimeException(e);
+              }
+            });
+    waiter.start();
+
+    // When
+    while (pool.getMetrics().waiters() == 0) {
+      Thread.onSpinWait();
+    }
+    pool.release(connection, true);
+    waiter.join(5000);
+
+    // Then
+    assertThat(received).containsExactly(connection);
+    assertThat(opened).hasSize(1);
+  }
+
+  @Test
+  void release_ShouldCloseConnection_WhenNotReusable() throws SQLException {
+    // Given
+    ConnectionPool pool = createPool(0, 2, 10, 100);
+    Connection connection = pool.borrow();
+
+    // When
+    pool.release(connection, false);
+
+    // Then
+    verify(connection).close();
+    assertThat(pool.getMetrics().total()).isZero();
+  }
+}
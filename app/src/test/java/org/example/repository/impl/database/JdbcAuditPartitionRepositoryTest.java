@@ -0,0 +1,112 @@
+package org.example.repository.impl.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import org.example.configuration.LiquibaseConfigurationUpdater;
+import org.example.dto.AuditQuery;
+import org.example.model.AuditAction;
+import org.example.model.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+@SpringJUnitConfig(
+    classes = {
+      JdbcAuditPartitionRepository.class,
+      JdbcAuditRepository.class,
+      ConnectionManager.class,
+      LiquibaseConfigurationUpdater.class
+    })
+class JdbcAuditPartitionRepositoryTest extends BaseRepositoryTest {
+  private static final YearMonth FAR_MONTH = YearMonth.of(2099, 1);
+
+  @Autowired JdbcAuditPartitionRepository auditPartitionRepository;
+  @Autowired JdbcAuditRepository auditRepository;
+
+  private AuditLog createTestAuditLog(LocalDateTime timestamp) {
+    AuditLog auditLog = new AuditLog();
+    auditLog.setTimestamp(timestamp);
+    auditLog.setUsername("alice");
+    auditLog.setAction(AuditAction.LOGIN);
+    auditLog.setDetails("login");
+    return auditLog;
+  }
+
+  @Test
+  void findPartitions_ShouldContainCurrentAndNextMonths_AfterMigration() {
+    // When & Then
+    YearMonth current = YearMonth.now();
+    assertThat(auditPartitionRepository.findPartitions())
+        .contains(current, current.plusMonths(1), current.plusMonths(3))
+        .isSorted();
+  }
+
+  private long countRows(String table) {
+    return connectionManager.doInTransaction(
+        connection -> {
+          try (Statement statement = connection.createStatement();
+              ResultSet rs = statement.executeQuery("SELECT count(*) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+          } catch (SQLException e) {
+            throw new RuntimeException(e);
+          }
+        });
+  }
+
+  @Test
+  void findPartitions_ShouldNotContainDefaultPartition() {
+    // When & Then
+    assertThat(auditPartitionRepository.findPartitions()).isNotEmpty().doesNotContainNull();
+    assertThat(countRows(JdbcAuditPartitionRepository.DEFAULT_PARTITION)).isZero();
+  }
+
+  @Test
+  void createPartition_ShouldMoveLogsOfItsMonth_FromDefaultPartition() {
+    // Given, logs of months without partition are kept by the default partition
+    auditRepository.saveAll(
+        List.of(
+            createTestAuditLog(FAR_MONTH.atDay(15).atStartOfDay()),
+            createTestAuditLog(FAR_MONTH.plusMonths(1).atDay(1).atStartOfDay())));
+    assertThat(countRows(JdbcAuditPartitionRepository.DEFAULT_PARTITION)).isEqualTo(2);
+
+    try {
+      // When
+      auditPartitionRepository.createPartition(FAR_MONTH);
+      auditPartitionRepository.createPartition(FAR_MONTH);
+
+      // Then
+      assertThat(auditPartitionRepository.findPartitions()).contains(FAR_MONTH);
+      assertThat(countRows(JdbcAuditPartitionRepository.partitionName(FAR_MONTH))).isEqualTo(1);
+      assertThat(countRows(JdbcAuditPartitionRepository.DEFAULT_PARTITION)).isEqualTo(1);
+      assertThat(auditRepository.findPage(AuditQuery.builder().build(), null, 10)).hasSize(2);
+    } finally {
+      auditPartitionRepository.removePartition(FAR_MONTH, false);
+    }
+    assertThat(auditPartitionRepository.findPartitions()).doesNotContain(FAR_MONTH);
+    assertThat(auditRepository.findPage(AuditQuery.builder().build(), null, 10)).hasSize(1);
+  }
+
+  @Test
+  void removePartition_ShouldKeepDetachedTable_WithItsLogs() {
+    // Given
+    auditPartitionRepository.createPartition(FAR_MONTH);
+    auditRepository.save(createTestAuditLog(FAR_MONTH.atEndOfMonth().atTime(23, 59)));
+
+    // When
+    auditPartitionRepository.removePartition(FAR_MONTH, true);
+
+    // Then
+    assertThat(auditPartitionRepository.findPartitions()).doesNotContain(FAR_MONTH);
+    assertThat(auditRepository.findPage(AuditQuery.builder().build(), null, 10)).isEmpty();
+    long detachedRows = countRows("audit_logs_y2099m01");
+    auditPartitionRepository.removePartition(FAR_MONTH, false);
+    assertThat(detachedRows).isEqualTo(1);
+  }
+}
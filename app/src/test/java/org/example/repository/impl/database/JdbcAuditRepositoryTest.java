@@ -3,8 +3,14 @@ package org.example.repository.impl.database;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.UUID;
 import org.example.configuration.LiquibaseConfigurationUpdater;
+import org.example.dto.AuditCursor;
+import org.example.dto.AuditQuery;
 import org.example.model.AuditAction;
 import org.example.model.AuditLog;
 import org.junit.jupiter.api.Test;
@@ -19,6 +25,8 @@ import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
     })
 class JdbcAuditRepositoryTest extends BaseRepositoryTest {
 
+  private static final int FIND_LIMIT = 10_000;
+
   @Autowired JdbcAuditRepository auditRepository;
 
   @Test
@@ -48,8 +56,14 @@ class JdbcAuditRepositoryTest extends BaseRepositoryTest {
     return auditLog;
   }
 
+  /** Audit logs of username, or of all users if username is null, newest first */
+  private List<AuditLog> findLogs(String username) {
+    return auditRepository.findPage(
+        AuditQuery.builder().username(username).build(), null, FIND_LIMIT);
+  }
+
   @Test
-  void findByUsername_ShouldReturnLogsForSpecificUser_OrderedByTimestampDesc()
+  void findPage_ShouldReturnLogsForSpecificUser_OrderedByTimestampDesc()
       throws InterruptedException {
     // Given
     AuditLog log1 = createTestAuditLog("alice", AuditAction.LOGIN, "First login");
@@ -63,7 +77,7 @@ class JdbcAuditRepositoryTest extends BaseRepositoryTest {
     auditRepository.save(log3);
 
     // When
-    List<AuditLog> aliceLogs = auditRepository.findByUsername("alice");
+    List<AuditLog> aliceLogs = findLogs("alice");
 
     // Then
     assertThat(aliceLogs).hasSize(2);
@@ -77,12 +91,12 @@ class JdbcAuditRepositoryTest extends BaseRepositoryTest {
   }
 
   @Test
-  void findByUsername_ShouldReturnEmptyList_WhenUserHasNoLogs() {
+  void findPage_ShouldReturnEmptyList_WhenUserHasNoLogs() {
     // Given
     auditRepository.save(createTestAuditLog("user", AuditAction.SEARCH, "Viewed page"));
 
     // When
-    List<AuditLog> logs = auditRepository.findByUsername("non-user");
+    List<AuditLog> logs = findLogs("non-user");
 
     // Then
     assertThat(logs).isEmpty();
@@ -101,9 +115,9 @@ class JdbcAuditRepositoryTest extends BaseRepositoryTest {
     AuditLog saved3 = auditRepository.save(log3);
 
     // Then
-    List<AuditLog> allLogs = auditRepository.findAll();
-    List<AuditLog> adminLogs = auditRepository.findByUsername("admin");
-    List<AuditLog> userLogs = auditRepository.findByUsername("user");
+    List<AuditLog> allLogs = findLogs(null);
+    List<AuditLog> adminLogs = findLogs("admin");
+    List<AuditLog> userLogs = findLogs("user");
 
     assertThat(allLogs).hasSize(3);
     assertThat(adminLogs).hasSize(2);
@@ -113,9 +127,172 @@ class JdbcAuditRepositoryTest extends BaseRepositoryTest {
   }
 
   @Test
-  void findAll_ShouldReturnEmptyList_WhenNoLogsExist() {
+  void saveAll_ShouldPersistAllLogs_LargerThanCopyBuffer() {
+    // Given
+    // about 50 bytes per row, so rows are sent in several buffers
+    int count = JdbcAuditRepository.COPY_BUFFER_SIZE / 30 * 3;
+    List<AuditLog> logs = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      logs.add(createTestAuditLog("user" + i % 3, AuditAction.SEARCH, "Search " + i));
+    }
+
+    // When
+    int saved = auditRepository.saveAll(logs);
+
+    // Then
+    assertThat(saved).isEqualTo(count);
+    assertThat(findLogs(null))
+        .hasSize(count)
+        .extracting(AuditLog::getDetails)
+        .contains("Search 0", "Search " + (count - 1));
+    assertThat(findLogs("user1")).hasSize(count / 3);
+    assertThat(auditRepository.saveAll(List.of())).isZero();
+  }
+
+  @Test
+  void saveAll_ShouldKeepTextAndTimestamp_AsSavedOneByOne() {
+    // Given
+    AuditLog copied =
+        createTestAuditLog(
+            "\u00e9lodie", AuditAction.SEARCH, "Search: \u043d\u043e\u0443\u0442 \ud83d\udcbb");
+    copied.setTimestamp(LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_932));
+    AuditLog inserted = AuditLog.fromAuditLog(copied);
+    inserted.setUsername("inserted");
+
+    // When
+    auditRepository.saveAll(List.of(copied));
+    auditRepository.save(inserted);
+
+    // Then
+    AuditLog found = findLogs(copied.getUsername()).get(0);
+    assertThat(found.getDetails()).isEqualTo(copied.getDetails());
+    assertThat(found.getAction()).isEqualTo(AuditAction.SEARCH);
+    assertThat(found.getTimestamp())
+        .isEqualTo(findLogs("inserted").get(0).getTimestamp());
+  }
+
+  @Test
+  void saveAllIfAbsent_ShouldSkipLogsSavedBefore_WithSameEventId() {
+    // Given
+    AuditLog copied = createTestAuditLog("user", AuditAction.SEARCH, "copied");
+    copied.setTimestamp(LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_932));
+    copied.setEventId(UUID.randomUUID());
+    AuditLog inserted = createTestAuditLog("user", AuditAction.SEARCH, "inserted");
+    inserted.setEventId(UUID.randomUUID());
+    AuditLog withoutEventId = createTestAuditLog("user", AuditAction.SEARCH, "without event id");
+    auditRepository.saveAll(List.of(copied));
+    auditRepository.save(inserted);
+
+    // When
+    int saved = auditRepository.saveAllIfAbsent(List.of(copied, inserted, withoutEventId));
+
+    // Then
+    assertThat(saved).isEqualTo(1);
+    assertThat(findLogs("user"))
+        .extracting(AuditLog::getDetails)
+        .containsExactlyInAnyOrder("copied", "inserted", "without event id");
+    assertThat(findLogs("user"))
+        .extracting(AuditLog::getEventId)
+        .contains(copied.getEventId(), inserted.getEventId());
+  }
+
+  @Test
+  void findPage_ShouldReturnEveryLogOnceNewestFirst_WhenTimestampsAreEqual() {
+    // Given, logs within one partition, most of them written at the same time
+    LocalDateTime noon = YearMonth.now().atDay(1).atTime(12, 0);
+    List<AuditLog> auditLogs = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      AuditLog auditLog = createTestAuditLog("user", AuditAction.SEARCH, "search " + i);
+      auditLog.setTimestamp(i < 3 ? noon.minusMinutes(i + 1) : noon);
+      auditLogs.add(auditLog);
+    }
+    auditRepository.saveAll(auditLogs);
+    AuditQuery query = AuditQuery.builder().build();
+
+    // When
+    List<AuditLog> read = new ArrayList<>();
+    AuditCursor after = null;
+    for (List<AuditLog> page = auditRepository.findPage(query, after, 3);
+        !page.isEmpty();
+        page = auditRepository.findPage(query, after, 3)) {
+      assertThat(page).hasSizeLessThanOrEqualTo(3);
+      read.addAll(page);
+      after = AuditCursor.of(page.get(page.size() - 1));
+    }
+
+    // Then
+    assertThat(read).containsExactlyInAnyOrderElementsOf(auditLogs);
+    assertThat(read)
+        .isSortedAccordingTo(
+            Comparator.comparing(AuditLog::getTimestamp)
+                .thenComparing(AuditLog::getId)
+                .reversed());
+  }
+
+  @Test
+  void findPage_ShouldReturnOnlyLogsMatchingAllFilters() {
+    // Given
+    LocalDateTime noon = YearMonth.now().atDay(1).atTime(12, 0);
+    AuditLog matching = createTestAuditLog("alice", AuditAction.LOGIN, "matching");
+    matching.setTimestamp(noon);
+    AuditLog otherUser = createTestAuditLog("bob", AuditAction.LOGIN, "other user");
+    otherUser.setTimestamp(noon);
+    AuditLog otherAction = createTestAuditLog("alice", AuditAction.LOGOUT, "other action");
+    otherAction.setTimestamp(noon);
+    AuditLog atTo = createTestAuditLog("alice", AuditAction.LOGIN, "at to");
+    atTo.setTimestamp(noon.plusHours(1));
+    AuditLog atFrom = createTestAuditLog("alice", AuditAction.LOGIN, "at from");
+    atFrom.setTimestamp(noon.minusHours(1));
+    auditRepository.saveAll(List.of(matching, otherUser, otherAction, atTo, atFrom));
+    AuditQuery query =
+        AuditQuery.builder()
+            .username("alice")
+            .action(AuditAction.LOGIN)
+            .from(noon.minusHours(1))
+            .to(noon.plusHours(1))
+            .build();
+
+    // When
+    List<AuditLog> page = auditRepository.findPage(query, null, 10);
+
+    // Then
+    assertThat(page).extracting(AuditLog::getDetails).containsExactly("matching", "at from");
+  }
+
+  @Test
+  void stream_ShouldPassMatchingLogsNewestFirst_WhenResultExceedsFetchSize() {
+    // Given
+    LocalDateTime start = YearMonth.now().atDay(1).atStartOfDay();
+    int count = JdbcAuditRepository.STREAM_FETCH_SIZE * 2 + 1;
+    List<AuditLog> logs = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      AuditLog auditLog = createTestAuditLog("user" + i % 2, AuditAction.SEARCH, "Search " + i);
+      auditLog.setTimestamp(start.plusSeconds(i));
+      logs.add(auditLog);
+    }
+    auditRepository.saveAll(logs);
+    long readsBefore = connectionManager.getMetrics().reads().count();
+    List<LocalDateTime> timestamps = new ArrayList<>();
+
+    // When
+    long streamed =
+        auditRepository.stream(
+            AuditQuery.builder().username("user0").build(),
+            auditLog -> timestamps.add(auditLog.getTimestamp()));
+
+    // Then
+    assertThat(streamed).isEqualTo(count / 2 + 1);
+    assertThat(timestamps)
+        .hasSize(count / 2 + 1)
+        .isSortedAccordingTo(Comparator.reverseOrder())
+        .startsWith(start.plusSeconds(count - 1));
+    assertThat(connectionManager.getMetrics().reads().count()).isEqualTo(readsBefore + 1);
+  }
+
+  @Test
+  void findPage_ShouldReturnEmptyList_WhenNoLogsExist() {
     // When
-    List<AuditLog> logs = auditRepository.findAll();
+    List<AuditLog> logs = findLogs(null);
 
     // Then
     assertThat(logs).isEmpty();
@@ -2,11 +2,19 @@ package org.example.repository.impl.database;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.tuple;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import org.example.configuration.LiquibaseConfigurationUpdater;
+import org.example.dto.PriceBucket;
+import org.example.dto.ProductFacets;
+import org.example.dto.ProductSort;
+import org.example.dto.SearchCriteria;
 import org.example.exception.DataAccessException;
 import org.example.model.Product;
 import org.junit.jupiter.api.Test;
@@ -106,6 +114,29 @@ class JdbcProductRepositoryTest extends BaseRepositoryTest {
     assertThat(foundProduct).isEmpty();
   }
 
+  @Test
+  void findAllById_ShouldReturnExistingProducts() {
+    // Given
+    Product laptop =
+        productRepository.save(
+            createTestProduct(
+                "Laptop", "Gaming laptop", "Electronics", "Dell", new BigDecimal("999.99")));
+    Product mouse =
+        productRepository.save(
+            createTestProduct(
+                "Mouse", "Wireless mouse", "Electronics", "Logitech", new BigDecimal("29.99")));
+
+    // When
+    List<Product> found =
+        productRepository.findAllById(List.of(mouse.getId(), laptop.getId(), 999L));
+
+    // Then
+    assertThat(found)
+        .extracting(Product::getName)
+        .containsExactlyInAnyOrder("Laptop", "Mouse");
+    assertThat(productRepository.findAllById(List.of())).isEmpty();
+  }
+
   @Test
   void findAll_ShouldReturnAllProducts() {
     // Given
@@ -133,6 +164,112 @@ class JdbcProductRepositoryTest extends BaseRepositoryTest {
         .containsExactlyInAnyOrder("Laptop", "Mouse", "Book");
   }
 
+  @Test
+  void findPage_ShouldReturnProductsAfterCursor_OrderedById() {
+    // Given
+    Product first =
+        productRepository.save(
+            createTestProduct("A", "First", "Books", "TechPress", new BigDecimal("1.00")));
+    Product second =
+        productRepository.save(
+            createTestProduct("B", "Second", "Books", "TechPress", new BigDecimal("2.00")));
+    Product third =
+        productRepository.save(
+            createTestProduct("C", "Third", "Books", "TechPress", new BigDecimal("3.00")));
+
+    // When
+    List<Product> firstPage = productRepository.findPage(null, 2);
+    List<Product> secondPage = productRepository.findPage(firstPage.get(1).getId(), 2);
+
+    // Then
+    assertThat(firstPage).extracting(Product::getId).containsExactly(first.getId(), second.getId());
+    assertThat(secondPage).extracting(Product::getId).containsExactly(third.getId());
+    assertThat(productRepository.findPage(third.getId(), 2)).isEmpty();
+  }
+
+  @Test
+  void streamAll_ShouldPassAllProductsOrderedById_WhenResultExceedsFetchSize() {
+    // Given
+    int total = JdbcProductRepository.STREAM_FETCH_SIZE + 1;
+    for (int i = 0; i < total; i++) {
+      productRepository.save(
+          createTestProduct("Product" + i, "Description", "Books", "TechPress", BigDecimal.ONE));
+    }
+    long readsBefore = connectionManager.getMetrics().reads().count();
+    List<Long> ids = new ArrayList<>();
+
+    // When
+    long count = productRepository.streamAll(product -> ids.add(product.getId()));
+
+    // Then
+    assertThat(count).isEqualTo(total);
+    assertThat(ids).hasSize(total).isSorted();
+    assertThat(connectionManager.getMetrics().reads().count()).isEqualTo(readsBefore + 1);
+  }
+
+  @Test
+  void findAll_ShouldBeExecutedAsReadOnlyOperation() {
+    // Given
+    long readsBefore = connectionManager.getMetrics().reads().count();
+    long writesBefore = connectionManager.getMetrics().writes().count();
+
+    // When
+    productRepository.findAll();
+
+    // Then
+    assertThat(connectionManager.getMetrics().reads().count()).isEqualTo(readsBefore + 1);
+    assertThat(connectionManager.getMetrics().writes().count()).isEqualTo(writesBefore);
+  }
+
+  @Test
+  void doInTransaction_ShouldNotCommitChanges_WhenFunctionThrowsError() {
+    // Given
+    Product product =
+        productRepository.save(
+            createTestProduct("Mouse", "Wireless", "Electronics", "Logitech", BigDecimal.TEN));
+
+    // When
+    assertThatThrownBy(
+            () ->
+                connectionManager.doInTransaction(
+                    connection -> {
+                      try (var statement = connection.createStatement()) {
+                        statement.executeUpdate("delete from products");
+                      } catch (SQLException e) {
+                        throw new RuntimeException(e);
+                      }
+                      throw new StackOverflowError();
+                    }))
+        .isInstanceOf(StackOverflowError.class);
+
+    // Then
+    assertThat(productRepository.findById(product.getId())).isPresent();
+  }
+
+  @Test
+  void doInReadOnlyTransaction_ShouldRejectWrites() {
+    // Given
+    Product product =
+        productRepository.save(
+            createTestProduct("Mouse", "Wireless", "Electronics", "Logitech", BigDecimal.TEN));
+
+    // When
+    assertThatThrownBy(
+            () ->
+                connectionManager.doInReadOnlyTransaction(
+                    connection -> {
+                      try (var statement = connection.createStatement()) {
+                        return statement.executeUpdate("delete from products");
+                      } catch (SQLException e) {
+                        throw new DataAccessException("Delete failed", e);
+                      }
+                    }))
+        .isInstanceOf(DataAccessException.class);
+
+    // Then
+    assertThat(productRepository.findById(product.getId())).isPresent();
+  }
+
   @Test
   void findAll_ShouldReturnEmptyList_WhenNoProductsExist() {
     // When
@@ -171,145 +308,241 @@ class JdbcProductRepositoryTest extends BaseRepositoryTest {
   }
 
   @Test
-  void searchByName_ShouldReturnProducts_WhenNameMatches() {
+  void search_ShouldApplyAllCriteriaInQuery() {
     // Given
-    Product product1 =
-        createTestProduct(
-            "Gaming Laptop",
-            "High-end gaming laptop",
-            "Electronics",
-            "Dell",
-            new BigDecimal("1299.99"));
-    Product product2 =
-        createTestProduct(
-            "Office Laptop", "Business laptop", "Electronics", "Lenovo", new BigDecimal("899.99"));
-    Product product3 =
-        createTestProduct(
-            "Gaming Mouse", "RGB gaming mouse", "Electronics", "Razer", new BigDecimal("59.99"));
-
-    productRepository.save(product1);
-    productRepository.save(product2);
-    productRepository.save(product3);
+    productRepository.save(
+        createTestProduct("Gaming Mouse", "Desc", "Electronics", "Logitech", new BigDecimal("50")));
+    productRepository.save(
+        createTestProduct("Office Mouse", "Desc", "Electronics", "Logitech", new BigDecimal("15")));
+    productRepository.save(
+        createTestProduct("Gaming Mouse", "Desc", "Electronics", "Razer", new BigDecimal("60")));
+    productRepository.save(
+        createTestProduct("Mouse Pad", "Desc", "Accessories", "Logitech", new BigDecimal("40")));
+    SearchCriteria criteria =
+        SearchCriteria.builder()
+            .name(" MOUSE ")
+            .category("electronics")
+            .brand("logitech")
+            .minPrice(new BigDecimal("20"))
+            .build();
 
     // When
-    List<Product> gamingProducts = productRepository.searchByName("gaming");
+    List<Product> results = productRepository.search(criteria);
 
     // Then
-    assertThat(gamingProducts).hasSize(2);
-    assertThat(gamingProducts)
-        .extracting(Product::getName)
-        .containsExactlyInAnyOrder("Gaming Laptop", "Gaming Mouse");
+    assertThat(results).extracting(Product::getName).containsExactly("Gaming Mouse");
+    assertThat(results).extracting(Product::getBrand).containsExactly("Logitech");
   }
 
   @Test
-  void searchByName_ShouldReturnEmptyList_WhenNoMatches() {
+  void search_ShouldReturnFirstProductsInSortOrder_WhenLimitIsSet() {
     // Given
-    Product product =
-        createTestProduct(
-            "Laptop", "Standard laptop", "Electronics", "Dell", new BigDecimal("799.99"));
-    productRepository.save(product);
+    productRepository.save(
+        createTestProduct("Mouse B", "Desc", "Electronics", "Logitech", new BigDecimal("50")));
+    productRepository.save(
+        createTestProduct("Mouse A", "Desc", "Electronics", "Razer", new BigDecimal("15")));
+    productRepository.save(
+        createTestProduct("Mouse C", "Desc", "Electronics", "Razer", new BigDecimal("50")));
+    productRepository.save(
+        createTestProduct("Mouse Pad", "Desc", "Accessories", "Logitech", new BigDecimal("5")));
+    SearchCriteria cheapest =
+        SearchCriteria.builder().category("electronics").sort(ProductSort.PRICE).limit(2).build();
+    SearchCriteria byNameDescending =
+        SearchCriteria.builder()
+            .category("electronics")
+            .sort(ProductSort.NAME)
+            .descending(true)
+            .build();
 
     // When
-    List<Product> results = productRepository.searchByName("nonexistent");
+    List<Product> cheapestResults = productRepository.search(cheapest);
+    List<Product> byNameResults = productRepository.search(byNameDescending);
 
     // Then
-    assertThat(results).isEmpty();
+    assertThat(cheapestResults).extracting(Product::getName).containsExactly("Mouse A", "Mouse B");
+    assertThat(byNameResults)
+        .extracting(Product::getName)
+        .containsExactly("Mouse C", "Mouse B", "Mouse A");
+    assertThat(productRepository.searchSql(cheapest)).endsWith(" ORDER BY price, id LIMIT ?");
   }
 
   @Test
-  void filterByCategory_ShouldReturnProducts_WhenCategoryMatches() {
+  void search_ShouldReturnSameProducts_WhenSplitIntoIdRanges() {
     // Given
-    Product product1 =
-        createTestProduct(
-            "Laptop", "Gaming laptop", "Electronics", "Dell", new BigDecimal("999.99"));
-    Product product2 =
-        createTestProduct(
-            "Java Book", "Programming book", "Books", "O'Reilly", new BigDecimal("49.99"));
-    Product product3 =
-        createTestProduct(
-            "Mouse", "Wireless mouse", "Electronics", "Logitech", new BigDecimal("29.99"));
+    JdbcProductRepository partitionedRepository =
+        new JdbcProductRepository(connectionManager, 3, 1, 10000);
+    String[] brands = {"Logitech", "Razer", "Dell"};
+    for (int i = 0; i < 30; i++) {
+      productRepository.save(
+          createTestProduct(
+              "Mouse " + (i % 7),
+              "Desc",
+              i % 2 == 0 ? "Electronics" : "Accessories",
+              brands[i % brands.length],
+              new BigDecimal(i % 10)));
+    }
+    List<SearchCriteria> searches =
+        List.of(
+            SearchCriteria.builder().category("electronics").build(),
+            SearchCriteria.builder().name("mouse").sort(ProductSort.PRICE).limit(4).build(),
+            SearchCriteria.builder()
+                .brand("razer")
+                .sort(ProductSort.NAME)
+                .descending(true)
+                .build());
+
+    try {
+      for (SearchCriteria criteria : searches) {
+        // When
+        List<Product> partitioned = partitionedRepository.search(criteria);
+        List<Long> single =
+            productRepository.search(criteria).stream()
+                .sorted(criteria.comparator())
+                .map(Product::getId)
+                .toList();
+
+        // Then
+        assertThat(partitioned)
+            .isNotEmpty()
+            .extracting(Product::getId)
+            .containsExactlyElementsOf(single);
+      }
+    } finally {
+      partitionedRepository.destroy();
+    }
+  }
 
-    productRepository.save(product1);
-    productRepository.save(product2);
-    productRepository.save(product3);
+  @Test
+  void search_ShouldFindProductsOutsideOfReadIdSpan_WhenSplitIntoIdRanges() {
+    // Given
+    JdbcProductRepository partitionedRepository =
+        new JdbcProductRepository(connectionManager, 3, 1, 10000);
+    for (int i = 0; i < 10; i++) {
+      productRepository.save(
+          createTestProduct("Mouse " + i, "Desc", "Electronics", "Logitech", BigDecimal.TEN));
+    }
+    SearchCriteria criteria = SearchCriteria.builder().brand("logitech").build();
+
+    try {
+      assertThat(partitionedRepository.search(criteria)).hasSize(10);
+      // saved by another instance, so the id span read by the first search is not widened
+      Product saved =
+          productRepository.save(
+              createTestProduct("Mouse X", "Desc", "Electronics", "Logitech", BigDecimal.ONE));
+
+      // When
+      List<Product> found = partitionedRepository.search(criteria);
+
+      // Then
+      assertThat(found).hasSize(11).extracting(Product::getId).contains(saved.getId());
+    } finally {
+      partitionedRepository.destroy();
+    }
+  }
+
+  @Test
+  void search_ShouldMatchIdTogetherWithOtherCriteria() {
+    // Given
+    Product saved =
+        productRepository.save(
+            createTestProduct("Laptop", "Desc", "Electronics", "Dell", new BigDecimal("999")));
+    productRepository.save(
+        createTestProduct("Laptop", "Desc", "Electronics", "Dell", new BigDecimal("999")));
 
     // When
-    List<Product> electronics = productRepository.filterByCategory("Electronics");
+    List<Product> matching =
+        productRepository.search(SearchCriteria.builder().id(saved.getId()).brand("Dell").build());
+    List<Product> notMatching =
+        productRepository.search(SearchCriteria.builder().id(saved.getId()).brand("HP").build());
 
     // Then
-    assertThat(electronics).hasSize(2);
-    assertThat(electronics)
-        .extracting(Product::getName)
-        .containsExactlyInAnyOrder("Laptop", "Mouse");
+    assertThat(matching).extracting(Product::getId).containsExactly(saved.getId());
+    assertThat(notMatching).isEmpty();
   }
 
   @Test
-  void filterByBrand_ShouldReturnProducts_WhenBrandMatches() {
+  void search_ShouldTreatLikeWildcardsInNameAsText() {
     // Given
-    Product product1 =
-        createTestProduct("Laptop1", "Laptop", "Electronics", "Dell", new BigDecimal("999.99"));
-    Product product2 =
-        createTestProduct("Laptop2", "Laptop", "Electronics", "HP", new BigDecimal("899.99"));
-    Product product3 =
-        createTestProduct("Monitor", "Monitor", "Electronics", "Dell", new BigDecimal("299.99"));
-
-    productRepository.save(product1);
-    productRepository.save(product2);
-    productRepository.save(product3);
+    productRepository.save(
+        createTestProduct("100% cotton", "Desc", "Clothes", "Brand", new BigDecimal("10")));
+    productRepository.save(
+        createTestProduct("100 cotton", "Desc", "Clothes", "Brand", new BigDecimal("10")));
 
     // When
-    List<Product> dellProducts = productRepository.filterByBrand("Dell");
+    List<Product> results =
+        productRepository.search(
+            SearchCriteria.builder().name("100%").category("clothes").build());
 
     // Then
-    assertThat(dellProducts).hasSize(2);
-    assertThat(dellProducts)
-        .extracting(Product::getName)
-        .containsExactlyInAnyOrder("Laptop1", "Monitor");
+    assertThat(results).extracting(Product::getName).containsExactly("100% cotton");
   }
 
   @Test
-  void filterByPriceRange_ShouldReturnProducts_WithinPriceRange() {
+  void fullTextSearch_ShouldMatchDescriptionAndRankNameMatchesFirst() {
     // Given
-    Product product1 =
-        createTestProduct("Cheap Mouse", "Mouse", "Electronics", "BrandA", new BigDecimal("19.99"));
-    Product product2 =
-        createTestProduct("Mid Mouse", "Mouse", "Electronics", "BrandB", new BigDecimal("49.99"));
-    Product product3 =
+    productRepository.save(
         createTestProduct(
-            "Expensive Mouse", "Mouse", "Electronics", "BrandC", new BigDecimal("99.99"));
-    Product product4 =
+            "Desk Lamp", "Lamp with a wireless charger", "Home", "Brand", BigDecimal.TEN));
+    productRepository.save(
         createTestProduct(
-            "Very Expensive Mouse", "Mouse", "Electronics", "BrandD", new BigDecimal("199.99"));
-
-    productRepository.save(product1);
-    productRepository.save(product2);
-    productRepository.save(product3);
-    productRepository.save(product4);
+            "Wireless Charger", "Fast charging pad", "Electronics", "Brand", BigDecimal.TEN));
+    productRepository.save(
+        createTestProduct("Cable", "Braided usb cable", "Electronics", "Brand", BigDecimal.TEN));
 
     // When
-    List<Product> midRangeProducts =
-        productRepository.filterByPriceRange(new BigDecimal("30.00"), new BigDecimal("100.00"));
+    List<Product> results = productRepository.fullTextSearch("wireless chargers", 10);
 
     // Then
-    assertThat(midRangeProducts).hasSize(2);
-    assertThat(midRangeProducts)
+    assertThat(results)
         .extracting(Product::getName)
-        .containsExactlyInAnyOrder("Mid Mouse", "Expensive Mouse");
+        .containsExactly("Wireless Charger", "Desk Lamp");
   }
 
   @Test
-  void filterByPriceRange_ShouldReturnEmptyList_WhenNoProductsInRange() {
+  void fullTextSearch_ShouldApplyLimitAndExcludedWords() {
     // Given
-    Product product =
-        createTestProduct("Product", "Description", "Category", "Brand", new BigDecimal("100.00"));
-    productRepository.save(product);
+    productRepository.save(
+        createTestProduct("Red Mouse", "Wireless mouse", "Electronics", "A", BigDecimal.TEN));
+    productRepository.save(
+        createTestProduct("Blue Mouse", "Wired mouse", "Electronics", "B", BigDecimal.TEN));
+    productRepository.save(
+        createTestProduct("Green Mouse", "Wired mouse", "Electronics", "C", BigDecimal.TEN));
 
     // When
-    List<Product> results =
-        productRepository.filterByPriceRange(new BigDecimal("200.00"), new BigDecimal("300.00"));
+    List<Product> limited = productRepository.fullTextSearch("mouse", 2);
+    List<Product> excluded = productRepository.fullTextSearch("mouse -wired", 10);
+
+    // Then
+    assertThat(limited).hasSize(2);
+    assertThat(excluded).extracting(Product::getName).containsExactly("Red Mouse");
+  }
+
+  @Test
+  void countFacets_ShouldCountMatchingProductsPerCategoryBrandAndPriceBucket() {
+    // Given
+    productRepository.save(
+        createTestProduct("Mouse", "Mouse", "Electronics", "Logitech", new BigDecimal("15")));
+    productRepository.save(
+        createTestProduct("Keyboard", "Keyboard", "Electronics", "Logitech", new BigDecimal("50")));
+    productRepository.save(
+        createTestProduct("Monitor", "Monitor", "Electronics", "Dell", new BigDecimal("300")));
+    productRepository.save(
+        createTestProduct("Novel", "Novel", "Books", "Penguin", new BigDecimal("12")));
+    SearchCriteria criteria = SearchCriteria.builder().minPrice(new BigDecimal("13")).build();
+    List<BigDecimal> priceBounds = List.of(new BigDecimal("50"), new BigDecimal("100"));
+
+    // When
+    ProductFacets facets = productRepository.countFacets(criteria, priceBounds);
 
     // Then
-    assertThat(results).isEmpty();
+    assertThat(facets.getCategories()).containsExactly(entry("Electronics", 3L));
+    assertThat(facets.getBrands()).containsExactly(entry("Logitech", 2L), entry("Dell", 1L));
+    assertThat(facets.getPrices())
+        .extracting(PriceBucket::getFrom, PriceBucket::getTo, PriceBucket::getCount)
+        .containsExactly(
+            tuple(null, new BigDecimal("50"), 1L),
+            tuple(new BigDecimal("50"), new BigDecimal("100"), 1L),
+            tuple(new BigDecimal("100"), null, 1L));
   }
 
   @Test
@@ -0,0 +1,180 @@
+package org.example.repository.impl.database;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+import org.example.configuration.LiquibaseConfigurationUpdater;
+import org.example.dto.AuditCursor;
+import org.example.dto.AuditQuery;
+import org.example.dto.SearchCriteria;
+import org.example.model.AuditAction;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+/**
+ * Checks that queries issued by repositories can be served by indexes. Test tables are tiny, so
+ * sequential scans are disabled to make the planner show which index it would use.
+ */
+@SpringJUnitConfig(
+    classes = {
+      JdbcProductRepository.class,
+      JdbcAuditRepository.class,
+      ConnectionManager.class,
+      LiquibaseConfigurationUpdater.class
+    })
+class QueryPlanTest extends BaseRepositoryTest {
+
+  @Autowired JdbcProductRepository productRepository;
+
+  private String explain(String sql, Object... parameters) {
+    return connectionManager.doInTransaction(
+        connection -> {
+          try (Statement statement = connection.createStatement()) {
+            statement.execute("SET LOCAL enable_seqscan = off");
+          } catch (SQLException e) {
+            throw new RuntimeException(e);
+          }
+          try (PreparedStatement stmt = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < parameters.length; i++) {
+              stmt.setObject(i + 1, parameters[i]);
+            }
+            StringJoiner plan = new StringJoiner("\n");
+            try (ResultSet rs = stmt.executeQuery()) {
+              while (rs.next()) {
+                plan.add(rs.getString(1));
+              }
+            }
+            return plan.toString();
+          } catch (SQLException e) {
+            throw new RuntimeException(e);
+          }
+        });
+  }
+
+  @Test
+  void search_ShouldUseTrigramIndex_ForNameFilter() {
+    // When
+    String plan =
+        explain(
+            productRepository.searchSql(SearchCriteria.builder().name("mouse").build()),
+            "%mouse%");
+
+    // Then
+    assertThat(plan).contains("idx_products_name_trgm");
+  }
+
+  @Test
+  void search_ShouldUsePriceIndex_ForPriceRange() {
+    // Given
+    SearchCriteria criteria =
+        SearchCriteria.builder()
+            .minPrice(new BigDecimal("10.00"))
+            .maxPrice(new BigDecimal("20.00"))
+            .build();
+
+    // When
+    String plan =
+        explain(
+            productRepository.searchSql(criteria),
+            new BigDecimal("10.00"),
+            new BigDecimal("20.00"));
+
+    // Then
+    assertThat(plan).contains("idx_products_price");
+  }
+
+  @Test
+  void fullTextSearch_ShouldUseSearchVectorIndex() {
+    // When
+    String plan = explain(JdbcProductRepository.FULL_TEXT_SEARCH_SQL, "wireless mouse", 10);
+
+    // Then
+    assertThat(plan).contains("idx_products_search_vector");
+  }
+
+  @Test
+  void search_ShouldUseCaseInsensitiveIndexes_ForCategoryAndBrand() {
+    // When
+    String categoryPlan =
+        explain(
+            productRepository.searchSql(SearchCriteria.builder().category("books").build()),
+            "books");
+    String brandPlan =
+        explain(
+            productRepository.searchSql(SearchCriteria.builder().brand("dell").build()), "dell");
+
+    // Then
+    assertThat(categoryPlan).contains("idx_products_category_lower");
+    assertThat(brandPlan).contains("idx_products_brand_lower");
+  }
+
+  @Test
+  void findAuditLogPage_ShouldSeekTimestampIdIndex_WithoutSorting() {
+    // Given
+    YearMonth month = YearMonth.now();
+    AuditQuery query =
+        AuditQuery.builder()
+            .from(month.atDay(1).atStartOfDay())
+            .to(month.plusMonths(1).atDay(1).atStartOfDay())
+            .build();
+    AuditCursor after = new AuditCursor(month.atDay(2).atStartOfDay(), 100);
+    List<Object> parameters = new ArrayList<>();
+    String sql = JdbcAuditRepository.findPageSql(query, after, parameters);
+    parameters.add(100);
+
+    // When
+    String plan = explain(sql, parameters.toArray());
+
+    // Then, cursor is an index condition, not a filter of rows read
+    assertThat(plan)
+        .contains("_timestamp_id_idx")
+        .containsPattern("Index Cond: .*ROW\\(")
+        .doesNotContain("_username_")
+        .doesNotContain("Sort")
+        .doesNotContain(JdbcAuditPartitionRepository.partitionName(month.plusMonths(1)));
+  }
+
+  @Test
+  void findAuditLogPageOfUser_ShouldSeekUsernameTimestampIdIndex_WithoutSorting() {
+    // Given
+    AuditQuery query =
+        AuditQuery.builder().username("admin").action(AuditAction.LOGIN).build();
+    AuditCursor after = new AuditCursor(YearMonth.now().atDay(2).atStartOfDay(), 100);
+    List<Object> parameters = new ArrayList<>();
+    String sql = JdbcAuditRepository.findPageSql(query, after, parameters);
+    parameters.add(100);
+
+    // When
+    String plan = explain(sql, parameters.toArray());
+
+    // Then, indexes of partitions are named after partition and the parent index columns
+    assertThat(plan).contains("_username_timestamp_id_idx").doesNotContain("Sort");
+  }
+
+  @Test
+  void findAuditLogsOfMonth_ShouldReadOnlyPartitionOfTheMonth() {
+    // Given
+    YearMonth month = YearMonth.now();
+    String sql =
+        "SELECT id FROM audit_logs WHERE timestamp >= '%s' AND timestamp < '%s'"
+            .formatted(month.atDay(1), month.plusMonths(1).atDay(1));
+
+    // When
+    String plan = explain(sql);
+
+    // Then
+    assertThat(plan)
+        .contains(JdbcAuditPartitionRepository.partitionName(month))
+        .doesNotContain(JdbcAuditPartitionRepository.partitionName(month.plusMonths(1)))
+        .doesNotContain(JdbcAuditPartitionRepository.DEFAULT_PARTITION);
+  }
+}
@@ -0,0 +1,191 @@
+package org.example.repository.impl.spool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.example.exception.DataAccessException;
+import org.example.model.AuditAction;
+import org.example.model.AuditLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditSpoolTest {
+  private static final int SEGMENT_SIZE = 512;
+
+  @TempDir Path directory;
+
+  private AuditSpool openSpool() {
+    return new AuditSpool(directory.toString(), SEGMENT_SIZE);
+  }
+
+  private static AuditLog createAuditLog(String details) {
+    AuditLog auditLog = new AuditLog();
+    auditLog.setTimestamp(LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_932));
+    auditLog.setUsername("alice");
+    auditLog.setAction(AuditAction.SEARCH);
+    auditLog.setDetails(details);
+    return auditLog;
+  }
+
+  private List<Path> segmentFiles() throws IOException {
+    try (Stream<Path> files = Files.list(directory)) {
+      return files.sorted().toList();
+    }
+  }
+
+  @Test
+  void peek_ShouldReturnAppendedRecordsInOrder_UntilCommitted() {
+    // Given
+    AuditSpool spool = openSpool();
+    AuditLog first = createAuditLog("first");
+    AuditLog withoutDetails = createAuditLog(null);
+    spool.append(first);
+    spool.append(withoutDetails);
+    spool.append(createAuditLog("third"));
+
+    // When
+    List<AuditLog> peeked = spool.peek(2);
+
+    // Then
+    assertThat(peeked).containsExactly(first, withoutDetails);
+    assertThat(spool.peek(2)).containsExactly(first, withoutDetails);
+
+    // When
+    spool.commit();
+
+    // Then
+    assertThat(spool.pending()).isEqualTo(1);
+    assertThat(spool.peek(10)).extracting(AuditLog::getDetails).containsExactly("third");
+  }
+
+  @Test
+  void append_ShouldRotateSegments_AndDeleteReplayedOnes() throws IOException {
+    // Given
+    AuditSpool spool = openSpool();
+    for (int i = 0; i < 30; i++) {
+      spool.append(createAuditLog("record " + i));
+    }
+    assertThat(spool.segments()).isGreaterThan(2);
+    int segments = spool.segments();
+
+    // When
+    List<AuditLog> firstSegment = spool.peek(100);
+    spool.commit();
+
+    // Then
+    assertThat(firstSegment).isNotEmpty().hasSizeLessThan(30);
+    assertThat(firstSegment.get(0).getDetails()).isEqualTo("record 0");
+    assertThat(spool.segments()).isEqualTo(segments - 1);
+    assertThat(segmentFiles()).hasSize(segments - 1);
+    assertThat(spool.peek(1).get(0).getDetails()).isEqualTo("record " + firstSegment.size());
+  }
+
+  @Test
+  void openSpool_ShouldRecoverRecordsNotReplayed_AfterCrash() {
+    // Given
+    AuditSpool crashed = openSpool();
+    for (int i = 0; i < 20; i++) {
+      crashed.append(createAuditLog("record " + i));
+    }
+    crashed.peek(3);
+    crashed.commit();
+
+    // When
+    AuditSpool recovered = openSpool();
+    recovered.append(createAuditLog("after restart"));
+
+    // Then
+    assertThat(recovered.pending()).isEqualTo(18);
+    StringBuilder replayed = new StringBuilder();
+    for (List<AuditLog> batch = recovered.peek(5); !batch.isEmpty(); batch = recovered.peek(5)) {
+      batch.forEach(auditLog -> replayed.append(auditLog.getDetails()).append(';'));
+      recovered.commit();
+    }
+    assertThat(replayed.toString()).startsWith("record 3;record 4;").endsWith("after restart;");
+    assertThat(recovered.pending()).isZero();
+  }
+
+  @Test
+  void openSpool_ShouldDropRecordsFromFirstDamagedOne() throws IOException {
+    // Given
+    AuditSpool crashed = openSpool();
+    crashed.append(createAuditLog("intact"));
+    crashed.append(createAuditLog("torn"));
+    crashed.append(createAuditLog("after torn"));
+    crashed.close();
+    Path segment = segmentFiles().get(0);
+    int tornPayload = Files.readString(segment, StandardCharsets.ISO_8859_1).indexOf("torn");
+    try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+      file.seek(tornPayload);
+      file.write('T');
+    }
+
+    // When
+    AuditSpool recovered = openSpool();
+    recovered.append(createAuditLog("after restart"));
+
+    // Then
+    assertThat(recovered.peek(10))
+        .extracting(AuditLog::getDetails)
+        .containsExactly("intact", "after restart");
+  }
+
+  @Test
+  void peek_ShouldReturnEventIdsOfAppendedRecords() {
+    // Given
+    AuditSpool spool = openSpool();
+    AuditLog withEventId = createAuditLog("with event id");
+    withEventId.setEventId(UUID.randomUUID());
+    spool.append(withEventId);
+    spool.append(createAuditLog("without event id"));
+    spool.close();
+
+    // When
+    List<AuditLog> peeked = openSpool().peek(10);
+
+    // Then
+    assertThat(peeked)
+        .extracting(AuditLog::getEventId)
+        .containsExactly(withEventId.getEventId(), null);
+  }
+
+  @Test
+  void deadLetter_ShouldAppendRecordsAsLines() throws IOException {
+    // Given
+    AuditSpool spool = openSpool();
+    AuditLog auditLog = createAuditLog("two\nlines");
+    auditLog.setEventId(UUID.randomUUID());
+
+    // When
+    spool.deadLetter(auditLog);
+    spool.deadLetter(createAuditLog("second"));
+
+    // Then
+    assertThat(Files.readAllLines(directory.resolve(AuditSpool.DEAD_LETTER_FILE)))
+        .containsExactly(
+            "2025-03-14T15:09:26.535897932\t%s\talice\tSEARCH\ttwo\\nlines"
+                .formatted(auditLog.getEventId()),
+            "2025-03-14T15:09:26.535897932\tnull\talice\tSEARCH\tsecond");
+    assertThat(spool.pending()).isZero();
+  }
+
+  @Test
+  void append_ShouldThrow_WhenRecordDoesNotFitIntoSegment() {
+    // Given
+    AuditSpool spool = openSpool();
+
+    // When & Then
+    assertThatThrownBy(() -> spool.append(createAuditLog("x".repeat(SEGMENT_SIZE))))
+        .isInstanceOf(DataAccessException.class);
+    assertThat(spool.pending()).isZero();
+  }
+}
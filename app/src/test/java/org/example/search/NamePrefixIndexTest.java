@@ -0,0 +1,115 @@
+package org.example.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class NamePrefixIndexTest {
+
+  private NamePrefixIndex namePrefixIndex;
+
+  @BeforeEach
+  void setUp() {
+    namePrefixIndex = new NamePrefixIndex();
+    namePrefixIndex.addAll(
+        List.of("Laptop Stand", "Gaming Laptop", "Laptop", "laptop", "Lamp", "Lapel Pin"));
+  }
+
+  @Test
+  void suggest_ShouldReturnDistinctNamesStartingWithPrefix_Alphabetically() {
+    // When
+    List<String> suggestions = namePrefixIndex.suggest("LAP", 10);
+
+    // Then
+    assertThat(suggestions).containsExactly("Lapel Pin", "Laptop", "Laptop Stand");
+  }
+
+  @Test
+  void suggest_ShouldStopAtLimit() {
+    // When
+    List<String> suggestions = namePrefixIndex.suggest("la", 2);
+
+    // Then
+    assertThat(suggestions).containsExactly("Lamp", "Lapel Pin");
+    assertThat(namePrefixIndex.suggest("mouse", 10)).isEmpty();
+  }
+
+  @Test
+  void remove_ShouldDropName_WithItsLastProduct() {
+    // When
+    namePrefixIndex.remove("LAPTOP");
+
+    // Then
+    assertThat(namePrefixIndex.suggest("laptop", 10)).containsExactly("Laptop", "Laptop Stand");
+
+    // When
+    namePrefixIndex.remove("Laptop");
+
+    // Then
+    assertThat(namePrefixIndex.suggest("laptop", 10)).containsExactly("Laptop Stand");
+  }
+
+  @Test
+  void add_ShouldKeepNamesSorted() {
+    // When
+    namePrefixIndex.add("Lantern");
+    namePrefixIndex.add("  Lab Coat ");
+
+    // Then
+    assertThat(namePrefixIndex.suggest("la", 3)).containsExactly("Lab Coat", "Lamp", "Lantern");
+    assertThat(namePrefixIndex.size()).isEqualTo(7);
+  }
+
+  @Test
+  void suggest_ShouldMatchSortedMap_ForRandomNames() {
+    // Given
+    Random random = new Random(11);
+    NamePrefixIndex index = new NamePrefixIndex();
+    TreeMap<String, Integer> expectedCounts = new TreeMap<>();
+    List<String> initial = new ArrayList<>();
+    for (int i = 0; i < 5_000; i++) {
+      String name = randomName(random);
+      initial.add(name);
+      expectedCounts.merge(name.toLowerCase(Locale.ROOT), 1, Integer::sum);
+    }
+    index.addAll(initial);
+    for (int i = 0; i < 2_000; i++) {
+      String name = randomName(random);
+      String key = name.toLowerCase(Locale.ROOT);
+      if (random.nextBoolean()) {
+        index.add(name);
+        expectedCounts.merge(key, 1, Integer::sum);
+      } else if (expectedCounts.containsKey(key)) {
+        index.remove(name);
+        expectedCounts.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+      }
+    }
+
+    for (String prefix : List.of("a", "ab", "ca", "bcd", "d")) {
+      // When
+      List<String> suggestions =
+          index.suggest(prefix, 20).stream().map(name -> name.toLowerCase(Locale.ROOT)).toList();
+
+      // Then
+      List<String> expected =
+          expectedCounts.keySet().stream().filter(key -> key.startsWith(prefix)).limit(20).toList();
+      assertThat(suggestions).containsExactlyElementsOf(expected);
+    }
+    assertThat(index.size()).isEqualTo(expectedCounts.size());
+  }
+
+  private static String randomName(Random random) {
+    StringBuilder name = new StringBuilder();
+    for (int i = 0, length = 1 + random.nextInt(4); i < length; i++) {
+      char letter = (char) ('a' + random.nextInt(4));
+      name.append(random.nextBoolean() ? Character.toUpperCase(letter) : letter);
+    }
+    return name.toString();
+  }
+}
@@ -0,0 +1,118 @@
+package org.example.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Random;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+class OrdinalBitmapTest {
+
+  private static OrdinalBitmap bitmapOf(int... ordinals) {
+    OrdinalBitmap bitmap = new OrdinalBitmap();
+    for (int ordinal : ordinals) {
+      bitmap.add(ordinal);
+    }
+    return bitmap;
+  }
+
+  private static int[] toArray(TreeSet<Integer> set) {
+    return set.stream().mapToInt(Integer::intValue).toArray();
+  }
+
+  @Test
+  void add_ShouldKeepOrdinalsSortedAcrossChunks() {
+    // When
+    OrdinalBitmap bitmap = bitmapOf(70_000, 5, 65_536, 5, 0);
+
+    // Then
+    assertThat(bitmap.toArray()).containsExactly(0, 5, 65_536, 70_000);
+    assertThat(bitmap.cardinality()).isEqualTo(4);
+    assertThat(bitmap.contains(65_536)).isTrue();
+    assertThat(bitmap.contains(65_537)).isFalse();
+  }
+
+  @Test
+  void remove_ShouldDropEmptyChunks() {
+    // Given
+    OrdinalBitmap bitmap = bitmapOf(1, 70_000);
+
+    // When
+    bitmap.remove(70_000);
+    bitmap.remove(2);
+
+    // Then
+    assertThat(bitmap.toArray()).containsExactly(1);
+    bitmap.remove(1);
+    assertThat(bitmap.isEmpty()).isTrue();
+  }
+
+  @Test
+  void andOr_ShouldCombineSparseAndDenseChunks() {
+    // Given
+    OrdinalBitmap dense = new OrdinalBitmap();
+    for (int ordinal = 0; ordinal < 20_000; ordinal += 2) {
+      dense.add(ordinal);
+    }
+    OrdinalBitmap sparse = bitmapOf(3, 4, 10, 19_998, 20_001);
+
+    // When
+    OrdinalBitmap and = dense.and(sparse);
+    OrdinalBitmap or = sparse.or(dense);
+
+    // Then
+    assertThat(and.toArray()).containsExactly(4, 10, 19_998);
+    assertThat(or.cardinality()).isEqualTo(10_002);
+    assertThat(or.contains(3)).isTrue();
+    assertThat(or.contains(20_001)).isTrue();
+    assertThat(dense.cardinality()).isEqualTo(10_000);
+  }
+
+  @Test
+  void retain_ShouldKeepOnlyOrdinalsInBitmap() {
+    // Given
+    OrdinalBitmap bitmap = bitmapOf(2, 4, 100_000);
+
+    // When
+    int[] retained = bitmap.retain(new int[] {1, 2, 3, 100_000});
+
+    // Then
+    assertThat(retained).containsExactly(2, 100_000);
+  }
+
+  @Test
+  void operations_ShouldMatchSortedSet_ForRandomOrdinals() {
+    // Given
+    Random random = new Random(7);
+    OrdinalBitmap first = new OrdinalBitmap();
+    OrdinalBitmap second = new OrdinalBitmap();
+    TreeSet<Integer> firstSet = new TreeSet<>();
+    TreeSet<Integer> secondSet = new TreeSet<>();
+    for (int i = 0; i < 50_000; i++) {
+      int ordinal = random.nextInt(200_000);
+      first.add(ordinal);
+      firstSet.add(ordinal);
+      ordinal = random.nextInt(200_000);
+      second.add(ordinal);
+      secondSet.add(ordinal);
+    }
+    for (int i = 0; i < 20_000; i++) {
+      int ordinal = random.nextInt(200_000);
+      first.remove(ordinal);
+      firstSet.remove(ordinal);
+    }
+
+    // When
+    OrdinalBitmap and = first.and(second);
+    OrdinalBitmap or = first.or(second);
+
+    // Then
+    TreeSet<Integer> expectedAnd = new TreeSet<>(firstSet);
+    expectedAnd.retainAll(secondSet);
+    TreeSet<Integer> expectedOr = new TreeSet<>(firstSet);
+    expectedOr.addAll(secondSet);
+    assertThat(first.toArray()).containsExactly(toArray(firstSet));
+    assertThat(and.toArray()).containsExactly(toArray(expectedAnd));
+    assertThat(or.toArray()).containsExactly(toArray(expectedOr));
+  }
+}
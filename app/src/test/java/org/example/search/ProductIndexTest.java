@@ -0,0 +1,261 @@
+package org.example.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.example.dto.PriceBucket;
+import org.example.dto.ProductFacets;
+import org.example.dto.ProductSort;
+import org.example.dto.SearchCriteria;
+import org.example.model.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ProductIndexTest {
+
+  private ProductIndex productIndex;
+
+  @BeforeEach
+  void setUp() {
+    productIndex = new ProductIndex();
+    productIndex.putAll(
+        List.of(
+            createProduct(3L, "Gaming Mouse", "Fast wireless mouse", "Electronics", "Razer", "60"),
+            createProduct(1L, "Office Mouse", "Quiet wired mouse", "Electronics", "Logitech", "15"),
+            createProduct(2L, "Gaming Mouse", "Wireless, RGB", "Electronics", "Logitech", "50"),
+            createProduct(4L, "Mouse Pad", "Large pad for a mouse", "Accessories", "Logitech", "40"),
+            createProduct(5L, "Desk Lamp", "Lamp with wireless charger", "Home", "Ikea", "35")));
+  }
+
+  private static Product createProduct(
+      Long id, String name, String description, String category, String brand, String price) {
+    return new Product(id, name, description, category, brand, new BigDecimal(price));
+  }
+
+  private static List<Long> ids(List<Product> products) {
+    return products.stream().map(Product::getId).toList();
+  }
+
+  @Test
+  void search_ShouldIntersectAllCriteria() {
+    // Given
+    SearchCriteria criteria =
+        SearchCriteria.builder()
+            .name(" MOUSE ")
+            .category("electronics")
+            .brand("logitech")
+            .minPrice(new BigDecimal("20"))
+            .build();
+
+    // When
+    List<Product> results = productIndex.search(criteria);
+
+    // Then
+    assertThat(ids(results)).containsExactly(2L);
+  }
+
+  @Test
+  void search_ShouldMatchNameSubstring_AcrossWords() {
+    // When
+    List<Product> partOfWord = productIndex.search(SearchCriteria.builder().name("ouse").build());
+    List<Product> acrossWords =
+        productIndex.search(SearchCriteria.builder().name("ing mou").build());
+
+    // Then
+    assertThat(ids(partOfWord)).containsExactly(1L, 2L, 3L, 4L);
+    assertThat(ids(acrossWords)).containsExactly(2L, 3L);
+  }
+
+  @Test
+  void search_ShouldReturnProductsInPriceRange_OrderedById() {
+    // When
+    List<Product> results =
+        productIndex.search(
+            SearchCriteria.builder()
+                .minPrice(new BigDecimal("35"))
+                .maxPrice(new BigDecimal("50"))
+                .build());
+
+    // Then
+    assertThat(ids(results)).containsExactly(2L, 4L, 5L);
+  }
+
+  @Test
+  void search_ShouldReturnFirstProductsInSortOrder_WhenLimitIsSet() {
+    // When
+    List<Product> cheapest =
+        productIndex.search(
+            SearchCriteria.builder()
+                .category("electronics")
+                .sort(ProductSort.PRICE)
+                .limit(2)
+                .build());
+    List<Product> byNameDescending =
+        productIndex.search(
+            SearchCriteria.builder().name("mouse").sort(ProductSort.NAME).descending(true).build());
+    List<Product> lastIds =
+        productIndex.search(SearchCriteria.builder().descending(true).limit(2).build());
+
+    // Then
+    assertThat(ids(cheapest)).containsExactly(1L, 2L);
+    assertThat(ids(byNameDescending)).containsExactly(1L, 4L, 2L, 3L);
+    assertThat(ids(lastIds)).containsExactly(5L, 4L);
+  }
+
+  @Test
+  void search_ShouldCombineIdWithOtherCriteria() {
+    // When
+    List<Product> matching =
+        productIndex.search(SearchCriteria.builder().id(4L).brand("Logitech").build());
+    List<Product> notMatching =
+        productIndex.search(SearchCriteria.builder().id(4L).brand("Razer").build());
+
+    // Then
+    assertThat(ids(matching)).containsExactly(4L);
+    assertThat(notMatching).isEmpty();
+  }
+
+  @Test
+  void put_ShouldReplaceIndexedValues_WhenProductIsUpdated() {
+    // When
+    productIndex.put(createProduct(4L, "Desk Mat", "Felt mat", "Home", "Ikea", "20"));
+
+    // Then
+    assertThat(ids(productIndex.search(SearchCriteria.builder().category("home").build())))
+        .containsExactly(4L, 5L);
+    assertThat(ids(productIndex.search(SearchCriteria.builder().name("pad").build()))).isEmpty();
+    assertThat(
+            ids(
+                productIndex.search(
+                    SearchCriteria.builder().maxPrice(new BigDecimal("20")).build())))
+        .containsExactly(1L, 4L);
+  }
+
+  @Test
+  void remove_ShouldDropProductFromAllPostings() {
+    // When
+    productIndex.remove(2L);
+
+    // Then
+    assertThat(productIndex.size()).isEqualTo(4);
+    assertThat(ids(productIndex.search(SearchCriteria.builder().brand("logitech").build())))
+        .containsExactly(1L, 4L);
+    assertThat(ids(productIndex.fullTextSearch("rgb", 10))).isEmpty();
+  }
+
+  @Test
+  void fullTextSearch_ShouldRankNameMatchesFirst_AndApplyExclusions() {
+    // When
+    List<Product> results = productIndex.fullTextSearch("wireless", 10);
+    List<Product> excluded = productIndex.fullTextSearch("mouse -wired -gaming", 10);
+    List<Product> limited = productIndex.fullTextSearch("mouse", 2);
+
+    // Then
+    assertThat(ids(results)).containsExactlyInAnyOrder(2L, 3L, 5L);
+    assertThat(ids(excluded)).containsExactly(4L);
+    assertThat(limited).hasSize(2);
+    assertThat(ids(productIndex.fullTextSearch("gaming mouse", 10))).containsExactly(2L, 3L);
+  }
+
+  @Test
+  void facets_ShouldCountMatchingProductsPerCategoryBrandAndPriceBucket() {
+    // Given
+    SearchCriteria criteria = SearchCriteria.builder().name("mouse").build();
+    List<BigDecimal> priceBounds = List.of(new BigDecimal("20"), new BigDecimal("50"));
+
+    // When
+    ProductFacets facets = productIndex.facets(criteria, priceBounds);
+
+    // Then
+    assertThat(facets.getCategories())
+        .containsExactly(entry("Electronics", 3L), entry("Accessories", 1L));
+    assertThat(facets.getBrands()).containsExactly(entry("Logitech", 3L), entry("Razer", 1L));
+    assertThat(facets.getPrices())
+        .extracting(PriceBucket::getCount)
+        .containsExactly(1L, 1L, 2L);
+  }
+
+  @Test
+  void search_ShouldReturnSameResultAsFilteringAllProducts() {
+    // Given
+    Random random = new Random(42);
+    String[] words = {"alpha", "beta", "gamma", "delta", "omega", "sigma"};
+    List<Product> products = new ArrayList<>();
+    for (long id = 1; id <= 5_000; id++) {
+      products.add(
+          createProduct(
+              id,
+              words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)],
+              "description",
+              "Category" + random.nextInt(10),
+              "Brand" + random.nextInt(30),
+              String.valueOf(random.nextInt(1000))));
+    }
+    ProductIndex index = new ProductIndex();
+    index.putAll(products);
+    SearchCriteria criteria =
+        SearchCriteria.builder()
+            .name("ta ga")
+            .category("category3")
+            .minPrice(new BigDecimal("100"))
+            .maxPrice(new BigDecimal("700"))
+            .build();
+
+    // When
+    List<Product> results = index.search(criteria);
+
+    // Then
+    List<Product> expected =
+        products.stream()
+            .filter(criteria::matchesName)
+            .filter(criteria::matchesCategory)
+            .filter(criteria::matchesPriceRange)
+            .toList();
+    assertThat(results).isNotEmpty().containsExactlyElementsOf(expected);
+  }
+
+  @Test
+  void search_ShouldReturnSameTopProductsAsSortingAllMatches() {
+    // Given
+    Random random = new Random(7);
+    List<Product> products = new ArrayList<>();
+    for (long id = 1; id <= 5_000; id++) {
+      products.add(
+          createProduct(
+              id,
+              "Product " + random.nextInt(500),
+              "description",
+              "Category" + random.nextInt(3),
+              "Brand",
+              String.valueOf(random.nextInt(100))));
+    }
+    ProductIndex index = new ProductIndex();
+    index.putAll(products);
+
+    for (ProductSort sort : ProductSort.values()) {
+      SearchCriteria criteria =
+          SearchCriteria.builder()
+              .category("category1")
+              .sort(sort)
+              .descending(true)
+              .limit(50)
+              .build();
+
+      // When
+      List<Product> results = index.search(criteria);
+
+      // Then
+      List<Product> expected =
+          products.stream()
+              .filter(criteria::matches)
+              .sorted(criteria.comparator())
+              .limit(50)
+              .toList();
+      assertThat(results).containsExactlyElementsOf(expected);
+    }
+  }
+}
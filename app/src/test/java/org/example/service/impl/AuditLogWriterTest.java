@@ -0,0 +1,395 @@
+package org.example.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.example.exception.DataAccessException;
+import org.example.exception.InitializationException;
+import org.example.model.AuditAction;
+import org.example.model.AuditLog;
+import org.example.repository.AuditRepository;
+import org.example.repository.impl.spool.AuditSpool;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class AuditLogWriterTest {
+  private final AuditRepository auditRepository = mock(AuditRepository.class);
+  private final List<List<AuditLog>> savedBatches = Collections.synchronizedList(new ArrayList<>());
+  @TempDir Path spoolDirectory;
+  private AuditSpool auditSpool;
+
+  @BeforeEach
+  void setUp() {
+    auditSpool = new AuditSpool(spoolDirectory.toString(), 4096);
+  }
+
+  @AfterEach
+  void tearDown() {
+    auditSpool.close();
+  }
+
+  private AuditLogWriter createWriter(int queueSize, int batchSize, String overflow) {
+    return new AuditLogWriter(
+        auditRepository, auditSpool, queueSize, batchSize, 10, overflow, 5_000, 10, 3);
+  }
+
+  private static AuditLog createAuditLog(String details) {
+    AuditLog auditLog = new AuditLog();
+    auditLog.setTimestamp(LocalDateTime.now());
+    auditLog.setUsername("alice");
+    auditLog.setAction(AuditAction.SEARCH);
+    auditLog.setDetails(details);
+    return auditLog;
+  }
+
+  private void recordSavedBatches() {
+    when(auditRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              Collection<AuditLog> batch = invocation.getArgument(0);
+              savedBatches.add(List.copyOf(batch));
+              return batch.size();
+            });
+  }
+
+  @Test
+  void write_ShouldSaveLogsInBatches_NotLargerThanBatchSize() throws InterruptedException {
+    // Given
+    recordSavedBatches();
+    AuditLogWriter writer = createWriter(100, 3, "block");
+
+    // When
+    for (int i = 0; i < 7; i++) {
+      writer.write(createAuditLog("log " + i));
+    }
+    writer.destroy();
+
+    // Then
+    assertThat(savedBatches).allSatisfy(batch -> assertThat(batch).hasSizeBetween(1, 3));
+    assertThat(savedBatches.stream().flatMap(List::stream).map(AuditLog::getDetails))
+        .containsExactly("log 0", "log 1", "log 2", "log 3", "log 4", "log 5", "log 6");
+    assertThat(writer.getMetrics().written()).isEqualTo(7);
+  }
+
+  @Test
+  void write_ShouldSaveOnCallerThread_AfterShutdown() throws InterruptedException {
+    // Given
+    recordSavedBatches();
+    AuditLogWriter writer = createWriter(100, 10, "block");
+    writer.destroy();
+    AuditLog late = createAuditLog("late");
+
+    // When
+    writer.write(late);
+
+    // Then
+    assertThat(savedBatches).containsExactly(List.of(late));
+  }
+
+  @Test
+  void write_ShouldDropAndCountLogs_WhenQueueIsFullAndPolicyIsDrop() throws Exception {
+    // Given
+    CountDownLatch saving = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(auditRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              saving.countDown();
+              release.await();
+              return invocation.<Collection<AuditLog>>getArgument(0).size();
+            });
+    AuditLogWriter writer = createWriter(1, 1, "drop");
+    writer.write(createAuditLog("being saved"));
+    assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // When
+    writer.write(createAuditLog("queued"));
+    writer.write(createAuditLog("dropped"));
+    release.countDown();
+    writer.destroy();
+
+    // Then
+    AuditWriterMetrics metrics = writer.getMetrics();
+    assertThat(metrics.written()).isEqualTo(2);
+    assertThat(metrics.dropped()).isEqualTo(1);
+    assertThat(metrics.queued()).isZero();
+  }
+
+  @Test
+  void write_ShouldSpoolLogs_WhenQueueIsFullAndPolicyIsSpill() throws Exception {
+    // Given
+    CountDownLatch saving = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(auditRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              saving.countDown();
+              release.await();
+              return invocation.<Collection<AuditLog>>getArgument(0).size();
+            });
+    AuditLogWriter writer = createWriter(1, 1, "spill");
+    writer.write(createAuditLog("being saved"));
+    assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+
+    // When
+    writer.write(createAuditLog("queued"));
+    writer.write(createAuditLog("spilled"));
+
+    // Then
+    assertThat(auditSpool.peek(10)).extracting(AuditLog::getDetails).containsExactly("spilled");
+    release.countDown();
+    writer.destroy();
+    assertThat(writer.getMetrics().dropped()).isZero();
+    assertThat(writer.getMetrics().spooled()).isEqualTo(1);
+  }
+
+  @Test
+  void write_ShouldSpoolLog_WhenInterruptedWhileQueueIsFullAndPolicyIsBlock() throws Exception {
+    // Given
+    CountDownLatch saving = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    when(auditRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              saving.countDown();
+              release.await();
+              return invocation.<Collection<AuditLog>>getArgument(0).size();
+            });
+    AuditLogWriter writer = createWriter(1, 1, "block");
+    writer.write(createAuditLog("being saved"));
+    assertThat(saving.await(5, TimeUnit.SECONDS)).isTrue();
+    writer.write(createAuditLog("queued"));
+
+    // When
+    Thread.currentThread().interrupt();
+    writer.write(createAuditLog("interrupted"));
+
+    // Then
+    assertThat(Thread.interrupted()).isTrue();
+    assertThat(auditSpool.peek(10))
+        .extracting(AuditLog::getDetails)
+        .containsExactly("interrupted");
+    release.countDown();
+    writer.destroy();
+    assertThat(writer.getMetrics().dropped()).isZero();
+    assertThat(writer.getMetrics().spooled()).isEqualTo(1);
+  }
+
+  @Test
+  void write_ShouldSpoolFailedBatch_AndReplayIt_WhenDatabaseIsBack() throws Exception {
+    // Given
+    List<AuditLog> attempted = Collections.synchronizedList(new ArrayList<>());
+    List<AuditLog> saved = Collections.synchronizedList(new ArrayList<>());
+    when(auditRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              attempted.addAll(invocation.getArgument(0));
+              throw new DataAccessException("database is down");
+            });
+    when(auditRepository.saveAllIfAbsent(any()))
+        .thenAnswer(
+            invocation -> {
+              Collection<AuditLog> batch = invocation.getArgument(0);
+              saved.addAll(batch);
+              return batch.size();
+            });
+    // both logs fit into the first batch, database is retried 100 ms after it fails
+    AuditLogWriter writer =
+        new AuditLogWriter(auditRepository, auditSpool, 100, 10, 200, "block", 5_000, 100, 3);
+
+    // When
+    writer.write(createAuditLog("first"));
+    writer.write(createAuditLog("second"));
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (writer.getMetrics().replayed() < 2 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    writer.destroy();
+
+    // Then
+    AuditWriterMetrics metrics = writer.getMetrics();
+    assertThat(saved).extracting(AuditLog::getDetails).containsExactly("first", "second");
+    // replayed with event ids of the failed save, the ones it may have saved are skipped
+    assertThat(saved)
+        .extracting(AuditLog::getEventId)
+        .doesNotContainNull()
+        .containsExactlyElementsOf(attempted.stream().map(AuditLog::getEventId).toList());
+    assertThat(metrics.spooled()).isEqualTo(2);
+    assertThat(metrics.replayed()).isEqualTo(2);
+    assertThat(metrics.spoolPending()).isZero();
+    assertThat(metrics.failed()).isZero();
+  }
+
+  @Test
+  void write_ShouldSaveOtherLogsOfBatch_AndCountRejectedOne_WhenDatabaseRejectsALog()
+      throws Exception {
+    // Given
+    List<String> saved = Collections.synchronizedList(new ArrayList<>());
+    when(auditRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              Collection<AuditLog> batch = invocation.getArgument(0);
+              if (batch.stream().anyMatch(auditLog -> auditLog.getDetails().equals("too long"))) {
+                throw new DataAccessException(
+                    "Failed to save audit logs", new SQLException("value too long", "22001"));
+              }
+              batch.forEach(auditLog -> saved.add(auditLog.getDetails()));
+              return batch.size();
+            });
+    // all logs fit into the first batch, a spooled log would wait a minute
+    AuditLogWriter writer =
+        new AuditLogWriter(auditRepository, auditSpool, 100, 10, 200, "block", 5_000, 60_000, 3);
+
+    // When
+    writer.write(createAuditLog("first"));
+    writer.write(createAuditLog("too long"));
+    writer.write(createAuditLog("third"));
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (writer.getMetrics().rejected() < 1 && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    writer.write(createAuditLog("next batch"));
+    writer.destroy();
+
+    // Then
+    AuditWriterMetrics metrics = writer.getMetrics();
+    assertThat(saved).containsExactly("first", "third", "next batch");
+    assertThat(metrics.rejected()).isEqualTo(1);
+    assertThat(metrics.written()).isEqualTo(3);
+    assertThat(metrics.spooled()).isZero();
+  }
+
+  @Test
+  void write_ShouldSaveOtherLogsOfBatch_WhenMonthOfALogHasNoPartition() throws Exception {
+    // Given
+    LocalDateTime removedMonth = LocalDateTime.of(1999, 1, 15, 12, 0);
+    List<String> saved = Collections.synchronizedList(new ArrayList<>());
+    when(auditRepository.saveAll(any()))
+        .thenAnswer(
+            invocation -> {
+              Collection<AuditLog> batch = invocation.getArgument(0);
+              if (batch.stream().map(AuditLog::getTimestamp).anyMatch(removedMonth::equals)) {
+                throw new DataAccessException(
+                    "Failed to save audit logs",
+                    new SQLException("no partition of relation found for row", "23514"));
+              }
+              batch.forEach(auditLog -> saved.add(auditLog.getDetails()));
+              return batch.size();
+            });
+    AuditLogWriter writer =
+        new AuditLogWriter(auditRepository, auditSpool, 100, 10, 200, "block", 5_000, 60_000, 3);
+    AuditLog withoutPartition = createAuditLog("without partition");
+    withoutPartition.setTimestamp(removedMonth);
+
+    // When
+    writer.write(createAuditLog("first"));
+    writer.write(withoutPartition);
+    writer.write(createAuditLog("third"));
+    writer.destroy();
+
+    // Then, the batch is not spooled to fail again on every replay
+    AuditWriterMetrics metrics = writer.getMetrics();
+    assertThat(saved).containsExactly("first", "third");
+    assertThat(metrics.rejected()).isEqualTo(1);
+    assertThat(metrics.spooled()).isZero();
+    assertThat(metrics.spoolPending()).isZero();
+  }
+
+  @Test
+  void write_ShouldDeadLetterSpooledLog_WhenItFailsEveryReplayWhileOthersAreSaved()
+      throws Exception {
+    // Given
+    recordSavedBatches();
+    List<String> replayed = Collections.synchronizedList(new ArrayList<>());
+    when(auditRepository.saveAllIfAbsent(any()))
+        .thenAnswer(
+            invocation -> {
+              Collection<AuditLog> batch = invocation.getArgument(0);
+              // fails as if database went away, though only this log breaks the connection
+              if (batch.stream().anyMatch(auditLog -> auditLog.getDetails().equals("poison"))) {
+                throw new DataAccessException("Connection operation failed");
+              }
+              batch.forEach(auditLog -> replayed.add(auditLog.getDetails()));
+              return batch.size();
+            });
+    auditSpool.append(createAuditLog("poison"));
+    auditSpool.append(createAuditLog("spooled"));
+    AuditLogWriter writer = createWriter(100, 10, "block");
+
+    // When, logs keep being saved between the replays
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+    while (writer.getMetrics().spoolPending() > 0 && System.nanoTime() < deadline) {
+      writer.write(createAuditLog("live"));
+      Thread.sleep(20);
+    }
+    writer.destroy();
+
+    // Then
+    AuditWriterMetrics metrics = writer.getMetrics();
+    assertThat(replayed).contains("spooled").doesNotContain("poison");
+    assertThat(metrics.deadLettered()).isEqualTo(1);
+    assertThat(metrics.spoolPending()).isZero();
+    assertThat(Files.readString(spoolDirectory.resolve("audit-dead-letter.log")))
+        .contains("poison");
+  }
+
+  @Test
+  void write_ShouldKeepSpooledLogs_WhileDatabaseSavesNothing() throws Exception {
+    // Given
+    when(auditRepository.saveAll(any())).thenThrow(new DataAccessException("database is down"));
+    when(auditRepository.saveAllIfAbsent(any()))
+        .thenThrow(new DataAccessException("database is down"));
+    auditSpool.append(createAuditLog("spooled"));
+    AuditLogWriter writer = createWriter(100, 10, "block");
+
+    // When, replay is tried every 10 ms, many more times than the replay attempts
+    for (int i = 0; i < 10; i++) {
+      writer.write(createAuditLog("live"));
+      Thread.sleep(20);
+    }
+    writer.destroy();
+
+    // Then
+    AuditWriterMetrics metrics = writer.getMetrics();
+    assertThat(metrics.deadLettered()).isZero();
+    assertThat(metrics.spoolPending()).isEqualTo(11);
+  }
+
+  @Test
+  void isUnavailable_ShouldTellDatabaseFailures_FromRejectedData() {
+    assertThat(AuditLogWriter.isUnavailable(new DataAccessException("Connection pool is closed")))
+        .isTrue();
+    assertThat(
+            AuditLogWriter.isUnavailable(
+                new DataAccessException(
+                    "Transaction failed", new SQLException("I/O error", "08006"))))
+        .isTrue();
+    assertThat(
+            AuditLogWriter.isUnavailable(
+                new DataAccessException(
+                    "Transaction failed", new SQLException("no partition of relation", "23514"))))
+        .isFalse();
+  }
+
+  @Test
+  void constructor_ShouldThrow_WhenOverflowPolicyIsUnknown() {
+    assertThatThrownBy(() -> createWriter(100, 10, "spin"))
+        .isInstanceOf(InitializationException.class)
+        .hasMessageContaining("spin");
+  }
+}
@@ -0,0 +1,68 @@
+package org.example.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.YearMonth;
+import java.util.List;
+import org.example.exception.InitializationException;
+import org.example.repository.AuditPartitionRepository;
+import org.junit.jupiter.api.Test;
+
+class AuditPartitionMaintainerTest {
+  private final AuditPartitionRepository auditPartitionRepository =
+      mock(AuditPartitionRepository.class);
+
+  @Test
+  void maintain_ShouldCreateMissingPartitions_UpToMonthsAhead() {
+    // Given
+    AuditPartitionMaintainer maintainer =
+        new AuditPartitionMaintainer(auditPartitionRepository, 2, 0, "detach", 60_000);
+    when(auditPartitionRepository.findPartitions())
+        .thenReturn(List.of(YearMonth.of(2025, 1), YearMonth.of(2025, 2)));
+
+    // When
+    maintainer.maintain(YearMonth.of(2025, 2));
+
+    // Then
+    verify(auditPartitionRepository).createPartition(YearMonth.of(2025, 3));
+    verify(auditPartitionRepository).createPartition(YearMonth.of(2025, 4));
+    verify(auditPartitionRepository, never()).createPartition(YearMonth.of(2025, 5));
+    verify(auditPartitionRepository, never()).removePartition(any(), anyBoolean());
+  }
+
+  @Test
+  void maintain_ShouldRemovePartitionsOlderThanRetention() {
+    // Given
+    AuditPartitionMaintainer maintainer =
+        new AuditPartitionMaintainer(auditPartitionRepository, 1, 2, "drop", 60_000);
+    when(auditPartitionRepository.findPartitions())
+        .thenReturn(
+            List.of(
+                YearMonth.of(2024, 11),
+                YearMonth.of(2024, 12),
+                YearMonth.of(2025, 1),
+                YearMonth.of(2025, 2),
+                YearMonth.of(2025, 3)));
+
+    // When
+    maintainer.maintain(YearMonth.of(2025, 2));
+
+    // Then
+    verify(auditPartitionRepository).removePartition(YearMonth.of(2024, 11), false);
+    verify(auditPartitionRepository, never()).removePartition(YearMonth.of(2024, 12), false);
+    verify(auditPartitionRepository, never()).createPartition(any());
+  }
+
+  @Test
+  void constructor_ShouldThrow_WhenExpiredActionIsUnknown() {
+    assertThatThrownBy(
+            () -> new AuditPartitionMaintainer(auditPartitionRepository, 1, 2, "truncate", 60_000))
+        .isInstanceOf(InitializationException.class);
+  }
+}
@@ -0,0 +1,142 @@
+package org.example.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import jakarta.validation.ValidationException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import org.example.dto.AuditCursor;
+import org.example.dto.AuditLogPage;
+import org.example.dto.AuditQuery;
+import org.example.model.AuditAction;
+import org.example.model.AuditLog;
+import org.example.model.User;
+import org.example.repository.AuditRepository;
+import org.example.service.AuditService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+class AuditServiceImplTest {
+
+  @Mock AuditRepository auditRepository;
+  @Mock AuditLogWriter auditLogWriter;
+  AuditServiceImpl auditService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    auditService = new AuditServiceImpl(auditRepository, auditLogWriter);
+  }
+
+  private static AuditLog createAuditLog(long id) {
+    AuditLog auditLog = new AuditLog();
+    auditLog.setId(id);
+    auditLog.setTimestamp(LocalDateTime.of(2025, 3, 14, 15, 9).minusMinutes(id));
+    auditLog.setUsername("alice");
+    auditLog.setAction(AuditAction.SEARCH);
+    return auditLog;
+  }
+
+  @Test
+  void logAction_ShouldCutDetails_ToColumnSizeWithoutSplittingSurrogatePair() {
+    // Given
+    User user = new User();
+    user.setUsername("alice");
+    String details = "a".repeat(AuditServiceImpl.MAX_DETAILS_LENGTH - 1) + "\ud83d\udcbb tail";
+    ArgumentCaptor<AuditLog> written = ArgumentCaptor.forClass(AuditLog.class);
+
+    // When
+    auditService.logAction(() -> user, AuditAction.SEARCH, details);
+    auditService.logAction(() -> user, AuditAction.SEARCH, null);
+
+    // Then
+    verify(auditLogWriter, times(2)).write(written.capture());
+    assertThat(written.getAllValues())
+        .extracting(AuditLog::getDetails)
+        .containsExactly("a".repeat(AuditServiceImpl.MAX_DETAILS_LENGTH - 1), "");
+  }
+
+  @Test
+  void findPage_ShouldReturnCursorOfLastLog_WhenMoreLogsFollow() {
+    // Given
+    AuditQuery query = AuditQuery.builder().username("alice").build();
+    List<AuditLog> logs = List.of(createAuditLog(1), createAuditLog(2), createAuditLog(3));
+    when(auditRepository.findPage(query, null, 3)).thenReturn(logs);
+
+    // When
+    AuditLogPage page = auditService.findPage(query, null, 2);
+
+    // Then
+    assertThat(page.getAuditLogs()).containsExactlyElementsOf(logs.subList(0, 2));
+    assertThat(page.getNextCursor()).isEqualTo(AuditCursor.of(logs.get(1)));
+  }
+
+  @Test
+  void findPage_ShouldReturnNoCursor_WhenPageIsTheLastOne() {
+    // Given
+    AuditQuery query = AuditQuery.builder().build();
+    AuditCursor after = AuditCursor.of(createAuditLog(1));
+    List<AuditLog> logs = List.of(createAuditLog(2), createAuditLog(3));
+    when(auditRepository.findPage(query, after, 3)).thenReturn(logs);
+
+    // When
+    AuditLogPage page = auditService.findPage(query, after, 2);
+
+    // Then
+    assertThat(page.getAuditLogs()).isEqualTo(logs);
+    assertThat(page.getNextCursor()).isNull();
+  }
+
+  @Test
+  void findPage_ShouldThrowValidationException_WhenLimitOutOfRange() {
+    // Given
+    AuditQuery query = AuditQuery.builder().build();
+
+    // When & Then
+    assertThatThrownBy(() -> auditService.findPage(query, null, 0))
+        .isInstanceOf(ValidationException.class);
+    assertThatThrownBy(() -> auditService.findPage(query, null, AuditService.MAX_PAGE_SIZE + 1))
+        .isInstanceOf(ValidationException.class);
+    verify(auditRepository, never()).findPage(any(), any(), anyInt());
+  }
+
+  @Test
+  void findPage_ShouldThrowValidationException_WhenFromIsNotBeforeTo() {
+    // Given
+    LocalDateTime time = LocalDateTime.of(2025, 3, 14, 15, 9);
+    AuditQuery query = AuditQuery.builder().from(time).to(time).build();
+
+    // When & Then
+    assertThatThrownBy(() -> auditService.findPage(query, null, 10))
+        .isInstanceOf(ValidationException.class);
+    assertThatThrownBy(() -> auditService.stream(query, log -> {}))
+        .isInstanceOf(ValidationException.class);
+    verify(auditRepository, never()).findPage(any(), any(), anyInt());
+    verify(auditRepository, never()).stream(any(), any());
+  }
+
+  @Test
+  void stream_ShouldPassQueryToRepository() {
+    // Given
+    AuditQuery query = AuditQuery.builder().action(AuditAction.LOGIN).build();
+    Consumer<AuditLog> action = log -> {};
+    when(auditRepository.stream(query, action)).thenReturn(3L);
+
+    // When
+    long count = auditService.stream(query, action);
+
+    // Then
+    assertThat(count).isEqualTo(3);
+  }
+}
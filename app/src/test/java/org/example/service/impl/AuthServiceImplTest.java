@@ -8,12 +8,15 @@ import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.Optional;
 import org.example.dto.LoginResult;
+import org.example.dto.SessionToken;
 import org.example.exception.AccessDeniedException;
 import org.example.model.Role;
 import org.example.model.User;
 import org.example.repository.UserRepository;
 import org.example.service.AuthLoginAttemptService;
+import org.example.service.TokenService;
 import org.example.util.Passwords;
 import org.example.util.PasswordsImpl;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,6 +31,8 @@ class AuthServiceImplTest {
 
   private AuthServiceImpl authService;
   private Passwords passwords;
+  private VerifiedCredentialCache verifiedCredentialCache;
+  private TokenService tokenService;
 
   @BeforeEach
   void setUp() {
@@ -35,7 +40,15 @@ class AuthServiceImplTest {
     auditService = Mockito.mock(AuditServiceImpl.class);
     passwords = Mockito.mock(PasswordsImpl.class);
     authLoginAttemptService = Mockito.mock(AuthLoginAttemptService.class);
-    authService = new AuthServiceImpl(userRepository, authLoginAttemptService, passwords);
+    verifiedCredentialCache = Mockito.mock(VerifiedCredentialCache.class);
+    tokenService = Mockito.mock(TokenService.class);
+    authService =
+        new AuthServiceImpl(
+            userRepository,
+            authLoginAttemptService,
+            passwords,
+            verifiedCredentialCache,
+            tokenService);
   }
 
   @Test
@@ -119,6 +132,55 @@ class AuthServiceImplTest {
     verify(userRepository).findByUsername(username);
   }
 
+  @Test
+  void login_ShouldRememberCredentials_WhenPasswordVerified() {
+    // Given
+    String username = "testuser";
+    String password = "correctpassword";
+    User user = createTestUser(username, Role.USER, "correct_hash");
+    when(userRepository.findByUsername(username)).thenReturn(user);
+    when(passwords.verifyPassword(password, user.getPasswordHash())).thenReturn(true);
+
+    // When
+    authService.login(username, password);
+
+    // Then
+    verify(verifiedCredentialCache).put(username, password, user);
+  }
+
+  @Test
+  void login_ShouldSkipLookupAndHashing_WhenCredentialsVerifiedRecently() {
+    // Given
+    String username = "testuser";
+    String password = "correctpassword";
+    User user = createTestUser(username, Role.USER, "correct_hash");
+    when(verifiedCredentialCache.find(username, password)).thenReturn(Optional.of(user));
+
+    // When
+    LoginResult result = authService.login(username, password);
+
+    // Then
+    assertThat(result.isSuccess()).isTrue();
+    assertThat(authService.getCurrentUser()).isSameAs(user);
+    verify(userRepository, never()).findByUsername(any());
+    verify(passwords, never()).verifyPassword(any(), any());
+  }
+
+  @Test
+  void login_ShouldNotRememberCredentials_WhenPasswordInvalid() {
+    // Given
+    String username = "testuser";
+    User user = createTestUser(username, Role.USER, "correct_hash");
+    when(userRepository.findByUsername(username)).thenReturn(user);
+    when(passwords.verifyPassword("wrong", user.getPasswordHash())).thenReturn(false);
+
+    // When
+    authService.login(username, "wrong");
+
+    // Then
+    verify(verifiedCredentialCache, never()).put(any(), any(), any());
+  }
+
   @Test
   void login_ShouldSetCurrentUser_WhenSuccessful() {
     // Given
@@ -269,6 +331,46 @@ class AuthServiceImplTest {
     assertThat(authService.getCurrentUser()).isEqualTo(User.anonymous());
   }
 
+  @Test
+  void logout_ShouldRevokeSessionToken_WhenAuthenticatedWithToken() {
+    // Given
+    UserContext.setCurrentUser(createTestUser("user", Role.USER, "hash"));
+    UserContext.setCurrentToken("session-token");
+
+    // When
+    authService.logout();
+
+    // Then
+    verify(tokenService).revoke("session-token");
+    assertThat(UserContext.getCurrentToken()).isEmpty();
+    assertThat(authService.isAuthenticated()).isFalse();
+  }
+
+  @Test
+  void issueToken_ShouldIssueTokenForCurrentUser_WhenAuthenticated() {
+    // Given
+    User user = createTestUser("user", Role.USER, "hash");
+    UserContext.setCurrentUser(user);
+    SessionToken sessionToken = new SessionToken("token", "Bearer", 3600);
+    when(tokenService.issue(user)).thenReturn(sessionToken);
+
+    // When
+    SessionToken result = authService.issueToken();
+
+    // Then
+    assertThat(result).isSameAs(sessionToken);
+  }
+
+  @Test
+  void issueToken_ShouldThrowAccessDenied_WhenNotAuthenticated() {
+    // Given
+    authService.logout();
+
+    // When & Then
+    assertThatThrownBy(() -> authService.issueToken()).isInstanceOf(AccessDeniedException.class);
+    verify(tokenService, never()).issue(any());
+  }
+
   @Test
   void getCurrentUser_ShouldReturnUnknown_WhenNotAuthenticated() {
     // Given - no current user
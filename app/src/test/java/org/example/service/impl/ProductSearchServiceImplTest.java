@@ -0,0 +1,166 @@
+package org.example.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+import org.example.cache.Cache;
+import org.example.cache.StripedCacheImpl;
+import org.example.dto.ProductFacets;
+import org.example.dto.SearchCriteria;
+import org.example.model.Product;
+import org.example.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class ProductSearchServiceImplTest {
+
+  @Mock ProductRepository productRepository;
+  Cache<Long, Product> productCache = new StripedCacheImpl<>(100, 4) {};
+  Cache<SearchCriteria, List<Long>> searchResultCache = new StripedCacheImpl<>(100, 4) {};
+  Cache<SearchCriteria, ProductFacets> facetCache = new StripedCacheImpl<>(100, 4) {};
+  ProductSearchServiceImpl productSearchService;
+
+  @BeforeEach
+  void setUp() {
+    MockitoAnnotations.openMocks(this);
+    productSearchService =
+        new ProductSearchServiceImpl(
+            productRepository, productCache, searchResultCache, facetCache);
+    ReflectionTestUtils.setField(productSearchService, "maxCachedResults", 2);
+  }
+
+  private static Product createProduct(Long id, String name, String category) {
+    return new Product(id, name, "Description", category, "Brand", new BigDecimal("10.00"));
+  }
+
+  @Test
+  void search_ShouldResolveCachedIds_WhenNormalizedCriteriaIsEqual() {
+    // Given
+    Product cached = createProduct(1L, "Java", "Books");
+    Product notCached = createProduct(2L, "Kotlin", "Books");
+    when(productRepository.search(any())).thenReturn(List.of(cached, notCached));
+    when(productRepository.findAllById(List.of(2L))).thenReturn(List.of(notCached));
+    productCache.put(1L, cached);
+
+    // When
+    productSearchService.search(SearchCriteria.builder().category("Books ").build());
+    List<Product> result =
+        productSearchService.search(SearchCriteria.builder().category("books").build());
+
+    // Then
+    assertThat(result).containsExactly(cached, notCached);
+    verify(productRepository, times(1)).search(any());
+    verify(productRepository).findAllById(List.of(2L));
+  }
+
+  @Test
+  void search_ShouldNotCacheIds_WhenResultIsLargerThanLimit() {
+    // Given
+    SearchCriteria criteria = SearchCriteria.builder().category("books").build();
+    when(productRepository.search(criteria))
+        .thenReturn(
+            List.of(
+                createProduct(1L, "Java", "Books"),
+                createProduct(2L, "Kotlin", "Books"),
+                createProduct(3L, "Scala", "Books")));
+
+    // When
+    productSearchService.search(criteria);
+    List<Product> result = productSearchService.search(criteria);
+
+    // Then
+    assertThat(result).hasSize(3);
+    assertThat(searchResultCache.isEmpty()).isTrue();
+    verify(productRepository, times(2)).search(criteria);
+    verify(productRepository, never()).findAllById(any());
+  }
+
+  @Test
+  void productSaved_ShouldDropOnlyResultsMatchingPreviousOrSavedProduct() {
+    // Given
+    SearchCriteria books = SearchCriteria.builder().category("books").build();
+    SearchCriteria games = SearchCriteria.builder().category("games").build();
+    SearchCriteria music = SearchCriteria.builder().category("music").build();
+    searchResultCache.put(books, List.of(1L));
+    searchResultCache.put(games, List.of());
+    searchResultCache.put(music, List.of(5L));
+
+    // When
+    productSearchService.productSaved(
+        createProduct(1L, "Java", "Books"), createProduct(1L, "Java", "Games"));
+
+    // Then
+    assertThat(searchResultCache.get(books)).isEmpty();
+    assertThat(searchResultCache.get(games)).isEmpty();
+    assertThat(searchResultCache.get(music)).contains(List.of(5L));
+  }
+
+  @Test
+  void productSaved_ShouldDropResultsMatchingName_RegardlessOfDefaultLocale() {
+    // Given
+    Locale defaultLocale = Locale.getDefault();
+    Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+    try {
+      SearchCriteria titan = SearchCriteria.builder().name("TITAN").build().normalized();
+      searchResultCache.put(titan, List.of());
+
+      // When
+      productSearchService.productSaved(null, createProduct(1L, "Titan", "Books"));
+
+      // Then
+      assertThat(searchResultCache.get(titan)).isEmpty();
+    } finally {
+      Locale.setDefault(defaultLocale);
+    }
+  }
+
+  @Test
+  void productDeleted_ShouldDropResultsContainingProduct() {
+    // Given
+    SearchCriteria books = SearchCriteria.builder().category("books").build();
+    SearchCriteria music = SearchCriteria.builder().category("music").build();
+    searchResultCache.put(books, List.of(1L));
+    searchResultCache.put(music, List.of(5L));
+
+    // When
+    productSearchService.productDeleted(createProduct(1L, "Java", "Books"));
+
+    // Then
+    assertThat(searchResultCache.get(books)).isEmpty();
+    assertThat(searchResultCache.get(music)).contains(List.of(5L));
+  }
+
+  @Test
+  void suggestNames_ShouldFollowSavedAndDeletedProducts_AfterIndexIsBuilt() {
+    // Given
+    Product laptop = createProduct(1L, "Laptop", "Computers");
+    when(productRepository.streamAll(any()))
+        .thenAnswer(
+            invocation -> {
+              Consumer<Product> action = invocation.getArgument(0);
+              action.accept(laptop);
+              action.accept(createProduct(2L, "Lamp", "Home"));
+              return 2L;
+            });
+    assertThat(productSearchService.suggestNames("la", 10)).isEmpty();
+    productSearchService.buildIndexes();
+
+    // When
+    productSearchService.productSaved(laptop, createProduct(1L, "Laptop Pro", "Computers"));
+    productSearchService.productDeleted(createProduct(2L, "Lamp", "Home"));
+
+    // Then
+    assertThat(productSearchService.suggestNames("LA", 10)).containsExactly("Laptop Pro");
+  }
+}
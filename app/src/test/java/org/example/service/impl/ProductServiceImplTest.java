@@ -3,6 +3,7 @@ package org.example.service.impl;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.doNothing;
@@ -18,6 +19,7 @@ import java.util.Optional;
 import org.assertj.core.api.Assertions;
 import org.example.cache.Cache;
 import org.example.dto.ProductForm;
+import org.example.dto.ProductPage;
 import org.example.dto.SearchCriteria;
 import org.example.exception.ResourceNotFoundException;
 import org.example.mapper.ProductMapper;
@@ -26,6 +28,7 @@ import org.example.repository.ProductRepository;
 import org.example.service.AuthService;
 import org.example.service.DtoValidator;
 import org.example.service.ProductSearchService;
+import org.example.service.ProductService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
@@ -88,6 +91,14 @@ class ProductServiceImplTest {
         .build();
   }
 
+  @Test
+  void suggestNames_ShouldRejectBlankPrefix() {
+    // When & Then
+    assertThatThrownBy(() -> productService.suggestNames("  ", 10))
+        .isInstanceOf(ValidationException.class);
+    verify(productSearchService, never()).suggestNames(any(), anyInt());
+  }
+
   @Test
   void getAllProducts_ShouldDelegateToProductSearchService() {
     // Given
@@ -102,6 +113,50 @@ class ProductServiceImplTest {
     verify(productSearchService).getAllProducts();
   }
 
+  @Test
+  void getPage_ShouldDelegateToProductSearchService() {
+    // Given
+    ProductPage expectedPage = new ProductPage(List.of(createTestProduct(1L)), 1L);
+    when(productSearchService.getPage(null, 1)).thenReturn(expectedPage);
+
+    // When
+    ProductPage result = productService.getPage(null, 1);
+
+    // Then
+    assertThat(result).isSameAs(expectedPage);
+  }
+
+  @Test
+  void getPage_ShouldThrowValidationException_WhenLimitOutOfRange() {
+    // When & Then
+    assertThatThrownBy(() -> productService.getPage(null, 0))
+        .isInstanceOf(ValidationException.class);
+    assertThatThrownBy(() -> productService.getPage(null, ProductService.MAX_PAGE_SIZE + 1))
+        .isInstanceOf(ValidationException.class);
+    verify(productSearchService, never()).getPage(any(), anyInt());
+  }
+
+  @Test
+  void fullTextSearch_ShouldPassTrimmedQueryToProductSearchService() {
+    // Given
+    List<Product> expectedProducts = List.of(createTestProduct(1L));
+    when(productSearchService.fullTextSearch("wireless mouse", 10)).thenReturn(expectedProducts);
+
+    // When
+    List<Product> result = productService.fullTextSearch(" wireless mouse ", 10);
+
+    // Then
+    assertThat(result).isEqualTo(expectedProducts);
+  }
+
+  @Test
+  void fullTextSearch_ShouldThrowValidationException_WhenQueryIsBlank() {
+    // When & Then
+    assertThatThrownBy(() -> productService.fullTextSearch(" ", 10))
+        .isInstanceOf(ValidationException.class);
+    verify(productSearchService, never()).fullTextSearch(any(), anyInt());
+  }
+
   @Test
   void addProduct_ShouldAddProductSuccessfully() {
     // Given
@@ -124,6 +179,7 @@ class ProductServiceImplTest {
     verify(dtoValidator).validate(product);
     verify(productRepository).save(any(Product.class));
     verify(productCache).put(1L, savedProduct);
+    verify(productSearchService).productSaved(null, savedProduct);
   }
 
   @Test
@@ -207,6 +263,7 @@ class ProductServiceImplTest {
     verify(productRepository).findById(productId);
     verify(productRepository).delete(productId);
     verify(productCache).remove(productId);
+    verify(productSearchService).productDeleted(product);
   }
 
   @Test
@@ -256,6 +313,7 @@ class ProductServiceImplTest {
                     product.getName().equals("Updated Product")
                         && product.getDescription().equals("Updated Description")));
     verify(productCache).put(productId, updatedProduct);
+    verify(productSearchService).productSaved(existingProduct, updatedProduct);
   }
 
   private Product createUpdatedTestProduct() {
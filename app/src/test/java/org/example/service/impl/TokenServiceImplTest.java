@@ -0,0 +1,136 @@
+package org.example.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Base64;
+import java.util.Optional;
+import org.example.dto.SessionToken;
+import org.example.dto.UserSavedEvent;
+import org.example.exception.InitializationException;
+import org.example.model.Role;
+import org.example.model.User;
+import org.junit.jupiter.api.Test;
+
+class TokenServiceImplTest {
+  private static final String SECRET = "test-secret-test-secret-test-secret";
+
+  private final TokenServiceImpl tokenService = new TokenServiceImpl(SECRET, 60_000);
+
+  private static User createUser(String username, Role role) {
+    User user = new User(username, "hash", role);
+    user.setId(7L);
+    return user;
+  }
+
+  @Test
+  void authenticate_ShouldReturnUserFromToken_WhenTokenIssuedByService() {
+    // Given
+    SessionToken sessionToken = tokenService.issue(createUser("john:doe", Role.ADMIN));
+
+    // When
+    Optional<User> user = tokenService.authenticate(sessionToken.getToken());
+
+    // Then
+    assertThat(user).isPresent();
+    assertThat(user.get().getId()).isEqualTo(7L);
+    assertThat(user.get().getUsername()).isEqualTo("john:doe");
+    assertThat(user.get().getRole()).isEqualTo(Role.ADMIN);
+    assertThat(sessionToken.getTokenType()).isEqualTo("Bearer");
+    assertThat(sessionToken.getExpiresIn()).isEqualTo(60);
+  }
+
+  @Test
+  void authenticate_ShouldReturnEmpty_WhenTokenIsTampered() {
+    // Given
+    String token = tokenService.issue(createUser("john", Role.USER)).getToken();
+    String[] parts = token.split("\\.");
+    String forgedPayload =
+        Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString("id:7:ADMIN:99999999999999:john".getBytes());
+
+    // When & Then
+    assertThat(tokenService.authenticate(forgedPayload + "." + parts[1])).isEmpty();
+    assertThat(tokenService.authenticate(token + "x")).isEmpty();
+    assertThat(tokenService.authenticate("garbage")).isEmpty();
+    assertThat(tokenService.authenticate(null)).isEmpty();
+  }
+
+  @Test
+  void authenticate_ShouldReturnEmpty_WhenTokenSignedWithOtherSecret() {
+    // Given
+    var otherService = new TokenServiceImpl("other-secret-other-secret-other-secret", 60_000);
+    String token = otherService.issue(createUser("john", Role.USER)).getToken();
+
+    // When & Then
+    assertThat(tokenService.authenticate(token)).isEmpty();
+  }
+
+  @Test
+  void authenticate_ShouldReturnEmpty_WhenTokenExpired() throws InterruptedException {
+    // Given
+    var shortLivedService = new TokenServiceImpl(SECRET, 1);
+    String token = shortLivedService.issue(createUser("john", Role.USER)).getToken();
+
+    // When
+    Thread.sleep(10);
+
+    // Then
+    assertThat(shortLivedService.authenticate(token)).isEmpty();
+  }
+
+  @Test
+  void authenticate_ShouldReturnEmpty_WhenTokenRevoked() {
+    // Given
+    String revoked = tokenService.issue(createUser("john", Role.USER)).getToken();
+    String other = tokenService.issue(createUser("john", Role.USER)).getToken();
+
+    // When
+    tokenService.revoke(revoked);
+
+    // Then
+    assertThat(tokenService.authenticate(revoked)).isEmpty();
+    assertThat(tokenService.authenticate(other)).isPresent();
+  }
+
+  @Test
+  void authenticate_ShouldReturnEmpty_WhenUserUpdatedAfterTokenIssued()
+      throws InterruptedException {
+    // Given
+    String updatedUserToken = tokenService.issue(createUser("john", Role.ADMIN)).getToken();
+    User otherUser = createUser("jane", Role.ADMIN);
+    otherUser.setId(8L);
+    String otherUserToken = tokenService.issue(otherUser).getToken();
+
+    // When
+    tokenService.onUserSaved(new UserSavedEvent(7L, "john", false));
+    Thread.sleep(2);
+    String reissuedToken = tokenService.issue(createUser("john", Role.USER)).getToken();
+
+    // Then
+    assertThat(tokenService.authenticate(updatedUserToken)).isEmpty();
+    assertThat(tokenService.authenticate(otherUserToken)).isPresent();
+    assertThat(tokenService.authenticate(reissuedToken))
+        .map(User::getRole)
+        .contains(Role.USER);
+  }
+
+  @Test
+  void constructor_ShouldGenerateRandomSecret_WhenSecretIsBlank() {
+    // Given
+    var firstService = new TokenServiceImpl("", 60_000);
+    var secondService = new TokenServiceImpl("", 60_000);
+    String token = firstService.issue(createUser("john", Role.USER)).getToken();
+
+    // When & Then
+    assertThat(firstService.authenticate(token)).isPresent();
+    assertThat(secondService.authenticate(token)).isEmpty();
+  }
+
+  @Test
+  void constructor_ShouldFail_WhenSecretIsTooShort() {
+    assertThatThrownBy(() -> new TokenServiceImpl("short", 60_000))
+        .isInstanceOf(InitializationException.class);
+  }
+}
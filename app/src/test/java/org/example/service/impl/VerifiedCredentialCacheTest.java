@@ -0,0 +1,78 @@
+package org.example.service.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.example.dto.UserSavedEvent;
+import org.example.model.Role;
+import org.example.model.User;
+import org.junit.jupiter.api.Test;
+
+class VerifiedCredentialCacheTest {
+  private final User alice = new User("alice", "hash", Role.USER);
+  private final User bob = new User("bob", "hash", Role.USER);
+
+  @Test
+  void find_ShouldReturnUser_WhenSameCredentialsWereVerified() {
+    // Given
+    VerifiedCredentialCache cache = new VerifiedCredentialCache(10, 60_000);
+    cache.put("alice", "Secret1!", alice);
+
+    // When & Then
+    assertThat(cache.find("alice", "Secret1!")).containsSame(alice);
+    assertThat(cache.getMetrics().hits()).isEqualTo(1);
+  }
+
+  @Test
+  void find_ShouldReturnEmpty_WhenPasswordDiffers() {
+    // Given
+    VerifiedCredentialCache cache = new VerifiedCredentialCache(10, 60_000);
+    cache.put("alice", "Secret1!", alice);
+
+    // When & Then
+    assertThat(cache.find("alice", "Secret2!")).isEmpty();
+    assertThat(cache.find("bob", "Secret1!")).isEmpty();
+  }
+
+  @Test
+  void find_ShouldReturnEmpty_WhenEntryExpired() throws InterruptedException {
+    // Given
+    VerifiedCredentialCache cache = new VerifiedCredentialCache(10, 1);
+    cache.put("alice", "Secret1!", alice);
+
+    // When
+    Thread.sleep(10);
+
+    // Then
+    assertThat(cache.find("alice", "Secret1!")).isEmpty();
+  }
+
+  @Test
+  void onUserSaved_ShouldDropSavedUser_WhenUserCreated() {
+    // Given
+    VerifiedCredentialCache cache = new VerifiedCredentialCache(10, 60_000);
+    cache.put("alice", "Secret1!", alice);
+    cache.put("bob", "Secret1!", bob);
+
+    // When
+    cache.onUserSaved(new UserSavedEvent(1L, "alice", true));
+
+    // Then
+    assertThat(cache.find("alice", "Secret1!")).isEmpty();
+    assertThat(cache.find("bob", "Secret1!")).containsSame(bob);
+  }
+
+  @Test
+  void onUserSaved_ShouldDropAllEntries_WhenUserUpdated() {
+    // Given
+    VerifiedCredentialCache cache = new VerifiedCredentialCache(10, 60_000);
+    cache.put("alice", "Secret1!", alice);
+    cache.put("bob", "Secret1!", bob);
+
+    // When
+    cache.onUserSaved(new UserSavedEvent(1L, "alice_renamed", false));
+
+    // Then
+    assertThat(cache.find("alice", "Secret1!")).isEmpty();
+    assertThat(cache.find("bob", "Secret1!")).isEmpty();
+  }
+}
@@ -0,0 +1,89 @@
+package org.example.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.example.exception.ServiceOverloadedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class PasswordsImplTest {
+  private static final String PASSWORD = "Secret123!";
+
+  private PasswordsImpl passwords;
+
+  @AfterEach
+  void tearDown() {
+    passwords.destroy();
+  }
+
+  @Test
+  void verifyPassword_ShouldAcceptOnlyHashedPassword() {
+    // Given
+    passwords = new PasswordsImpl(1, 1, 10_000);
+    String hash = passwords.hashPassword(PASSWORD);
+
+    // When & Then
+    assertThat(passwords.verifyPassword(PASSWORD, hash)).isTrue();
+    assertThat(passwords.verifyPassword("Secret123?", hash)).isFalse();
+    assertThat(passwords.verifyPassword(PASSWORD, "malformed")).isFalse();
+    assertThat(passwords.getMetrics().completed()).isEqualTo(4);
+    assertThat(passwords.getMetrics().averageHashMillis()).isPositive();
+  }
+
+  @Test
+  void verifyPassword_ShouldRejectImmediately_WhenWorkersAndQueueAreBusy() throws Exception {
+    // Given
+    passwords = new PasswordsImpl(1, 1, 10_000);
+    String hash = passwords.hashPassword(PASSWORD);
+    List<Thread> callers = new ArrayList<>();
+    for (int i = 0; i < 2; i++) {
+      Thread caller = new Thread(() -> passwords.verifyPassword(PASSWORD, hash));
+      caller.start();
+      callers.add(caller);
+    }
+    while (passwords.getMetrics().active() + passwords.getMetrics().queued() < 2) {
+      Thread.onSpinWait();
+    }
+
+    // When & Then
+    assertThatThrownBy(() -> passwords.verifyPassword(PASSWORD, hash))
+        .isInstanceOf(ServiceOverloadedException.class);
+    assertThat(passwords.getMetrics().rejected()).isEqualTo(1);
+    for (Thread caller : callers) {
+      caller.join();
+    }
+  }
+
+  @Test
+  void verifyPassword_ShouldFail_WhenResultIsNotReadyInTime() {
+    // Given
+    passwords = new PasswordsImpl(1, 1, 1);
+
+    // When & Then
+    assertThatThrownBy(() -> passwords.verifyPassword(PASSWORD, "c2FsdA==:aGFzaA=="))
+        .isInstanceOf(ServiceOverloadedException.class);
+    assertThat(passwords.getMetrics().timedOut()).isEqualTo(1);
+    assertThat(passwords.getMetrics().rejected()).isZero();
+  }
+
+  @Test
+  void verifyPassword_ShouldFreeQueueSlot_WhenQueuedOperationTimesOut() {
+    // Given
+    passwords = new PasswordsImpl(1, 1, 1);
+    String hash = "c2FsdA==:aGFzaA==";
+
+    // When
+    for (int i = 0; i < 3; i++) {
+      assertThatThrownBy(() -> passwords.verifyPassword(PASSWORD, hash))
+          .isInstanceOf(ServiceOverloadedException.class);
+    }
+
+    // Then
+    assertThat(passwords.getMetrics().timedOut()).isEqualTo(3);
+    assertThat(passwords.getMetrics().rejected()).isZero();
+    assertThat(passwords.getMetrics().queued()).isZero();
+  }
+}
@@ -1,18 +1,29 @@
 package org.example.web.controller;
 
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ValidationException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 import org.example.configuration.BeanConfiguration;
+import org.example.dto.AuditCursor;
 import org.example.dto.AuditLogDto;
+import org.example.dto.AuditLogPage;
+import org.example.dto.AuditQuery;
 import org.example.mapper.AuditLogMapper;
 import org.example.model.AuditAction;
 import org.example.model.AuditLog;
@@ -22,6 +33,7 @@ import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
@@ -36,23 +48,37 @@ class AuditControllerTest {
   @MockitoBean AuditService auditService;
   @Autowired ObjectMapper objectMapper;
   AuditLogMapper auditLogMapper = Mappers.getMapper(AuditLogMapper.class);
+  MappingJackson2HttpMessageConverter jsonMessageConverter =
+      new MappingJackson2HttpMessageConverter();
 
   @BeforeEach
   void setup() {
     this.mockMvc =
-        MockMvcBuilders.standaloneSetup(new AuditController(auditLogMapper, auditService))
+        MockMvcBuilders.standaloneSetup(
+                new AuditController(auditLogMapper, auditService, jsonMessageConverter))
             .setControllerAdvice(GlobalExceptionHandler.class)
             .build();
   }
 
+  private AuditLog createAuditLog(Long id, String username, AuditAction action) {
+    AuditLog auditLog = new AuditLog();
+    auditLog.setId(id);
+    auditLog.setUsername(username);
+    auditLog.setAction(action);
+    auditLog.setTimestamp(LocalDateTime.of(2025, 3, 14, 15, 9, 26, 535_897_000));
+    return auditLog;
+  }
+
   @Test
-  void getByUsername_WhenNoUsernameParameter_ShouldReturnAllAuditLogs() throws Exception {
+  void getAudits_WhenNoParameters_ShouldReturnFirstPageWithNextCursor() throws Exception {
     // Arrange
     List<AuditLog> auditLogs =
         List.of(
-            createAuditLog(1L, "user1", AuditAction.SEARCH),
-            createAuditLog(2L, "user2", AuditAction.SEARCH));
-    when(auditService.findAll()).thenReturn(auditLogs);
+            createAuditLog(2L, "user2", AuditAction.SEARCH),
+            createAuditLog(1L, "user1", AuditAction.SEARCH));
+    AuditCursor nextCursor = AuditCursor.of(auditLogs.get(1));
+    when(auditService.findPage(AuditQuery.builder().build(), null, 100))
+        .thenReturn(new AuditLogPage(auditLogs, nextCursor));
 
     List<AuditLogDto> expectedDtos = auditLogs.stream().map(auditLogMapper::toDto).toList();
 
@@ -61,85 +87,114 @@ class AuditControllerTest {
         .perform(get("/audits").contentType(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(header().string("X-Next-Cursor", "2025-03-14T15:09:26.535897,1"))
         .andExpect(content().json(objectMapper.writeValueAsString(expectedDtos)));
-
-    verify(auditService).findAll();
-    verify(auditService, never()).findByUsername(anyString());
-  }
-
-  private AuditLog createAuditLog(Long id, String username, AuditAction action) {
-    AuditLog auditLog = new AuditLog();
-    auditLog.setId(id);
-    auditLog.setUsername(username);
-    auditLog.setAction(action);
-    auditLog.setTimestamp(java.time.LocalDateTime.now());
-    return auditLog;
   }
 
   @Test
-  void getByUsername_WhenUsernameParameterProvided_ShouldReturnFilteredAuditLogs()
+  void getAudits_WhenFiltersAndCursorProvided_ShouldRequestNextPageOfMatchingLogs()
       throws Exception {
     // Arrange
-    String username = "testUser";
-    List<AuditLog> auditLogs =
-        List.of(
-            createAuditLog(1L, username, AuditAction.LOGIN),
-            createAuditLog(2L, username, AuditAction.LOGOUT));
-    when(auditService.findByUsername(username)).thenReturn(auditLogs);
+    AuditQuery query =
+        AuditQuery.builder()
+            .username("testUser")
+            .action(AuditAction.LOGIN)
+            .from(LocalDateTime.of(2025, 3, 1, 0, 0))
+            .to(LocalDateTime.of(2025, 4, 1, 0, 0))
+            .build();
+    AuditCursor after = new AuditCursor(LocalDateTime.of(2025, 3, 14, 15, 9, 26), 42);
+    List<AuditLog> auditLogs = List.of(createAuditLog(41L, "testUser", AuditAction.LOGIN));
+    when(auditService.findPage(query, after, 10)).thenReturn(new AuditLogPage(auditLogs, null));
 
     List<AuditLogDto> expectedDtos = auditLogs.stream().map(auditLogMapper::toDto).toList();
 
     // Act & Assert
     mockMvc
-        .perform(get("/audits").param("username", username).contentType(MediaType.APPLICATION_JSON))
+        .perform(
+            get("/audits")
+                .param("username", "testUser")
+                .param("action", "LOGIN")
+                .param("from", "2025-03-01T00:00:00")
+                .param("to", "2025-04-01T00:00:00")
+                .param("after", "2025-03-14T15:09:26,42")
+                .param("limit", "10")
+                .contentType(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
-        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
         .andExpect(content().json(objectMapper.writeValueAsString(expectedDtos)));
 
-    verify(auditService).findByUsername(username);
-    verify(auditService, never()).findAll();
+    verify(auditService).findPage(query, after, 10);
   }
 
   @Test
-  void getByUsername_WhenUsernameParameterEmpty_ShouldReturnFilteredAuditLogs() throws Exception {
+  void getAudits_WhenUsernameParameterEmpty_ShouldFilterByEmptyUsername() throws Exception {
     // Arrange
-    String username = "";
-    List<AuditLog> auditLogs = List.of(createAuditLog(1L, "", AuditAction.SEARCH));
-    when(auditService.findByUsername(username)).thenReturn(auditLogs);
-
-    List<AuditLogDto> expectedDtos = auditLogs.stream().map(auditLogMapper::toDto).toList();
+    AuditQuery query = AuditQuery.builder().username("").build();
+    when(auditService.findPage(query, null, 100))
+        .thenReturn(new AuditLogPage(List.of(createAuditLog(1L, "", AuditAction.SEARCH)), null));
 
     // Act & Assert
     mockMvc
-        .perform(get("/audits").param("username", username).contentType(MediaType.APPLICATION_JSON))
+        .perform(get("/audits").param("username", "").contentType(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
-        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
-        .andExpect(content().json(objectMapper.writeValueAsString(expectedDtos)));
+        .andExpect(content().json("[{\"id\":1,\"username\":\"\",\"action\":\"SEARCH\"}]"));
 
-    verify(auditService).findByUsername(username);
-    verify(auditService, never()).findAll();
+    verify(auditService).findPage(query, null, 100);
   }
 
   @Test
-  void getByUsername_WhenNoAuditLogsFound_ShouldReturnEmptyArray() throws Exception {
+  void getAudits_WhenNoAuditLogsFound_ShouldReturnEmptyArray() throws Exception {
     // Arrange
-    when(auditService.findAll()).thenReturn(List.of());
+    when(auditService.findPage(any(), isNull(), anyInt()))
+        .thenReturn(new AuditLogPage(List.of(), null));
 
     // Act & Assert
     mockMvc
         .perform(get("/audits").contentType(MediaType.APPLICATION_JSON))
         .andExpect(status().isOk())
         .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(header().doesNotExist("X-Next-Cursor"))
         .andExpect(content().json("[]"));
+  }
+
+  @Test
+  void getAudits_WhenAfterIsNotCursor_ShouldReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc
+        .perform(get("/audits").param("after", "42"))
+        .andExpect(status().isBadRequest());
 
-    verify(auditService).findAll();
-    verify(auditService, never()).findByUsername(anyString());
+    verify(auditService, never()).findPage(any(), any(), anyInt());
   }
 
   @Test
-  void getByUsername_WhenServiceThrowsException_ShouldReturnInternalServerError() throws Exception {
+  void getAudits_WhenActionIsUnknown_ShouldReturnBadRequest() throws Exception {
+    // Act & Assert
+    mockMvc
+        .perform(get("/audits").param("action", "UNKNOWN"))
+        .andExpect(status().isBadRequest());
+
+    verify(auditService, never()).findPage(any(), any(), anyInt());
+  }
+
+  @Test
+  void getAudits_WhenLimitAboveMaximum_ShouldReturnBadRequest() throws Exception {
     // Arrange
-    when(auditService.findAll()).thenThrow(new RuntimeException("Database error"));
+    int limit = AuditService.MAX_PAGE_SIZE + 1;
+    when(auditService.findPage(any(), isNull(), eq(limit)))
+        .thenThrow(new ValidationException("limit must be between 1 and 1000"));
+
+    // Act & Assert
+    mockMvc
+        .perform(get("/audits").param("limit", String.valueOf(limit)))
+        .andExpect(status().isBadRequest());
+  }
+
+  @Test
+  void getAudits_WhenServiceThrowsException_ShouldReturnInternalServerError() throws Exception {
+    // Arrange
+    when(auditService.findPage(any(), any(), anyInt()))
+        .thenThrow(new RuntimeException("Database error"));
 
     // Act & Assert
     mockMvc
@@ -148,15 +203,56 @@ class AuditControllerTest {
   }
 
   @Test
-  void getByUsername_WithInvalidParameters_ShouldReturnBadRequest() throws Exception {
+  void getAudits_WithUnknownParameters_ShouldIgnoreThem() throws Exception {
     // Arrange
-    when(auditService.findAll()).thenReturn(List.of());
+    when(auditService.findPage(any(), isNull(), anyInt()))
+        .thenReturn(new AuditLogPage(List.of(), null));
+
     // Act & Assert
     mockMvc
         .perform(get("/audits").param("invalidParam", "value"))
         .andExpect(status().isOk());
   }
 
+  @Test
+  void export_ShouldStreamAllLogsMatchingFilters() throws Exception {
+    // Arrange
+    AuditQuery query =
+        AuditQuery.builder()
+            .username("admin")
+            .action(AuditAction.LOGIN)
+            .from(LocalDateTime.of(2025, 3, 1, 0, 0))
+            .build();
+    List<AuditLog> auditLogs =
+        List.of(
+            createAuditLog(2L, "admin", AuditAction.LOGIN),
+            createAuditLog(1L, "admin", AuditAction.LOGIN));
+    doAnswer(
+            invocation -> {
+              Consumer<AuditLog> action = invocation.getArgument(1);
+              auditLogs.forEach(action);
+              return (long) auditLogs.size();
+            })
+        .when(auditService)
+        .stream(eq(query), any());
+
+    List<AuditLogDto> expectedDtos = auditLogs.stream().map(auditLogMapper::toDto).toList();
+
+    // Act & Assert
+    mockMvc
+        .perform(
+            get("/audits/export")
+                .param("username", "admin")
+                .param("action", "LOGIN")
+                .param("from", "2025-03-01T00:00:00"))
+        .andExpect(status().isOk())
+        .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+        .andExpect(content().json(objectMapper.writeValueAsString(expectedDtos)));
+
+    verify(auditService).stream(eq(query), any());
+    verify(auditService, never()).findPage(any(), any(), anyInt());
+  }
+
   @Test
   void postToAudits_ShouldReturnMethodNotAllowed() throws Exception {
     mockMvc.perform(post("/audits")).andExpect(status().isMethodNotAllowed());
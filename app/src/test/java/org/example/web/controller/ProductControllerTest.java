@@ -1,6 +1,9 @@
 package org.example.web.controller;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -11,16 +14,23 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import org.example.configuration.BeanConfiguration;
+import org.example.dto.PriceBucket;
 import org.example.dto.ProductDto;
+import org.example.dto.ProductFacets;
 import org.example.dto.ProductForm;
+import org.example.dto.ProductPage;
+import org.example.dto.ProductSort;
 import org.example.dto.SearchCriteria;
 import org.example.exception.ResourceNotFoundException;
 import org.example.mapper.ProductMapper;
@@ -32,6 +42,7 @@ import org.junit.jupiter.api.Test;
 import org.mapstruct.factory.Mappers;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
@@ -47,11 +58,14 @@ class ProductControllerTest {
   @MockitoBean ProductService productService;
   @Autowired ObjectMapper objectMapper;
   ProductMapper productMapper = Mappers.getMapper(ProductMapper.class);
+  MappingJackson2HttpMessageConverter jsonMessageConverter =
+      new MappingJackson2HttpMessageConverter();
 
   @BeforeEach
   void setup() {
     this.mockMvc =
-        MockMvcBuilders.standaloneSetup(new ProductController(productMapper, productService))
+        MockMvcBuilders.standaloneSetup(
+                new ProductController(productMapper, productService, jsonMessageConverter))
             .setControllerAdvice(GlobalExceptionHandler.class)
             .build();
   }
@@ -120,13 +134,20 @@ class ProductControllerTest {
   class GetFilterTests {
 
     @Test
-    void getFilter_WhenNoParameters_ShouldReturnAllProducts() throws Exception {
+    void getFilter_WhenNoParameters_ShouldStreamAllProducts() throws Exception {
       // Arrange
       List<Product> products =
           List.of(createProduct(1L, "Product1"), createProduct(2L, "Product2"));
       List<ProductDto> expectedDtos = products.stream().map(productMapper::toDto).toList();
 
-      when(productService.getAllProducts()).thenReturn(products);
+      doAnswer(
+              invocation -> {
+                Consumer<Product> action = invocation.getArgument(0);
+                products.forEach(action);
+                return (long) products.size();
+              })
+          .when(productService)
+          .streamAll(any());
 
       // Act & Assert
       mockMvc
@@ -135,7 +156,163 @@ class ProductControllerTest {
           .andExpect(content().contentType(MediaType.APPLICATION_JSON))
           .andExpect(content().json(objectMapper.writeValueAsString(expectedDtos)));
 
-      verify(productService).getAllProducts();
+      verify(productService).streamAll(any());
+      verify(productService, never()).getAllProducts();
+      verify(productService, never()).search(any(SearchCriteria.class));
+    }
+
+    @Test
+    void getFilter_WhenLimitPresent_ShouldReturnPageWithNextCursor() throws Exception {
+      // Arrange
+      List<Product> products =
+          List.of(createProduct(1L, "Product1"), createProduct(2L, "Product2"));
+      List<ProductDto> expectedDtos = products.stream().map(productMapper::toDto).toList();
+
+      when(productService.getPage(null, 2)).thenReturn(new ProductPage(products, 2L));
+
+      // Act & Assert
+      mockMvc
+          .perform(get("/products").param("limit", "2"))
+          .andExpect(status().isOk())
+          .andExpect(header().string("X-Next-Cursor", "2"))
+          .andExpect(content().json(objectMapper.writeValueAsString(expectedDtos)));
+
+      verify(productService, never()).getAllProducts();
+    }
+
+    @Test
+    void getFilter_WhenLastPageRequested_ShouldNotReturnNextCursor() throws Exception {
+      // Arrange
+      List<Product> products = List.of(createProduct(3L, "Product3"));
+      List<ProductDto> expectedDtos = products.stream().map(productMapper::toDto).toList();
+
+      when(productService.getPage(2L, 100)).thenReturn(new ProductPage(products, null));
+
+      // Act & Assert
+      mockMvc
+          .perform(get("/products").param("after", "2"))
+          .andExpect(status().isOk())
+          .andExpect(header().doesNotExist("X-Next-Cursor"))
+          .andExpect(content().json(objectMapper.writeValueAsString(expectedDtos)));
+    }
+
+    @Test
+    void getFilter_WhenCursorCombinedWithFilter_ShouldReturnBadRequest() throws Exception {
+      // Act & Assert
+      mockMvc
+          .perform(
+              get("/products")
+                  .param("category", "electronics")
+                  .param("limit", "10")
+                  .param("after", "500"))
+          .andExpect(status().isBadRequest());
+      mockMvc
+          .perform(get("/products").param("sort", "price").param("after", "500"))
+          .andExpect(status().isBadRequest());
+
+      verify(productService, never()).search(any(SearchCriteria.class));
+      verify(productService, never()).getPage(any(), anyInt());
+    }
+
+    @Test
+    void getFilter_WhenQueryParameterPresent_ShouldHandleFullTextSearch() throws Exception {
+      // Arrange
+      List<Product> products = List.of(createProduct(2L, "Wireless Mouse"));
+      List<ProductDto> expectedDtos = products.stream().map(productMapper::toDto).toList();
+
+      when(productService.fullTextSearch("wireless", 5)).thenReturn(products);
+
+      // Act & Assert
+      mockMvc
+          .perform(get("/products").param("q", "wireless").param("limit", "5"))
+          .andExpect(status().isOk())
+          .andExpect(content().json(objectMapper.writeValueAsString(expectedDtos)));
+
+      verify(productService, never()).search(any(SearchCriteria.class));
+    }
+
+    @Test
+    void getFilter_WhenQueryParameterCombinedWithFilter_ShouldReturnBadRequest()
+        throws Exception {
+      // Act & Assert
+      mockMvc
+          .perform(get("/products").param("q", "laptop").param("brand", "dell"))
+          .andExpect(status().isBadRequest());
+      mockMvc
+          .perform(get("/products").param("q", "laptop").param("sort", "price"))
+          .andExpect(status().isBadRequest());
+
+      verify(productService, never()).fullTextSearch(any(), anyInt());
+      verify(productService, never()).search(any(SearchCriteria.class));
+    }
+
+    @Test
+    void getFilter_WhenFilterParameterPresent_ShouldIgnorePaging() throws Exception {
+      // Arrange
+      when(productService.search(any(SearchCriteria.class))).thenReturn(List.of());
+
+      // Act & Assert
+      mockMvc
+          .perform(get("/products").param("name", "test").param("limit", "2"))
+          .andExpect(status().isOk());
+
+      verify(productService).search(any(SearchCriteria.class));
+      verify(productService, never()).getPage(isNull(), anyInt());
+    }
+
+    @Test
+    void getFilter_WhenSortParameterPresent_ShouldSearchSortedAndLimited() throws Exception {
+      // Arrange
+      List<Product> products = List.of(createProduct(1L, "Product1"));
+      List<ProductDto> expectedDtos = products.stream().map(productMapper::toDto).toList();
+      SearchCriteria criteria =
+          SearchCriteria.builder()
+              .category("electronics")
+              .sort(ProductSort.PRICE)
+              .descending(true)
+              .limit(20)
+              .build();
+
+      when(productService.search(criteria)).thenReturn(products);
+
+      // Act & Assert
+      mockMvc
+          .perform(
+              get("/products")
+                  .param("category", "electronics")
+                  .param("sort", "Price")
+                  .param("order", "desc")
+                  .param("limit", "20"))
+          .andExpect(status().isOk())
+          .andExpect(content().json(objectMapper.writeValueAsString(expectedDtos)));
+
+      verify(productService).search(criteria);
+      verify(productService, never()).getPage(any(), anyInt());
+    }
+
+    @Test
+    void getFilter_WhenSortedWithoutLimit_ShouldLimitToDefaultPageSize() throws Exception {
+      // Arrange
+      SearchCriteria byPrice = SearchCriteria.builder().sort(ProductSort.PRICE).limit(100).build();
+      SearchCriteria descending = SearchCriteria.builder().descending(true).limit(100).build();
+      when(productService.search(any(SearchCriteria.class))).thenReturn(List.of());
+
+      // Act & Assert
+      mockMvc.perform(get("/products").param("sort", "price")).andExpect(status().isOk());
+      mockMvc.perform(get("/products").param("order", "desc")).andExpect(status().isOk());
+
+      verify(productService).search(byPrice);
+      verify(productService).search(descending);
+      verify(productService, never()).streamAll(any());
+    }
+
+    @Test
+    void getFilter_WhenSortIsUnknown_ShouldReturnBadRequest() throws Exception {
+      // Act & Assert
+      mockMvc
+          .perform(get("/products").param("sort", "rating"))
+          .andExpect(status().isBadRequest());
+
       verify(productService, never()).search(any(SearchCriteria.class));
     }
 
@@ -205,7 +382,7 @@ class ProductControllerTest {
     @Test
     void getFilter_WhenNoProductsFound_ShouldReturnEmptyArray() throws Exception {
       // Arrange
-      when(productService.getAllProducts()).thenReturn(List.of());
+      when(productService.streamAll(any())).thenReturn(0L);
 
       // Act & Assert
       mockMvc
@@ -214,7 +391,66 @@ class ProductControllerTest {
           .andExpect(content().contentType(MediaType.APPLICATION_JSON))
           .andExpect(content().json("[]"));
 
-      verify(productService).getAllProducts();
+      verify(productService).streamAll(any());
+    }
+  }
+
+  @Nested
+  class GetFacetsTests {
+
+    @Test
+    void getFacets_ShouldReturnCountsForCriteria() throws Exception {
+      // Arrange
+      SearchCriteria criteria =
+          SearchCriteria.builder().category("Books").minPrice(new BigDecimal("5")).build();
+      ProductFacets facets =
+          new ProductFacets(
+              Map.of("Books", 3L),
+              Map.of("Penguin", 2L, "Vintage", 1L),
+              List.of(
+                  new PriceBucket(null, BigDecimal.TEN, 1L),
+                  new PriceBucket(BigDecimal.TEN, null, 2L)));
+      when(productService.getFacets(criteria)).thenReturn(facets);
+
+      // Act & Assert
+      mockMvc
+          .perform(get("/products/facets").param("category", "Books").param("minPrice", "5"))
+          .andExpect(status().isOk())
+          .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+          .andExpect(jsonPath("$.categories.Books").value(3))
+          .andExpect(jsonPath("$.brands.Penguin").value(2))
+          .andExpect(jsonPath("$.prices[0].to").value(10))
+          .andExpect(jsonPath("$.prices[1].count").value(2));
+
+      verify(productService).getFacets(criteria);
+      verify(productService, never()).search(any(SearchCriteria.class));
+    }
+  }
+
+  @Nested
+  class SuggestTests {
+
+    @Test
+    void suggest_ShouldReturnNamesForPrefix_WithDefaultLimit() throws Exception {
+      // Arrange
+      when(productService.suggestNames("lap", 10)).thenReturn(List.of("Laptop", "Laptop Stand"));
+
+      // Act & Assert
+      mockMvc
+          .perform(get("/products/suggest").param("prefix", "lap"))
+          .andExpect(status().isOk())
+          .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+          .andExpect(content().json("[\"Laptop\", \"Laptop Stand\"]"));
+
+      verify(productService).suggestNames("lap", 10);
+    }
+
+    @Test
+    void suggest_WhenPrefixIsMissing_ShouldReturnBadRequest() throws Exception {
+      // Act & Assert
+      mockMvc.perform(get("/products/suggest")).andExpect(status().isBadRequest());
+
+      verify(productService, never()).suggestNames(any(), anyInt());
     }
   }
 